@@ -1,10 +1,35 @@
 package com.example.demo;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 import java.util.Optional;
 
 public interface FavoriteLocationRepository extends JpaRepository<FavoriteLocation, Long> {
     List<FavoriteLocation> findByAppUserUsername(String username);
+
+    /**
+     * Favoriten eines Benutzers als Projektion, ohne die Entities und den Benutzer zu laden.
+     */
+    @Query("SELECT new com.example.demo.FavoriteLocationView(f.id, f.locationName, f.country, f.latitude, f.longitude) "
+            + "FROM FavoriteLocation f WHERE f.appUser.username = :username ORDER BY f.id")
+    List<FavoriteLocationView> findViewsByUsername(@Param("username") String username);
+
+    /**
+     * Koordinate eines Favoriten, ohne Benutzer und Namen.
+     */
+    interface Coordinate {
+        double getLatitude();
+
+        double getLongitude();
+    }
+
+    /**
+     * Alle favorisierten Koordinaten ohne Duplikate, für die Hintergrundaktualisierung.
+     */
+    @Query("SELECT DISTINCT f.latitude AS latitude, f.longitude AS longitude FROM FavoriteLocation f")
+    List<Coordinate> findDistinctCoordinates();
+
     Optional<FavoriteLocation> findByAppUserUsernameAndLatitudeAndLongitude(String username, double latitude, double longitude);
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.example.demo;
+
+/**
+ * Lesesicht auf einen Favoriten mit genau den Feldern der JSON-Antwort, ohne Benutzer-Entity.
+ */
+public record FavoriteLocationView(Long id, String locationName, String country, double latitude, double longitude) {
+}
@@ -0,0 +1,121 @@
+package com.example.demo.config;
+
+import com.example.demo.service.RequestTimings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+
+/**
+ * Führt BCrypt in einem eigenen, begrenzten Thread-Pool aus statt auf den Tomcat-Threads.
+ * Sind alle Hash-Threads belegt und die Queue voll, wird sofort mit
+ * {@link PasswordHashingRejectedException} abgewiesen; so bleiben bei einer Login-Welle höchstens
+ * {@code threads + queueCapacity} Request-Threads gebunden und die Wetter-Endpunkte antworten weiter.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitMillis;
+    private final int strength;
+
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity, long maxWaitMillis) {
+        this(new BCryptPasswordEncoder(strength), strength, threads, queueCapacity, maxWaitMillis);
+    }
+
+    BoundedPasswordEncoder(PasswordEncoder delegate, int strength, int threads, int queueCapacity, long maxWaitMillis) {
+        this.strength = strength;
+        this.delegate = delegate;
+        this.maxWaitMillis = maxWaitMillis;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Ermittelt den höchsten BCrypt-Kostenfaktor, dessen Hash auf dieser Maschine höchstens
+     * {@code targetMillis} dauert. Gemessen wird mit Faktor 8, jede Stufe verdoppelt die Zeit.
+     */
+    public static int calibrateStrength(long targetMillis) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(8);
+        probe.encode("warm-up");
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            probe.encode("calibration");
+        }
+        double millisAt8 = (System.nanoTime() - start) / 3 / 1e6;
+        int strength = 8;
+        while (strength < 16 && millisAt8 * Math.pow(2, strength + 1 - 8) <= targetMillis) {
+            strength++;
+        }
+        strength = Math.max(strength, 10);
+        logger.info("BCrypt-Kostenfaktor {} gewählt (Ziel {} ms, gemessen {} ms bei Faktor 8)",
+                strength, targetMillis, String.format("%.1f", millisAt8));
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        long start = RequestTimings.start();
+        try {
+            return await(task);
+        } finally {
+            RequestTimings.record(RequestTimings.AUTH, start);
+        }
+    }
+
+    private <T> T await(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingRejectedException("Zu viele gleichzeitige Anmeldungen");
+        }
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new PasswordHashingRejectedException("Zeitüberschreitung beim Passwort-Hashing");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Passwort-Hashing unterbrochen");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
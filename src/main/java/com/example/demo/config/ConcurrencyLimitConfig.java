@@ -0,0 +1,55 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Adaptives Concurrency-Limit vor den Wetter- und Favoriten-Endpunkten ({@code weather.limiter.*}).
+ * Limit, laufende Anfragen und Abweisungen stehen als Metriken {@code weather.limiter.*} bereit
+ * (z. B. {@code /actuator/metrics/weather.limiter.limit}).
+ */
+@Configuration
+@ConditionalOnProperty(name = "weather.limiter.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public GradientConcurrencyLimit gradientConcurrencyLimit(Environment environment, ObjectProvider<MeterRegistry> registry) {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(
+                environment.getProperty("weather.limiter.initial-limit", Integer.class, 20),
+                environment.getProperty("weather.limiter.min-limit", Integer.class, 4),
+                environment.getProperty("weather.limiter.max-limit", Integer.class, 150),
+                environment.getProperty("weather.limiter.window", Integer.class, 20),
+                environment.getProperty("weather.limiter.tolerance", Double.class, 1.5),
+                environment.getProperty("weather.limiter.smoothing", Double.class, 0.2),
+                environment.getProperty("weather.limiter.anonymous-share", Double.class, 0.8));
+        registry.ifAvailable(meters -> {
+            Gauge.builder("weather.limiter.limit", limit, GradientConcurrencyLimit::getLimit)
+                    .description("Aktuelles Limit gleichzeitiger Anfragen").register(meters);
+            Gauge.builder("weather.limiter.inflight", limit, GradientConcurrencyLimit::getInflight)
+                    .description("Laufende Anfragen").register(meters);
+            for (boolean authenticated : new boolean[]{true, false}) {
+                FunctionCounter.builder("weather.limiter.rejected", limit, l -> l.getRejected(authenticated))
+                        .tag("priority", authenticated ? "authenticated" : "anonymous")
+                        .description("Mit 503 abgewiesene Anfragen").register(meters);
+            }
+        });
+        return limit;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(GradientConcurrencyLimit limit) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(new ConcurrencyLimitFilter(limit));
+        registration.addUrlPatterns("/api/weather/*", "/favoriteLocations", "/favoriteLocations/*");
+        // Direkt nach Spring Security, damit die Anmeldung bekannt ist
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.demo.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Lässt Anfragen an die Wetter- und Favoriten-Endpunkte nur bis zum aktuellen Limit durch
+ * ({@link GradientConcurrencyLimit}); darüber wird sofort mit 503 und Retry-After abgewiesen,
+ * statt Tomcat-Threads zu blockieren. Läuft nach Spring Security, damit angemeldete Benutzer
+ * bevorzugt werden können, ohne dass ein beliebiger Authorization-Header dafür reicht.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final GradientConcurrencyLimit limit;
+
+    public ConcurrencyLimitFilter(GradientConcurrencyLimit limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!limit.tryAcquire(isAuthenticated())) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Server busy, please retry\"}");
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limit.release(System.nanoTime() - start);
+        }
+    }
+
+    private static boolean isAuthenticated() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.demo.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adaptives Limit für gleichzeitig bearbeitete Anfragen nach dem Gradient-Verfahren.
+ * Verglichen wird die mittlere Antwortzeit der letzten {@code window} Anfragen (kurz) mit einem
+ * gleitenden Mittel über viele Fenster (lang). Steigt die kurze über {@code tolerance × lang},
+ * sinkt das Limit proportional (höchstens auf die Hälfte pro Fenster); sonst wächst es um
+ * {@code √limit}, aber nur, wenn das bisherige Limit auch ausgeschöpft wurde.
+ * Anonyme Anfragen dürfen nur {@code anonymousShare} des Limits belegen, angemeldete das ganze.
+ */
+public class GradientConcurrencyLimit {
+
+    private static final int LONG_WINDOWS = 30;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int window;
+    private final double tolerance;
+    private final double smoothing;
+    private final double anonymousShare;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicLong rejectedAnonymous = new AtomicLong();
+    private final AtomicLong rejectedAuthenticated = new AtomicLong();
+    private volatile double limit;
+
+    private long windowRttSum;
+    private int windowCount;
+    private int windowMaxInflight;
+    private double longRttNanos;
+
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, int window,
+                                    double tolerance, double smoothing, double anonymousShare) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.window = window;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.anonymousShare = anonymousShare;
+    }
+
+    /**
+     * Reserviert einen Platz, wenn das (für anonyme Anfragen anteilige) Limit noch nicht erreicht ist.
+     * Nach Abschluss muss {@link #release} aufgerufen werden.
+     */
+    public boolean tryAcquire(boolean authenticated) {
+        int allowed = authenticated ? (int) limit : Math.max(1, (int) (limit * anonymousShare));
+        while (true) {
+            int current = inflight.get();
+            if (current >= allowed) {
+                (authenticated ? rejectedAuthenticated : rejectedAnonymous).incrementAndGet();
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long rttNanos) {
+        int current = inflight.getAndDecrement();
+        onSample(rttNanos, current);
+    }
+
+    private synchronized void onSample(long rttNanos, int inflightAtCompletion) {
+        windowRttSum += rttNanos;
+        windowCount++;
+        windowMaxInflight = Math.max(windowMaxInflight, inflightAtCompletion);
+        if (windowCount < window) {
+            return;
+        }
+
+        double shortRtt = (double) windowRttSum / windowCount;
+        int maxInflight = windowMaxInflight;
+        windowRttSum = 0;
+        windowCount = 0;
+        windowMaxInflight = 0;
+
+        if (longRttNanos == 0) {
+            longRttNanos = shortRtt;
+        } else {
+            longRttNanos += (shortRtt - longRttNanos) / LONG_WINDOWS;
+        }
+        // Nach einer Lastspitze schneller zur neuen, kürzeren Antwortzeit zurückfinden
+        if (longRttNanos > 2 * shortRtt) {
+            longRttNanos *= 0.95;
+        }
+
+        double current = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRtt));
+        double target = current * gradient + Math.sqrt(current);
+        if (target > current && maxInflight < current / 2) {
+            return;
+        }
+        double next = current * (1 - smoothing) + target * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public long getRejected(boolean authenticated) {
+        return authenticated ? rejectedAuthenticated.get() : rejectedAnonymous.get();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.config;
+
+import com.example.demo.service.HeavyHitters;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Die am häufigsten angefragten Orte und Suchbegriffe dieser Instanz für den Betrieb, z. B.
+ * {@code /actuator/hotkeys?limit=50}. Enthält Suchbegriffe und Orte der Benutzer und ist daher standardmäßig nicht
+ * per HTTP freigegeben; nur auf einem internen Management-Port in {@code management.endpoints.web.exposure.include}
+ * aufnehmen. Die Häufigkeiten sind Schätzungen seit dem letzten Verfall.
+ */
+@Component
+@Endpoint(id = "hotkeys")
+@ConditionalOnProperty(name = "weather.hot-keys.enabled", havingValue = "true", matchIfMissing = true)
+public class HotKeysEndpoint {
+
+    @Autowired
+    private HeavyHitters heavyHitters;
+
+    @ReadOperation
+    public List<HeavyHitters.HotKey> hotKeys(@Nullable Integer limit) {
+        return heavyHitters.top(limit != null ? Math.max(1, Math.min(limit, 1000)) : 50);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.demo.config;
+
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+
+/**
+ * Der Pool für Passwort-Hashing ist ausgelastet; die Anfrage wird mit 429 abgewiesen statt zu warten.
+ * Erbt von {@link InternalAuthenticationServiceException}, damit Spring Security den Fehler beim
+ * Basic-Login unverändert an den Entry-Point weiterreicht.
+ */
+public class PasswordHashingRejectedException extends InternalAuthenticationServiceException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.demo.config;
+
+import com.example.demo.service.RequestTimings;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Zeitmessung pro Anfrage: Filter für Server-Timing und Slow-Request-Log, Messung aller
+ * Spring-Data-Repositories als Phase {@code db} und Beginn der Serialisierung.
+ * Die Phasen der Services werden dort direkt über {@link RequestTimings} erfasst.
+ * Der {@code Server-Timing}-Header wird vor der Serialisierung gesetzt ({@code weather.timing.server-timing-header})
+ * und enthält deshalb keine Phase {@code serialize}; nur {@code weather.timing.server-timing-buffered} puffert den
+ * Antwortkörper, um auch sie zu messen.
+ */
+@Configuration
+@ConditionalOnProperty(name = "weather.timing.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestTimingConfig {
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(
+            @Value("${weather.timing.server-timing-buffered:false}") boolean buffered,
+            @Value("${weather.timing.slow-threshold-ms:1000}") long slowThresholdMillis,
+            @Value("${weather.timing.slow-sample-percent:100}") int slowSamplePercent) {
+        FilterRegistrationBean<ServerTimingFilter> registration =
+                new FilterRegistrationBean<>(new ServerTimingFilter(buffered, slowThresholdMillis, slowSamplePercent));
+        // Vor Spring Security, damit auch Basic-Auth (BCrypt, Benutzer-Lookup) mitgemessen wird
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * Hängt an jedes Repository einen Interceptor, der die Aufrufdauer als Phase {@code db} verbucht.
+     */
+    @Bean
+    public static BeanPostProcessor repositoryTimingPostProcessor() {
+        MethodInterceptor timing = invocation -> {
+            long start = RequestTimings.start();
+            try {
+                return invocation.proceed();
+            } finally {
+                RequestTimings.record(RequestTimings.DB, start);
+            }
+        };
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxy, information) -> proxy.addAdvice(timing)));
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Markiert den Übergang vom Controller zur Serialisierung des Rückgabewerts und setzt den
+     * {@code Server-Timing}-Header mit allen bis dahin gemessenen Phasen, solange die Antwort noch nicht gesendet ist.
+     */
+    @ControllerAdvice
+    static class SerializeTimingAdvice implements ResponseBodyAdvice<Object> {
+
+        private final boolean header;
+
+        SerializeTimingAdvice(@Value("${weather.timing.server-timing-header:true}") boolean header) {
+            this.header = header;
+        }
+
+        @Override
+        public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+            return true;
+        }
+
+        @Override
+        public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                      Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                      ServerHttpRequest request, ServerHttpResponse response) {
+            RequestTimings.beginSerialize();
+            RequestTimings timings = RequestTimings.current();
+            if (header && timings != null) {
+                response.getHeaders().set(ServerTimingFilter.SERVER_TIMING, timings.toHeader());
+            }
+            return body;
+        }
+    }
+}
@@ -1,14 +1,20 @@
 
 package com.example.demo.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
 import static org.springframework.security.config.Customizer.withDefaults;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.web.cors.CorsConfiguration;
@@ -21,13 +27,31 @@ import java.util.List;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /**
+     * BCrypt in einem begrenzten Pool (siehe {@link BoundedPasswordEncoder}).
+     * Mit {@code security.password.target-ms > 0} wird der Kostenfaktor beim Start auf die Zielzeit kalibriert.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${security.password.bcrypt-strength:10}") int strength,
+            @Value("${security.password.target-ms:0}") long targetMillis,
+            @Value("${security.password.threads:0}") int threads,
+            @Value("${security.password.queue-capacity:32}") int queueCapacity,
+            @Value("${security.password.max-wait-ms:2000}") long maxWaitMillis) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        int cost = targetMillis > 0 ? BoundedPasswordEncoder.calibrateStrength(targetMillis) : strength;
+        return new BoundedPasswordEncoder(cost, poolSize, queueCapacity, maxWaitMillis);
     }
 
+    /**
+     * Auf dem App-Port ist vom Actuator nur {@code health} erreichbar; Metriken und andere Endpunkte gibt es nur über
+     * einen internen {@code management.server.port}, der nicht öffentlich erreichbar sein darf.
+     */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   @Value("${server.port:8080}") int serverPort,
+                                                   @Value("${management.server.port:-1}") int managementPort) throws Exception {
+        boolean separateManagementPort = managementPort > 0 && managementPort != serverPort;
         http
                 .cors(withDefaults())
                 .csrf(csrf -> csrf.disable())
@@ -36,13 +60,19 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/register").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/weather/places/search").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/weather/details").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/weather/hourly").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/weather/history").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/weather/tiles/**").permitAll()
+                        .requestMatchers(request -> separateManagementPort && request.getLocalPort() == managementPort).permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
 
                         .requestMatchers("/favoriteLocations", "/favoriteLocations/**").authenticated()
                         .requestMatchers("/api/**").authenticated()
+                        .requestMatchers("/actuator/**").denyAll()
 
                         .anyRequest().permitAll()
                 )
-                .httpBasic(withDefaults())
+                .httpBasic(basic -> basic.authenticationEntryPoint(authenticationEntryPoint()))
                 .sessionManagement(session ->
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 );
@@ -50,6 +80,28 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Ausgelasteter Hash-Pool ergibt 429 mit Retry-After, alles andere das übliche Basic-Verhalten
+     * (401, bei XHR ohne WWW-Authenticate, damit der Browser keinen Login-Dialog zeigt).
+     */
+    private AuthenticationEntryPoint authenticationEntryPoint() {
+        BasicAuthenticationEntryPoint basic = new BasicAuthenticationEntryPoint();
+        basic.setRealmName("Realm");
+        HttpStatusEntryPoint xhr = new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED);
+        return (request, response, authException) -> {
+            if (authException instanceof PasswordHashingRejectedException) {
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.getWriter().write("{\"error\":\"Too many login attempts, please retry\"}");
+            } else if ("XMLHttpRequest".equals(request.getHeader("X-Requested-With"))) {
+                xhr.commence(request, response, authException);
+            } else {
+                basic.commence(request, response, authException);
+            }
+        };
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -0,0 +1,83 @@
+package com.example.demo.config;
+
+import com.example.demo.service.RequestTimings;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Misst jede Anfrage in Phasen (siehe {@link RequestTimings}); den {@code Server-Timing}-Header ohne
+ * {@code serialize} setzt {@code RequestTimingConfig.SerializeTimingAdvice} vor dem Schreiben des Körpers.
+ * Nur im Diagnosemodus {@code buffered} wird der Antwortkörper gepuffert und der Header danach
+ * samt Serialisierung neu gesetzt.
+ * Anfragen über {@code weather.timing.slow-threshold-ms} werden mit allen Phasen als JSON-Zeile
+ * in den Logger {@code weather.slow-requests} geschrieben, ein Anteil von {@code slow-sample-percent}; das geht auch ohne Puffer.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    private static final Logger slowLog = LoggerFactory.getLogger("weather.slow-requests");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final boolean buffered;
+    private final long slowThresholdNanos;
+    private final int slowSamplePercent;
+
+    public ServerTimingFilter(boolean buffered, long slowThresholdMillis, int slowSamplePercent) {
+        this.buffered = buffered;
+        this.slowThresholdNanos = slowThresholdMillis * 1_000_000;
+        this.slowSamplePercent = slowSamplePercent;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.bind();
+        ContentCachingResponseWrapper wrapper = buffered ? new ContentCachingResponseWrapper(response) : null;
+        try {
+            chain.doFilter(request, wrapper != null ? wrapper : response);
+        } finally {
+            timings.endSerialize();
+            RequestTimings.unbind();
+            if (wrapper != null) {
+                if (!wrapper.isCommitted()) {
+                    wrapper.setHeader(SERVER_TIMING, timings.toHeader());
+                }
+                wrapper.copyBodyToResponse();
+            }
+            long elapsed = timings.elapsedNanos();
+            if (elapsed >= slowThresholdNanos && ThreadLocalRandom.current().nextInt(100) < slowSamplePercent) {
+                logSlowRequest(request, response.getStatus(), elapsed, timings);
+            }
+        }
+    }
+
+    private static void logSlowRequest(HttpServletRequest request, int status, long elapsedNanos, RequestTimings timings) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("method", request.getMethod());
+        entry.put("path", request.getRequestURI());
+        entry.put("query", request.getQueryString());
+        entry.put("status", status);
+        entry.put("totalMs", Math.round(elapsedNanos / 1e5) / 10.0);
+        entry.put("phases", timings.toMillis());
+        try {
+            slowLog.warn(MAPPER.writeValueAsString(entry));
+        } catch (JsonProcessingException e) {
+            slowLog.warn("Langsame Anfrage {} {}: {}", request.getMethod(), request.getRequestURI(), entry);
+        }
+    }
+}
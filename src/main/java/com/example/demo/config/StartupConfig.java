@@ -0,0 +1,33 @@
+package com.example.demo.config;
+
+import com.example.demo.controller.WeatherController;
+import com.example.demo.controller.WeatherDetailController;
+import com.example.demo.service.ClusterMembership;
+import com.example.demo.service.PartitionedRefreshJob;
+import com.example.demo.service.WeatherDetailService;
+import com.example.demo.service.WeatherService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+@Configuration
+public class StartupConfig {
+
+    /**
+     * Hält die Wetter-Endpunkte auch bei {@code spring.main.lazy-initialization=true} eager,
+     * damit die erste /details-Anfrage nach einem Kaltstart nicht den Aufbau bezahlt.
+     * Die Hintergrundaktualisierung wird von keiner anderen Bean referenziert und liefe lazy nie an.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter weatherBeansExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                WeatherDetailController.class,
+                WeatherController.class,
+                WeatherDetailService.class,
+                WeatherService.class,
+                RestTemplate.class,
+                PartitionedRefreshJob.class,
+                ClusterMembership.class);
+    }
+}
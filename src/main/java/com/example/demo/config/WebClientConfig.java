@@ -0,0 +1,41 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "xweather.engine", havingValue = "reactive")
+public class WebClientConfig {
+
+    /**
+     * WebClient für Xweather mit begrenztem Verbindungspool.
+     * Sind alle Verbindungen belegt, warten weitere Aufrufe in einer begrenzten Queue,
+     * statt zusätzliche Threads oder Sockets zu belegen.
+     */
+    @Bean
+    public WebClient xweatherWebClient(WebClient.Builder builder,
+                                       @Value("${xweather.reactive.max-connections:500}") int maxConnections,
+                                       @Value("${xweather.reactive.pending-acquire-max:5000}") int pendingAcquireMax,
+                                       @Value("${xweather.reactive.max-in-memory-size:1048576}") int maxInMemorySize) {
+        ConnectionProvider provider = ConnectionProvider.builder("xweather")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(Duration.ofSeconds(5))
+                .build();
+
+        HttpClient httpClient = HttpClient.create(provider).compress(true);
+
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemorySize))
+                .build();
+    }
+}
@@ -4,7 +4,11 @@ import com.example.demo.AppUser;
 import com.example.demo.AppUserRepository;
 import com.example.demo.FavoriteLocation;
 import com.example.demo.FavoriteLocationRepository;
+import com.example.demo.FavoriteLocationView;
+import com.example.demo.service.FavoritesCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
@@ -20,10 +24,22 @@ public class FavoriteLocationController {
     @Autowired
     private AppUserRepository appUserRepository;
 
+    @Autowired(required = false)
+    private FavoritesCache favoritesCache;
+
+    /**
+     * Favoriten des angemeldeten Benutzers mit ETag; bei passendem If-None-Match antwortet Spring mit 304.
+     */
     @GetMapping
-    public List<FavoriteLocation> getFavorites(Authentication authentication) {
+    public ResponseEntity<List<FavoriteLocationView>> getFavorites(Authentication authentication) {
         String username = authentication.getName();
-        return favoriteLocationRepository.findByAppUserUsername(username);
+        FavoritesCache.Entry favorites = favoritesCache != null
+                ? favoritesCache.get(username, () -> favoriteLocationRepository.findViewsByUsername(username))
+                : FavoritesCache.Entry.of(favoriteLocationRepository.findViewsByUsername(username));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(favorites.etag())
+                .body(favorites.favorites());
     }
 
     @PostMapping
@@ -33,7 +49,9 @@ public class FavoriteLocationController {
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         location.setAppUser(user);
-        return favoriteLocationRepository.save(location);
+        FavoriteLocation saved = favoriteLocationRepository.save(location);
+        invalidate(username);
+        return saved;
     }
 
     @DeleteMapping
@@ -49,5 +67,12 @@ public class FavoriteLocationController {
                 .orElseThrow(() -> new RuntimeException("Location not found"));
 
         favoriteLocationRepository.delete(location);
+        invalidate(username);
+    }
+
+    private void invalidate(String username) {
+        if (favoritesCache != null) {
+            favoritesCache.invalidate(username);
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,11 @@
 package com.example.demo. controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org. springframework.web.bind.annotation.*;
+import com.example.demo.config.ContentNegotiationConfig;
 import com.example.demo.service.WeatherService;
 import java.util.List;
 import java.util.Map;
@@ -15,12 +18,13 @@ public class WeatherController {
     @Autowired
     private WeatherService weatherService;
 
-    @GetMapping("/places/search")
+    @GetMapping(value = "/places/search", produces = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ContentNegotiationConfig.APPLICATION_SMILE_VALUE})
     public ResponseEntity<List<Map<String, Object>>> searchPlaces(@RequestParam String query) {
         if (query. length() < 3) {
             return ResponseEntity.badRequest().build();
         }
         List<Map<String, Object>> results = weatherService.searchPlaces(query);
-        return ResponseEntity. ok(results);
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(results);
     }
 }
\ No newline at end of file
@@ -1,26 +1,262 @@
 package com.example.demo.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import com.example.demo.config.ContentNegotiationConfig;
+import com.example.demo.service.ForecastSeries;
+import com.example.demo.service.ObservationHistory;
+import com.example.demo.service.ObservationHistoryStore;
+import com.example.demo.service.ObservationMetric;
+import com.example.demo.service.RequestTimings;
+import com.example.demo.service.ResponseByteCache;
 import com.example.demo.service.WeatherDetailService;
+import com.example.demo.service.WeatherSnapshotStore;
+import com.example.demo.service.WeatherTileCache;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/weather")
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:4200", "http://localhost:5173", "https://weatherapp-frontend-orzv.onrender.com"})
 public class WeatherDetailController {
 
+    private static final List<MediaType> DETAIL_FORMATS = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR,
+            MediaType.parseMediaType(ContentNegotiationConfig.APPLICATION_SMILE_VALUE));
+
     @Autowired
     private WeatherDetailService weatherDetailService;
 
-    @GetMapping("/details")
-    public ResponseEntity<Map<String, Object>> getWeatherDetails(
+    @Autowired(required = false)
+    private ObservationHistoryStore historyStore;
+
+    @Autowired(required = false)
+    private WeatherTileCache tileCache;
+
+    @Autowired(required = false)
+    private WeatherSnapshotStore snapshots;
+
+    @Autowired(required = false)
+    private ResponseByteCache outputCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    /**
+     * Alle Abschnitte für eine Koordinate, mit {@code version}. Wer regelmäßig abfragt, gibt die zuletzt
+     * erhaltene Version als {@code since} mit und bekommt nur die seitdem geänderten Abschnitte ({@code delta: true}).
+     * Mit {@link ResponseByteCache} werden die fertigen (bei {@code Accept-Encoding: gzip} komprimierten) Bytes
+     * häufig angefragter Orte wiederverwendet, solange sich die Daten nicht geändert haben.
+     * GET /api/weather/details?lat=..&lon=..&since=..
+     */
+    @GetMapping(value = "/details", produces = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ContentNegotiationConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<?> getWeatherDetails(
             @RequestParam double lat,
             @RequestParam double lon,
-            @RequestParam(defaultValue = "m") String units) {
+            @RequestParam(defaultValue = "m") String units,
+            @RequestParam(required = false) String since,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
 
         Map<String, Object> weatherData = weatherDetailService.fetchAllWeatherData(lat, lon, units);
-        return ResponseEntity.ok(weatherData);
+        if (snapshots != null) {
+            weatherData = snapshots.apply(lat, lon, units, weatherData, since);
+        }
+        MediaType format = outputCache != null ? negotiate(accept) : null;
+        if (format == null) {
+            // Ohne Cache oder bei unbekanntem Accept-Header wie bisher über die Message-Converter (ggf. 406)
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(weatherData);
+        }
+
+        // Nur ein von der Snapshot-Ablage akzeptiertes since ergibt eine eigene Variante; ungültige oder fremde
+        // Versionen bekommen die vollständige Antwort und teilen sich deren Eintrag
+        boolean delta = Boolean.TRUE.equals(weatherData.get(WeatherSnapshotStore.DELTA));
+        String variant = format + (delta ? "|delta|" + since : "|full");
+        ObjectMapper mapper = mapperFor(format);
+        ResponseByteCache.Body body = outputCache.get(lat, lon, units, variant, weatherData, acceptsGzip(acceptEncoding),
+                data -> {
+                    try {
+                        return mapper.writeValueAsBytes(data);
+                    } catch (JsonProcessingException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        return ResponseEntity.ok()
+                .contentType(format)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .headers(headers -> {
+                    if (body.gzip()) {
+                        headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                    }
+                })
+                .body(body.bytes());
+    }
+
+    /**
+     * Stündliche Vorhersage für lange Zeiträume (1 bis 240 Stunden) im kompakten Spaltenformat
+     * GET /api/weather/hourly?lat=..&lon=..&hours=120
+     */
+    @GetMapping(value = "/hourly", produces = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ContentNegotiationConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<ForecastSeries> getHourlySeries(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "m") String units,
+            @RequestParam(defaultValue = "48") int hours) {
+
+        if (hours < 1 || hours > 240) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(weatherDetailService.fetchHourlySeries(lat, lon, units, hours));
+    }
+
+    /**
+     * Verlauf der bereits abgerufenen Conditions- und AirQuality-Werte, ohne Xweather-Aufruf
+     * GET /api/weather/history?lat=..&lon=..&from=..&to=..&resolution=hour&metrics=temp,aqi
+     * from/to in Epoch-Sekunden, Standard sind die letzten 24 Stunden.
+     */
+    @GetMapping(value = "/history", produces = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ContentNegotiationConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<ObservationHistory> getHistory(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(defaultValue = "hour") String resolution,
+            @RequestParam(required = false) List<String> metrics,
+            @RequestParam(defaultValue = "m") String units) {
+
+        if (historyStore == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        long end = to != null ? to : System.currentTimeMillis() / 1000;
+        long start = from != null ? from : end - 86400;
+        ObservationHistory.Resolution parsedResolution;
+        List<ObservationMetric> parsedMetrics = new ArrayList<>();
+        try {
+            parsedResolution = ObservationHistory.Resolution.fromKey(resolution);
+            if (metrics == null || metrics.isEmpty()) {
+                parsedMetrics.addAll(Arrays.asList(ObservationMetric.values()));
+            } else {
+                for (String metric : metrics) {
+                    parsedMetrics.add(ObservationMetric.fromKey(metric.trim()));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (start > end || end - start > parsedResolution.getMaxRangeSeconds()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        long dbStart = RequestTimings.start();
+        ObservationHistory history = historyStore.query(lat, lon, start, end, parsedResolution, parsedMetrics, units);
+        RequestTimings.record(RequestTimings.DB, dbStart);
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(history);
+    }
+
+    /**
+     * Kartenkachel einer Messgröße (z. B. temp, windSpeed, aqi) als Raster von {@code size × size} Werten
+     * GET /api/weather/tiles/temp/6/34/21?units=m
+     */
+    @GetMapping(value = "/tiles/{layer}/{z}/{x}/{y}", produces = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ContentNegotiationConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<WeatherTileCache.Tile> getTile(
+            @PathVariable String layer,
+            @PathVariable int z,
+            @PathVariable int x,
+            @PathVariable int y,
+            @RequestParam(defaultValue = "m") String units) {
+
+        if (tileCache == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        WeatherTileCache.Tile tile;
+        try {
+            tile = weatherDetailService.fetchTile(ObservationMetric.fromKey(layer), z, x, y, units);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        // Kacheln mit fehlenden Stützpunkten werden auch serverseitig nicht gespeichert
+        long maxAge = tileCache.maxAgeSeconds(tile);
+        return ResponseEntity.ok()
+                .cacheControl(maxAge > 0 ? CacheControl.maxAge(maxAge, TimeUnit.SECONDS).cachePublic() : CacheControl.noStore())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(tile);
+    }
+
+    /**
+     * Wählt wie die Message-Converter eines der /details-Formate nach Qualität und Spezifität des Accept-Headers,
+     * mit {@code q=0} ausgeschlossene Formate nie; null, wenn keines passt oder der Header ungültig ist.
+     */
+    static MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+            MimeTypeUtils.sortBySpecificity(accepted);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        List<MediaType> excluded = accepted.stream().filter(type -> type.getQualityValue() == 0).toList();
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                break;
+            }
+            for (MediaType format : DETAIL_FORMATS) {
+                if (type.includes(format) && excluded.stream().noneMatch(refused -> refused.includes(format))) {
+                    return format;
+                }
+            }
+        }
+        return null;
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private ObjectMapper mapperFor(MediaType format) {
+        if (format.equals(MediaType.APPLICATION_CBOR)) {
+            return cborConverter.getObjectMapper();
+        }
+        if (format.equals(DETAIL_FORMATS.get(2))) {
+            return smileConverter.getObjectMapper();
+        }
+        return objectMapper;
     }
-}
\ No newline at end of file
+}
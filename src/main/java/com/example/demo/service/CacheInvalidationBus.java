@@ -0,0 +1,149 @@
+package com.example.demo.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Verteilt Cache-Invalidierungen an alle Instanzen über eine Tabelle in der gemeinsamen Datenbank.
+ * Jede Instanz liest neue Zeilen im Abstand von {@code weather.shared-cache.poll-interval-ms}
+ * und ruft die für das Thema registrierten Listener auf, auch für eigene Nachrichten.
+ * Funktioniert mit jeder Datenbank, braucht also kein LISTEN/NOTIFY.
+ */
+@Component
+@ConditionalOnProperty(name = "weather.shared-cache.enabled", havingValue = "true")
+public class CacheInvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private static final long RETENTION_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final long OVERLAP = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final long pollIntervalMs;
+    private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+
+    private final Set<Long> deliveredIds = new HashSet<>();
+
+    private volatile boolean schemaReady;
+    private volatile long lastSeenId = -1;
+    private long polls;
+    private ScheduledExecutorService poller;
+
+    @Autowired
+    public CacheInvalidationBus(JdbcTemplate jdbcTemplate, Environment environment) {
+        this(jdbcTemplate, environment, Clock.systemUTC());
+    }
+
+    CacheInvalidationBus(JdbcTemplate jdbcTemplate, Environment environment, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.pollIntervalMs = environment.getProperty("weather.shared-cache.poll-interval-ms", Long.class, 1000L);
+    }
+
+    @PostConstruct
+    void start() {
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::pollQuietly, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    public void subscribe(String topic, Consumer<String> listener) {
+        listeners.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    public void publish(String topic, String key) {
+        ensureSchema();
+        jdbcTemplate.update("INSERT INTO weather_cache_invalidation (topic, cache_key, created_at) VALUES (?, ?, ?)",
+                topic, key, clock.millis());
+    }
+
+    /**
+     * Liest neue Invalidierungen und stellt sie zu. Gelesen wird ab {@code lastSeenId - OVERLAP}, weil
+     * Ids gleichzeitiger Transaktionen nicht in Id-Reihenfolge sichtbar werden müssen; bereits
+     * zugestellte Ids werden übersprungen.
+     * @return Anzahl zugestellter Nachrichten
+     */
+    public synchronized int poll() {
+        ensureSchema();
+        if (lastSeenId < 0) {
+            // Beim Start gibt es nichts zu invalidieren; ältere Nachrichten werden übersprungen.
+            Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM weather_cache_invalidation", Long.class);
+            lastSeenId = max != null ? max : 0;
+            deliveredIds.addAll(jdbcTemplate.queryForList(
+                    "SELECT id FROM weather_cache_invalidation WHERE id > ?", Long.class, lastSeenId - OVERLAP));
+            return 0;
+        }
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT id, topic, cache_key FROM weather_cache_invalidation WHERE id > ? ORDER BY id", lastSeenId - OVERLAP);
+        int delivered = 0;
+        for (Map<String, Object> row : rows) {
+            long id = ((Number) row.get("id")).longValue();
+            if (!deliveredIds.add(id)) continue;
+            lastSeenId = Math.max(lastSeenId, id);
+            delivered++;
+            for (Consumer<String> listener : listeners.getOrDefault((String) row.get("topic"), List.of())) {
+                try {
+                    listener.accept((String) row.get("cache_key"));
+                } catch (RuntimeException e) {
+                    logger.error("Fehler beim Invalidieren von {}: {}", row.get("cache_key"), e.getMessage());
+                }
+            }
+        }
+        deliveredIds.removeIf(id -> id <= lastSeenId - OVERLAP);
+        return delivered;
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+            if (++polls % 60 == 0) {
+                jdbcTemplate.update("DELETE FROM weather_cache_invalidation WHERE created_at < ?", clock.millis() - RETENTION_MILLIS);
+            }
+        } catch (RuntimeException e) {
+            // Eine durchgereichte Exception würde scheduleWithFixedDelay dauerhaft beenden
+            logger.error("Fehler beim Lesen der Invalidierungen: {}", e.getMessage());
+        }
+    }
+
+    private void ensureSchema() {
+        if (schemaReady) return;
+        synchronized (this) {
+            if (schemaReady) return;
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS weather_cache_invalidation ("
+                    + "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, topic VARCHAR(50) NOT NULL, "
+                    + "cache_key VARCHAR(200) NOT NULL, created_at BIGINT NOT NULL)");
+            schemaReady = true;
+        }
+    }
+}
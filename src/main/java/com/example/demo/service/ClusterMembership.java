@@ -0,0 +1,163 @@
+package com.example.demo.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mitgliedschaft der Instanzen über eine Heartbeat-Tabelle in der gemeinsamen Datenbank.
+ * Jede Instanz schreibt alle {@code weather.cluster.heartbeat-ms} ihren Zeitstempel; wer länger als
+ * {@code weather.cluster.timeout-ms} schweigt, fällt aus dem {@link ConsistentHashRing}.
+ * Anführer ist die lebende Instanz mit der kleinsten Id; sie räumt verwaiste Einträge auf.
+ * Alle Zeitstempel kommen aus der {@link DatabaseClock}, Abweichungen der Systemuhren werfen also keine
+ * lebenden Instanzen aus dem Ring. Funktioniert mit jeder Datenbank, braucht also keine Advisory Locks.
+ */
+@Component
+@ConditionalOnProperty(name = "weather.refresh.enabled", havingValue = "true")
+public class ClusterMembership {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterMembership.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final String nodeId;
+    private final long heartbeatMs;
+    private final long timeoutMs;
+    private final int virtualNodes;
+
+    private volatile ConsistentHashRing ring;
+    private volatile boolean schemaReady;
+    private ScheduledExecutorService heartbeats;
+
+    @Autowired
+    public ClusterMembership(JdbcTemplate jdbcTemplate, Environment environment) {
+        this(jdbcTemplate, environment,
+                new DatabaseClock(jdbcTemplate, environment.getProperty("weather.cluster.clock-resync-ms", Long.class, 60_000L)),
+                environment.getProperty("weather.cluster.node-id", UUID.randomUUID().toString()));
+    }
+
+    ClusterMembership(JdbcTemplate jdbcTemplate, Environment environment, Clock clock, String nodeId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.nodeId = nodeId;
+        this.heartbeatMs = environment.getProperty("weather.cluster.heartbeat-ms", Long.class, 2000L);
+        this.timeoutMs = environment.getProperty("weather.cluster.timeout-ms", Long.class, 6000L);
+        this.virtualNodes = environment.getProperty("weather.cluster.virtual-nodes", Integer.class, 64);
+        this.ring = new ConsistentHashRing(List.of(nodeId), virtualNodes);
+    }
+
+    @PostConstruct
+    void start() {
+        heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleWithFixedDelay(this::heartbeatQuietly, 0, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Meldet die Instanz sofort ab, damit die anderen ihre Zellen beim nächsten Heartbeat übernehmen.
+     */
+    @PreDestroy
+    void stop() {
+        if (heartbeats != null) {
+            heartbeats.shutdownNow();
+        }
+        try {
+            ensureSchema();
+            jdbcTemplate.update("DELETE FROM weather_cluster_node WHERE node_id = ?", nodeId);
+        } catch (DataAccessException e) {
+            logger.warn("Fehler beim Abmelden der Instanz {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    /**
+     * Schreibt den eigenen Heartbeat und baut den Ring neu, wenn sich die lebenden Instanzen geändert haben.
+     */
+    public synchronized ConsistentHashRing heartbeat() {
+        ensureSchema();
+        long now = clock.millis();
+        String update = "UPDATE weather_cluster_node SET heartbeat_at = ? WHERE node_id = ?";
+        if (jdbcTemplate.update(update, now, nodeId) == 0) {
+            try {
+                jdbcTemplate.update("INSERT INTO weather_cluster_node (node_id, joined_at, heartbeat_at) VALUES (?, ?, ?)",
+                        nodeId, now, now);
+            } catch (DuplicateKeyException e) {
+                jdbcTemplate.update(update, now, nodeId);
+            }
+        }
+
+        List<String> live = jdbcTemplate.queryForList(
+                "SELECT node_id FROM weather_cluster_node WHERE heartbeat_at > ? ORDER BY node_id", String.class, now - timeoutMs);
+        if (!live.equals(ring.nodes())) {
+            logger.info("Cluster-Mitglieder geändert: {} -> {}", ring.nodes(), live);
+            ring = new ConsistentHashRing(live, virtualNodes);
+        }
+        if (isLeader()) {
+            jdbcTemplate.update("DELETE FROM weather_cluster_node WHERE heartbeat_at <= ?", now - 10 * timeoutMs);
+        }
+        return ring;
+    }
+
+    public ConsistentHashRing getRing() {
+        return ring;
+    }
+
+    /**
+     * Gemeinsame Zeitbasis des Clusters für Heartbeats und Aktualisierungsintervalle.
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public boolean isLeader() {
+        List<String> nodes = ring.nodes();
+        return !nodes.isEmpty() && nodes.get(0).equals(nodeId);
+    }
+
+    /**
+     * Ob die Instanz laut aktuellem Ring für den Schlüssel zuständig ist.
+     */
+    public boolean owns(String key) {
+        return nodeId.equals(ring.owner(key));
+    }
+
+    private void heartbeatQuietly() {
+        try {
+            heartbeat();
+        } catch (RuntimeException e) {
+            // Eine durchgereichte Exception würde scheduleWithFixedDelay dauerhaft beenden
+            logger.error("Fehler beim Heartbeat der Instanz {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private void ensureSchema() {
+        if (schemaReady) return;
+        synchronized (this) {
+            if (schemaReady) return;
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS weather_cluster_node (node_id VARCHAR(64) PRIMARY KEY, "
+                    + "joined_at BIGINT NOT NULL, heartbeat_at BIGINT NOT NULL)");
+            schemaReady = true;
+        }
+    }
+}
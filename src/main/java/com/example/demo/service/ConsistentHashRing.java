@@ -0,0 +1,78 @@
+package com.example.demo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Unveränderlicher Hash-Ring zur Verteilung von Schlüsseln (z. B. Geohash-Zellen) auf Instanzen.
+ * Jede Instanz belegt {@code virtualNodes} Punkte auf dem Ring; ein Schlüssel gehört der Instanz mit dem
+ * nächsten Punkt im Uhrzeigersinn. Kommt eine Instanz hinzu oder fällt weg, wechseln nur etwa
+ * {@code 1 / Anzahl} der Schlüssel den Besitzer.
+ */
+public final class ConsistentHashRing {
+
+    private final List<String> nodes;
+    private final long[] points;
+    private final String[] owners;
+
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        this.nodes = List.copyOf(new TreeSet<>(nodes));
+        TreeMap<Long, String> ring = new TreeMap<>();
+        for (String node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.putIfAbsent(hash(node + "#" + i), node);
+            }
+        }
+        this.points = new long[ring.size()];
+        this.owners = new String[ring.size()];
+        int i = 0;
+        for (Map.Entry<Long, String> point : ring.entrySet()) {
+            points[i] = point.getKey();
+            owners[i++] = point.getValue();
+        }
+    }
+
+    /**
+     * Instanz, der der Schlüssel gehört; {@code null} bei leerem Ring.
+     */
+    public String owner(String key) {
+        if (points.length == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    /**
+     * Sortierte Instanzen des Rings.
+     */
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    /**
+     * FNV-1a über die UTF-8-Bytes mit anschließender Durchmischung, damit ähnliche Schlüssel
+     * (benachbarte Geohashes, durchnummerierte virtuelle Knoten) gleichmäßig über den Ring streuen.
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 64-Bit-Fingerabdruck aus Maps, Listen, Strings, Zahlen und Wahrheitswerten, wie sie in den /details-Abschnitten
+ * stehen. Anders als {@code hashCode()} (32 Bit, bei Maps eine Summe aus {@code key ^ value}, bei Strings
+ * mit bekannten Kollisionen wie {@code "Aa"}/{@code "BB"}) wird jeder Wert mit 64 Bit gestreut, sodass eine echte
+ * Änderung praktisch nie denselben Wert ergibt. Zahlen werden über ihren {@code double}-Wert verglichen,
+ * {@code 5} und {@code 5.0} (z. B. nach dem Weg durch den gemeinsamen Cache) gelten also als gleich.
+ * Andere Typen fließen nur mit Klasse und {@code hashCode()} ein.
+ */
+final class ContentFingerprint {
+
+    private static final long NULL = 0x6a09e667f3bcc908L;
+    private static final long TRUE = 0xbb67ae8584caa73bL;
+    private static final long FALSE = 0x3c6ef372fe94f82bL;
+    private static final long MAP = 0xa54ff53a5f1d36f1L;
+    private static final long LIST = 0x510e527fade682d1L;
+    private static final long NUMBER = 0x9b05688c2b3e6c1fL;
+
+    private ContentFingerprint() {
+    }
+
+    static long of(Object value) {
+        if (value == null) {
+            return NULL;
+        }
+        if (value instanceof String string) {
+            return ofString(string);
+        }
+        if (value instanceof Number number) {
+            return mix(NUMBER ^ Double.doubleToLongBits(number.doubleValue() + 0.0));
+        }
+        if (value instanceof Boolean bool) {
+            return bool ? TRUE : FALSE;
+        }
+        if (value instanceof Map<?, ?> map) {
+            // Reihenfolgeunabhängig, jeder Eintrag für sich gestreut
+            long sum = 0;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                sum += mix(of(entry.getKey()) * 31 + Long.rotateLeft(of(entry.getValue()), 29));
+            }
+            return mix(MAP ^ sum ^ map.size());
+        }
+        if (value instanceof Collection<?> collection) {
+            long hash = LIST ^ collection.size();
+            for (Object element : collection) {
+                hash = mix(hash * 31 + of(element));
+            }
+            return hash;
+        }
+        return mix(ofString(value.getClass().getName()) ^ value.hashCode());
+    }
+
+    private static long ofString(String string) {
+        // FNV-1a über die UTF-16-Zeichen
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < string.length(); i++) {
+            hash ^= string.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash ^ string.length());
+    }
+
+    /**
+     * Finalizer von SplitMix64.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
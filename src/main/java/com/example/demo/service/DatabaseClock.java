@@ -0,0 +1,66 @@
+package com.example.demo.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Uhr nach der Zeit der gemeinsamen Datenbank, damit alle Instanzen Heartbeats und Intervalle gleich sehen,
+ * auch wenn ihre Systemuhren einige Sekunden auseinanderliegen. Fragt {@code CURRENT_TIMESTAMP} höchstens alle
+ * {@code resyncMillis} ab und rechnet dazwischen mit {@link System#nanoTime()} weiter; die Abweichung zwischen
+ * Instanzen liegt so in der Größenordnung einer Datenbank-Rundreise.
+ */
+public final class DatabaseClock extends Clock {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long resyncNanos;
+    private long baseMillis;
+    private long baseNanos;
+    private boolean synced;
+
+    public DatabaseClock(JdbcTemplate jdbcTemplate, long resyncMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.resyncNanos = resyncMillis * 1_000_000;
+    }
+
+    @Override
+    public synchronized long millis() {
+        long now = System.nanoTime();
+        if (!synced || now - baseNanos >= resyncNanos) {
+            sync();
+            now = System.nanoTime();
+        }
+        return baseMillis + (now - baseNanos) / 1_000_000;
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis());
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return this;
+    }
+
+    /**
+     * Übernimmt die Datenbankzeit; die halbe Dauer der Abfrage wird als Laufzeit der Antwort angerechnet.
+     */
+    private void sync() {
+        long before = System.nanoTime();
+        Timestamp timestamp = jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP", Timestamp.class);
+        long after = System.nanoTime();
+        baseMillis = timestamp.getTime();
+        baseNanos = before + (after - before) / 2;
+        synced = true;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.demo.service;
+
+import com.example.demo.FavoriteLocationView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Favoritenliste pro Benutzer mit ETag, damit ein Dashboard-Aufruf ohne Datenbankzugriff auskommt.
+ * Einträge werden bei jeder Änderung der Liste über {@link #invalidate} entfernt; mit gemeinsamem
+ * Cache ({@code weather.shared-cache.enabled}) auch auf allen anderen Instanzen, {@code *} leert alles.
+ * Lesevorgänge, die sich mit einer Invalidierung überschneiden, werden nicht zwischengespeichert.
+ * Ohne gemeinsamen Cache begrenzt {@code favorites.cache.ttl-seconds}, wie lange eine Instanz
+ * Änderungen über eine andere Instanz übersieht.
+ */
+@Component
+@ConditionalOnProperty(name = "favorites.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class FavoritesCache {
+
+    public static final String TOPIC = "favorites";
+    public static final String ALL = "*";
+
+    /**
+     * Favoritenliste mit dem daraus berechneten ETag.
+     */
+    public record Entry(List<FavoriteLocationView> favorites, String etag) {
+
+        public static Entry of(List<FavoriteLocationView> favorites) {
+            return new Entry(List.copyOf(favorites), etagOf(favorites));
+        }
+    }
+
+    private record Cached(Entry entry, long expiresAt) {
+    }
+
+    private final ConcurrentHashMap<String, Cached> entries = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final CacheInvalidationBus bus;
+    private final Clock clock;
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    @Autowired
+    public FavoritesCache(Environment environment, Optional<CacheInvalidationBus> bus) {
+        this(environment, bus.orElse(null), Clock.systemUTC());
+    }
+
+    FavoritesCache(Environment environment, CacheInvalidationBus bus, Clock clock) {
+        this.bus = bus;
+        this.clock = clock;
+        this.maxEntries = environment.getProperty("favorites.cache.max-entries", Integer.class, 10_000);
+        this.ttlMillis = environment.getProperty("favorites.cache.ttl-seconds", Long.class, 60L) * 1000;
+        if (bus != null) {
+            bus.subscribe(TOPIC, this::evict);
+        }
+    }
+
+    /**
+     * Liefert die zwischengespeicherte Liste oder lädt sie über {@code loader}.
+     */
+    public Entry get(String username, Supplier<List<FavoriteLocationView>> loader) {
+        Cached cached = entries.get(username);
+        long now = clock.millis();
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.entry();
+        }
+        long stamp = invalidations.get();
+        Entry entry = Entry.of(loader.get());
+        if (invalidations.get() == stamp) {
+            if (entries.size() >= maxEntries) {
+                evictOne();
+            }
+            entries.put(username, new Cached(entry, now + ttlMillis));
+        }
+        return entry;
+    }
+
+    /**
+     * Nach dem Hinzufügen oder Löschen eines Favoriten aufrufen, erst nach dem Speichern.
+     */
+    public void invalidate(String username) {
+        evict(username);
+        if (bus != null) {
+            bus.publish(TOPIC, username);
+        }
+    }
+
+    /**
+     * Nach Massenänderungen (z. B. Datenmigration) auf allen Instanzen alles verwerfen.
+     */
+    public void invalidateAll() {
+        invalidate(ALL);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict(String username) {
+        invalidations.incrementAndGet();
+        if (ALL.equals(username)) {
+            entries.clear();
+        } else {
+            entries.remove(username);
+        }
+    }
+
+    private void evictOne() {
+        Iterator<String> keys = entries.keySet().iterator();
+        if (keys.hasNext()) {
+            entries.remove(keys.next());
+        }
+    }
+
+    /**
+     * ETag aus dem Inhalt der Liste, damit er auf allen Instanzen und nach Neustarts gleich bleibt.
+     */
+    public static String etagOf(List<FavoriteLocationView> favorites) {
+        long hash = 1125899906842597L;
+        for (FavoriteLocationView favorite : favorites) {
+            hash = 31 * hash + Objects.hash(favorite.id(), favorite.locationName(), favorite.country(),
+                    favorite.latitude(), favorite.longitude());
+        }
+        return "\"fav-" + favorites.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stündliche Vorhersage in Spaltenform: ein primitives Array pro Messgröße statt einer Map pro Periode.
+ * Serialisiert wird ein Objekt aus Arrays; Symbole stehen einmal in {@code icons} und werden
+ * pro Periode über {@code iconIndex} referenziert. Fehlende Werte sind NaN und werden als null geschrieben.
+ * Die Arrays werden nicht kopiert und dürfen nicht verändert werden.
+ */
+@JsonPropertyOrder({"units", "length", "timestamps", "temp", "feelsLike", "windSpeed", "humidity", "pop", "icons", "iconIndex"})
+public final class ForecastSeries {
+
+    private final String units;
+    private final long[] timestamps;
+    private final float[] temp;
+    private final float[] feelsLike;
+    private final float[] windSpeed;
+    private final float[] humidity;
+    private final float[] pop;
+    private final String[] icons;
+    private final short[] iconIndex;
+
+    private ForecastSeries(String units, long[] timestamps, float[] temp, float[] feelsLike, float[] windSpeed,
+                           float[] humidity, float[] pop, String[] icons, short[] iconIndex) {
+        this.units = units;
+        this.timestamps = timestamps;
+        this.temp = temp;
+        this.feelsLike = feelsLike;
+        this.windSpeed = windSpeed;
+        this.humidity = humidity;
+        this.pop = pop;
+        this.icons = icons;
+        this.iconIndex = iconIndex;
+    }
+
+    public static ForecastSeries empty(String units) {
+        return new Builder(units, 0).build();
+    }
+
+    public String getUnits() {
+        return units;
+    }
+
+    public int getLength() {
+        return timestamps.length;
+    }
+
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    @JsonSerialize(using = FloatColumnSerializer.class)
+    public float[] getTemp() {
+        return temp;
+    }
+
+    @JsonSerialize(using = FloatColumnSerializer.class)
+    public float[] getFeelsLike() {
+        return feelsLike;
+    }
+
+    @JsonSerialize(using = FloatColumnSerializer.class)
+    public float[] getWindSpeed() {
+        return windSpeed;
+    }
+
+    @JsonSerialize(using = FloatColumnSerializer.class)
+    public float[] getHumidity() {
+        return humidity;
+    }
+
+    @JsonSerialize(using = FloatColumnSerializer.class)
+    public float[] getPop() {
+        return pop;
+    }
+
+    public String[] getIcons() {
+        return icons;
+    }
+
+    public short[] getIconIndex() {
+        return iconIndex;
+    }
+
+    /**
+     * Die ersten {@code hours} Perioden; gibt dieselbe Instanz zurück, wenn nichts abgeschnitten wird.
+     */
+    public ForecastSeries head(int hours) {
+        if (hours >= timestamps.length) return this;
+        return new ForecastSeries(units, Arrays.copyOf(timestamps, hours), Arrays.copyOf(temp, hours),
+                Arrays.copyOf(feelsLike, hours), Arrays.copyOf(windSpeed, hours), Arrays.copyOf(humidity, hours),
+                Arrays.copyOf(pop, hours), icons, Arrays.copyOf(iconIndex, hours));
+    }
+
+    /**
+     * Baut eine Reihe periodenweise auf, ohne Zwischenobjekte pro Periode.
+     */
+    public static final class Builder {
+
+        private final String units;
+        private final Map<String, Short> iconCodes = new HashMap<>();
+        private final List<String> icons = new ArrayList<>();
+        private long[] timestamps;
+        private float[] temp;
+        private float[] feelsLike;
+        private float[] windSpeed;
+        private float[] humidity;
+        private float[] pop;
+        private short[] iconIndex;
+        private int size;
+
+        public Builder(String units, int expectedLength) {
+            int capacity = Math.max(expectedLength, 8);
+            this.units = units;
+            this.timestamps = new long[capacity];
+            this.temp = new float[capacity];
+            this.feelsLike = new float[capacity];
+            this.windSpeed = new float[capacity];
+            this.humidity = new float[capacity];
+            this.pop = new float[capacity];
+            this.iconIndex = new short[capacity];
+        }
+
+        public Builder add(long timestamp, float temp, float feelsLike, float windSpeed, float humidity, float pop, String icon) {
+            if (size == timestamps.length) {
+                grow();
+            }
+            this.timestamps[size] = timestamp;
+            this.temp[size] = temp;
+            this.feelsLike[size] = feelsLike;
+            this.windSpeed[size] = windSpeed;
+            this.humidity[size] = humidity;
+            this.pop[size] = pop;
+            this.iconIndex[size] = icon == null ? (short) -1 : iconCode(icon);
+            size++;
+            return this;
+        }
+
+        public ForecastSeries build() {
+            return new ForecastSeries(units, Arrays.copyOf(timestamps, size), Arrays.copyOf(temp, size),
+                    Arrays.copyOf(feelsLike, size), Arrays.copyOf(windSpeed, size), Arrays.copyOf(humidity, size),
+                    Arrays.copyOf(pop, size), icons.toArray(new String[0]), Arrays.copyOf(iconIndex, size));
+        }
+
+        private short iconCode(String icon) {
+            Short code = iconCodes.get(icon);
+            if (code == null) {
+                code = (short) icons.size();
+                iconCodes.put(icon, code);
+                icons.add(icon);
+            }
+            return code;
+        }
+
+        private void grow() {
+            int capacity = timestamps.length * 2;
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            temp = Arrays.copyOf(temp, capacity);
+            feelsLike = Arrays.copyOf(feelsLike, capacity);
+            windSpeed = Arrays.copyOf(windSpeed, capacity);
+            humidity = Arrays.copyOf(humidity, capacity);
+            pop = Arrays.copyOf(pop, capacity);
+            iconIndex = Arrays.copyOf(iconIndex, capacity);
+        }
+    }
+
+    /**
+     * Schreibt eine float-Spalte als Zahlen-Array, NaN als null.
+     */
+    public static final class FloatColumnSerializer extends StdSerializer<float[]> {
+
+        public FloatColumnSerializer() {
+            super(float[].class);
+        }
+
+        @Override
+        public void serialize(float[] values, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartArray(values, values.length);
+            for (float value : values) {
+                if (Float.isNaN(value)) {
+                    generator.writeNull();
+                } else {
+                    generator.writeNumber(value);
+                }
+            }
+            generator.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.demo.service;
+
+/**
+ * Count-Min-Sketch über Zeichenketten-Schlüssel mit vier Zeilen und konservativer Erhöhung
+ * (nur die kleinsten Zähler wachsen), damit Kollisionen die Schätzung möglichst wenig verfälschen.
+ * Nach {@code 10 × capacity} Erhöhungen werden alle Zähler halbiert: alte Häufigkeiten verfallen,
+ * und die Schätzung folgt der jüngeren Vergangenheit wie bei TinyLFU. Nicht threadsicher.
+ */
+final class FrequencySketch {
+
+    private static final int DEPTH = 4;
+
+    private final int[][] table;
+    private final int mask;
+    private final long sampleSize;
+    private long additions;
+    private long resets;
+
+    FrequencySketch(int capacity) {
+        int width = Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1;
+        this.table = new int[DEPTH][width];
+        this.mask = width - 1;
+        this.sampleSize = 10L * Math.max(capacity, 16);
+    }
+
+    /**
+     * Zählt den Schlüssel einmal.
+     * @return neue geschätzte Häufigkeit
+     */
+    int increment(String key) {
+        long hash = spread(key);
+        int estimate = estimate(hash);
+        for (int row = 0; row < DEPTH; row++) {
+            int index = index(hash, row);
+            if (table[row][index] == estimate) {
+                table[row][index]++;
+            }
+        }
+        if (++additions >= sampleSize) {
+            reset();
+        }
+        return estimate + 1;
+    }
+
+    /**
+     * Geschätzte Häufigkeit; nie kleiner als die tatsächliche seit der letzten Halbierung.
+     */
+    int frequency(String key) {
+        return estimate(spread(key));
+    }
+
+    /**
+     * Anzahl der bisherigen Halbierungen.
+     */
+    long getResetCount() {
+        return resets;
+    }
+
+    private int estimate(long hash) {
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            min = Math.min(min, table[row][index(hash, row)]);
+        }
+        return min;
+    }
+
+    private void reset() {
+        for (int[] row : table) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] >>>= 1;
+            }
+        }
+        additions /= 2;
+        resets++;
+    }
+
+    /**
+     * Index pro Zeile per Doppel-Hashing aus den beiden Hälften eines 64-Bit-Hashes.
+     */
+    private int index(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return (h1 + row * h2) & mask;
+    }
+
+    private static long spread(String key) {
+        long hash = key.hashCode() * 0x9e3779b97f4a7c15L;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
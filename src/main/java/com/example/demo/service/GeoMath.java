@@ -0,0 +1,94 @@
+package com.example.demo.service;
+
+/**
+ * Hilfsfunktionen für Entfernungen und Rasterzellen auf der Erdoberfläche.
+ */
+public final class GeoMath {
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+    public static final double KM_PER_DEGREE_LAT = 111.195;
+
+    private static final char[] GEOHASH_BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    private GeoMath() {
+    }
+
+    /**
+     * Großkreisentfernung zwischen zwei Koordinaten in Kilometern (Haversine).
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Index der Rasterzelle entlang einer Achse für eine Zellgröße in Grad.
+     */
+    public static long cellIndex(double degrees, double cellSizeDeg) {
+        return (long) Math.floor(degrees / cellSizeDeg);
+    }
+
+    /**
+     * Fasst zwei Zellindizes zu einem eindeutigen Schlüssel zusammen.
+     */
+    public static long cellKey(long latIndex, long lonIndex) {
+        return (latIndex << 32) ^ (lonIndex & 0xffffffffL);
+    }
+
+    /**
+     * Schlüssel der Rasterzelle, in der die Koordinate liegt.
+     */
+    public static long cellKey(double lat, double lon, double cellSizeDeg) {
+        return cellKey(cellIndex(lat, cellSizeDeg), cellIndex(lon, cellSizeDeg));
+    }
+
+    /**
+     * Anzahl Längengrad-Zellen, die ein Radius bei gegebener Breite überdeckt.
+     */
+    public static int lonCellSpan(double lat, double radiusKm, double cellSizeDeg) {
+        double cosLat = Math.max(0.01, Math.cos(Math.toRadians(Math.min(89.0, Math.abs(lat)))));
+        return (int) Math.ceil(radiusKm / (KM_PER_DEGREE_LAT * cosLat) / cellSizeDeg);
+    }
+
+    /**
+     * Geohash der Koordinate mit {@code precision} Zeichen (5 Zeichen ≈ 4,9 × 4,9 km).
+     */
+    public static String geohash(double lat, double lon, int precision) {
+        double minLat = -90, maxLat = 90, minLon = -180, maxLon = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int ch = 0;
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLon + maxLon) / 2;
+                if (lon >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLon = mid;
+                } else {
+                    ch <<= 1;
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (lat >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch <<= 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+            if (++bit == 5) {
+                hash.append(GEOHASH_BASE32[ch]);
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+}
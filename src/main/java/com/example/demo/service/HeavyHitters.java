@@ -0,0 +1,144 @@
+package com.example.demo.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Häufigkeit der angefragten Schlüssel: /details-Anfragen pro Rasterzelle (ca. 1 km) und Einheit,
+ * Ortssuchen pro Suchbegriff. Ein {@link FrequencySketch} schätzt die Häufigkeit jedes Schlüssels mit
+ * fester Speichergröße ({@code weather.hot-keys.capacity}); die {@code weather.hot-keys.top-size}
+ * häufigsten werden zusätzlich mit Namen geführt, nach Häufigkeit sortiert, sodass der seltenste in O(log n) feststeht.
+ * Die Caches lassen einen neuen Eintrag bei vollem Speicher nur zu, wenn er häufiger angefragt wird
+ * als der zu verdrängende (TinyLFU); einmalige Anfragen, z. B. beim Schwenken der Karte, verdrängen so
+ * keine beliebten Orte.
+ */
+@Component
+@ConditionalOnProperty(name = "weather.hot-keys.enabled", havingValue = "true", matchIfMissing = true)
+public class HeavyHitters {
+
+    /**
+     * Schlüssel mit geschätzter Häufigkeit seit dem letzten Verfall.
+     */
+    public record HotKey(String key, int estimate) {
+    }
+
+    public static final String DETAILS = "details";
+    public static final String SEARCH = "search";
+
+    private static final double CELL_SIZE_DEG = 0.01;
+
+    private final FrequencySketch sketch;
+    private final int topSize;
+    private final Map<String, Integer> top = new HashMap<>();
+    private final TreeSet<HotKey> byEstimate = new TreeSet<>(
+            Comparator.comparingInt(HotKey::estimate).thenComparing(HotKey::key));
+    private long resets;
+
+    @Autowired
+    public HeavyHitters(Environment environment) {
+        this(environment.getProperty("weather.hot-keys.capacity", Integer.class, 10_000),
+                environment.getProperty("weather.hot-keys.top-size", Integer.class, 200));
+    }
+
+    HeavyHitters(int capacity, int topSize) {
+        this.sketch = new FrequencySketch(capacity);
+        this.topSize = topSize;
+    }
+
+    public static String detailsKey(double lat, double lon, String units) {
+        return DETAILS + "|" + units + "|" + GeoMath.cellIndex(lat, CELL_SIZE_DEG) + "|" + GeoMath.cellIndex(lon, CELL_SIZE_DEG);
+    }
+
+    public static String searchKey(String query) {
+        return SEARCH + "|" + query.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Zählt eine Anfrage.
+     * @return neue geschätzte Häufigkeit
+     */
+    public synchronized int record(String key) {
+        int estimate = sketch.increment(key);
+        if (sketch.getResetCount() != resets) {
+            resets = sketch.getResetCount();
+            decayTop();
+        }
+        Integer previous = top.get(key);
+        if (previous != null) {
+            if (previous != estimate) {
+                byEstimate.remove(new HotKey(key, previous));
+                putTop(key, estimate);
+            }
+        } else if (top.size() < topSize) {
+            putTop(key, estimate);
+        } else if (!byEstimate.isEmpty() && estimate > byEstimate.first().estimate()) {
+            top.remove(byEstimate.pollFirst().key());
+            putTop(key, estimate);
+        }
+        return estimate;
+    }
+
+    public synchronized int frequency(String key) {
+        return sketch.frequency(key);
+    }
+
+    /**
+     * TinyLFU-Zulassung: der neue Schlüssel verdrängt den alten nur, wenn er häufiger angefragt wurde.
+     */
+    public boolean admit(String candidate, String victim) {
+        return frequency(candidate) > frequency(victim);
+    }
+
+    /**
+     * Die häufigsten Schlüssel, absteigend nach Häufigkeit.
+     */
+    public synchronized List<HotKey> top(int limit) {
+        return top.entrySet().stream()
+                .map(entry -> new HotKey(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingInt(HotKey::estimate).reversed().thenComparing(HotKey::key))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Mittelpunkte der häufigsten /details-Rasterzellen in der Einheit, absteigend nach Häufigkeit.
+     */
+    public List<double[]> hotCoordinates(String units, int limit) {
+        String prefix = DETAILS + "|" + units + "|";
+        List<double[]> coordinates = new ArrayList<>();
+        for (HotKey hotKey : top(topSize)) {
+            if (coordinates.size() >= limit) break;
+            if (!hotKey.key().startsWith(prefix)) continue;
+            String[] cell = hotKey.key().substring(prefix.length()).split("\\|");
+            coordinates.add(new double[]{
+                    Math.round((Long.parseLong(cell[0]) + 0.5) * CELL_SIZE_DEG * 10_000) / 10_000.0,
+                    Math.round((Long.parseLong(cell[1]) + 0.5) * CELL_SIZE_DEG * 10_000) / 10_000.0});
+        }
+        return coordinates;
+    }
+
+    private void putTop(String key, int estimate) {
+        top.put(key, estimate);
+        byEstimate.add(new HotKey(key, estimate));
+    }
+
+    /**
+     * Nach dem Halbieren des Sketches die geführten Schlüssel neu schätzen; was auf null fällt, fliegt raus.
+     */
+    private void decayTop() {
+        top.replaceAll((key, estimate) -> sketch.frequency(key));
+        top.values().removeIf(estimate -> estimate == 0);
+        byEstimate.clear();
+        top.forEach((key, estimate) -> byEstimate.add(new HotKey(key, estimate)));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.demo.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@link SharedCacheStore} auf der vorhandenen Datenbank. Unter Postgres sind die Tabellen
+ * {@code UNLOGGED}: ohne WAL deutlich schneller, nach einem Absturz leer, was für einen Cache genügt.
+ * Das Schema wird beim ersten Zugriff angelegt.
+ */
+@Component
+@ConditionalOnProperty(name = "weather.shared-cache.enabled", havingValue = "true")
+public class JdbcSharedCacheStore implements SharedCacheStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile boolean schemaReady;
+
+    @Autowired
+    public JdbcSharedCacheStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public String get(String key, long now) {
+        ensureSchema();
+        List<String> rows = jdbcTemplate.queryForList(
+                "SELECT payload FROM weather_shared_cache WHERE cache_key = ? AND expires_at > ?", String.class, key, now);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    @Override
+    public void put(String key, String json, long expiresAt) {
+        ensureSchema();
+        String update = "UPDATE weather_shared_cache SET payload = ?, expires_at = ? WHERE cache_key = ?";
+        if (jdbcTemplate.update(update, json, expiresAt, key) > 0) return;
+        try {
+            jdbcTemplate.update("INSERT INTO weather_shared_cache (cache_key, payload, expires_at) VALUES (?, ?, ?)", key, json, expiresAt);
+        } catch (DuplicateKeyException e) {
+            jdbcTemplate.update(update, json, expiresAt, key);
+        }
+    }
+
+    @Override
+    public void remove(String key) {
+        ensureSchema();
+        jdbcTemplate.update("DELETE FROM weather_shared_cache WHERE cache_key = ?", key);
+    }
+
+    @Override
+    public boolean tryLease(String key, String owner, long now, long leaseUntil) {
+        ensureSchema();
+        try {
+            jdbcTemplate.update("INSERT INTO weather_cache_lease (cache_key, owner, lease_until) VALUES (?, ?, ?)", key, owner, leaseUntil);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return jdbcTemplate.update("UPDATE weather_cache_lease SET owner = ?, lease_until = ? WHERE cache_key = ? AND lease_until <= ?",
+                    owner, leaseUntil, key, now) > 0;
+        }
+    }
+
+    @Override
+    public void releaseLease(String key, String owner) {
+        ensureSchema();
+        jdbcTemplate.update("DELETE FROM weather_cache_lease WHERE cache_key = ? AND owner = ?", key, owner);
+    }
+
+    @Override
+    public void purgeExpired(long now) {
+        ensureSchema();
+        jdbcTemplate.update("DELETE FROM weather_shared_cache WHERE expires_at <= ?", now);
+        jdbcTemplate.update("DELETE FROM weather_cache_lease WHERE lease_until <= ?", now);
+    }
+
+    private void ensureSchema() {
+        if (schemaReady) return;
+        synchronized (this) {
+            if (schemaReady) return;
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            String table = "PostgreSQL".equalsIgnoreCase(product) ? "CREATE UNLOGGED TABLE IF NOT EXISTS " : "CREATE TABLE IF NOT EXISTS ";
+            jdbcTemplate.execute(table + "weather_shared_cache (cache_key VARCHAR(200) PRIMARY KEY, "
+                    + "payload TEXT NOT NULL, expires_at BIGINT NOT NULL)");
+            jdbcTemplate.execute(table + "weather_cache_lease (cache_key VARCHAR(200) PRIMARY KEY, "
+                    + "owner VARCHAR(64) NOT NULL, lease_until BIGINT NOT NULL)");
+            schemaReady = true;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.demo.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Koordinatentoleranter Cache für die Abschnitte der /details-Antwort.
+ * Pro Abschnitt werden die zwischengespeicherten Orte in einem Raster indiziert; eine Anfrage
+ * wird vom nächstgelegenen Ort innerhalb des konfigurierten Radius bedient
+ * ({@code weather.cache.<abschnitt>.radius-km}, {@code weather.cache.<abschnitt>.ttl-seconds}).
+ * Ist der Cache voll, entscheiden die {@link HeavyHitters}, ob ein neuer Ort den ältesten verdrängen darf.
+ */
+@Component
+@ConditionalOnProperty(name = "weather.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class NearbyWeatherCache {
+
+    /**
+     * Treffer im Cache mit der Koordinate, deren Daten tatsächlich verwendet werden, und dem Ablaufzeitpunkt des Eintrags.
+     */
+    public record Hit(Object value, double lat, double lon, double distanceKm, long expiresAt) {
+    }
+
+    /**
+     * Index für die spaltenbasierte Stundenvorhersage ({@link ForecastSeries}).
+     */
+    public static final String HOURLY_SERIES = "hourlySeries";
+
+    private final Map<String, SpatialIndex> indexes = new HashMap<>();
+    private final Clock clock;
+
+    public NearbyWeatherCache(Environment environment) {
+        this(environment, null, Clock.systemUTC());
+    }
+
+    @Autowired
+    public NearbyWeatherCache(Environment environment, Optional<HeavyHitters> heavyHitters) {
+        this(environment, heavyHitters.orElse(null), Clock.systemUTC());
+    }
+
+    NearbyWeatherCache(Environment environment, Clock clock) {
+        this(environment, null, clock);
+    }
+
+    NearbyWeatherCache(Environment environment, HeavyHitters heavyHitters, Clock clock) {
+        this.clock = clock;
+        int maxEntries = environment.getProperty("weather.cache.max-entries", Integer.class, 10_000);
+        for (WeatherSection section : WeatherSection.values()) {
+            String prefix = "weather.cache." + section.getKey();
+            double radiusKm = environment.getProperty(prefix + ".radius-km", Double.class, defaultRadiusKm(section));
+            long ttlSeconds = environment.getProperty(prefix + ".ttl-seconds", Long.class, defaultTtlSeconds(section));
+            indexes.put(section.getKey(), new SpatialIndex(radiusKm, ttlSeconds * 1000, maxEntries, heavyHitters));
+        }
+        indexes.put(HOURLY_SERIES, new SpatialIndex(
+                environment.getProperty("weather.cache." + HOURLY_SERIES + ".radius-km", Double.class, defaultRadiusKm(WeatherSection.HOURLY)),
+                environment.getProperty("weather.cache." + HOURLY_SERIES + ".ttl-seconds", Long.class, defaultTtlSeconds(WeatherSection.HOURLY)) * 1000,
+                maxEntries, heavyHitters));
+    }
+
+    public Hit lookup(WeatherSection section, double lat, double lon, String units) {
+        return lookup(section.getKey(), lat, lon, units);
+    }
+
+    public Hit lookup(String index, double lat, double lon, String units) {
+        return indexes.get(index).nearest(lat, lon, units, clock.millis());
+    }
+
+    public boolean put(WeatherSection section, double lat, double lon, String units, Object value) {
+        return put(section.getKey(), lat, lon, units, value);
+    }
+
+    /**
+     * Übernimmt einen Wert, der anderswo (gemeinsamer Cache) schon seit einer Weile gilt: der Eintrag läuft
+     * zu {@code expiresAt} ab, spätestens aber nach der eigenen TTL.
+     */
+    public boolean put(WeatherSection section, double lat, double lon, String units, Object value, long expiresAt) {
+        long now = clock.millis();
+        SpatialIndex index = indexes.get(section.getKey());
+        return index.put(lat, lon, units, value, now, Math.min(expiresAt, now + index.ttlMillis));
+    }
+
+    /**
+     * @return {@code false}, wenn der Cache voll ist und der Ort seltener angefragt wurde als der älteste Eintrag
+     */
+    public boolean put(String index, double lat, double lon, String units, Object value) {
+        long now = clock.millis();
+        SpatialIndex spatialIndex = indexes.get(index);
+        return spatialIndex.put(lat, lon, units, value, now, now + spatialIndex.ttlMillis);
+    }
+
+    /**
+     * Entfernt alle Einträge des Abschnitts im Umkreis von {@code radiusKm} um die Koordinate.
+     * @return Anzahl entfernter Einträge
+     */
+    public int invalidate(WeatherSection section, double lat, double lon, double radiusKm) {
+        return indexes.get(section.getKey()).removeWithin(lat, lon, radiusKm);
+    }
+
+    public int size(WeatherSection section) {
+        return indexes.get(section.getKey()).size();
+    }
+
+    public double radiusKm(WeatherSection section) {
+        return indexes.get(section.getKey()).radiusKm;
+    }
+
+    static double defaultRadiusKm(WeatherSection section) {
+        return switch (section) {
+            case CONDITIONS -> 3.0;
+            case FORECAST -> 10.0;
+            case HOURLY, AIR_QUALITY -> 5.0;
+            case ALERTS -> 1.0;
+        };
+    }
+
+    static long defaultTtlSeconds(WeatherSection section) {
+        return switch (section) {
+            case CONDITIONS, ALERTS -> 300;
+            case HOURLY, AIR_QUALITY -> 900;
+            case FORECAST -> 1800;
+        };
+    }
+
+    private record Entry(String key, double lat, double lon, String units, Object value, long expiresAt, long cellKey) {
+    }
+
+    /**
+     * Rasterindex mit Zellen in Größe des Radius: eine Suche prüft nur die Nachbarzellen.
+     * Da die Einträge eines Abschnitts dieselbe TTL haben (aus dem gemeinsamen Cache übernommene höchstens
+     * eine kürzere), ist die Einfügereihenfolge annähernd die Ablaufreihenfolge; verdrängt wird deshalb der
+     * älteste Eintrag, mit {@link HeavyHitters} aber nur zugunsten eines häufiger angefragten Orts.
+     */
+    private static final class SpatialIndex {
+
+        private final double radiusKm;
+        private final long ttlMillis;
+        private final int maxEntries;
+        private final double cellSizeDeg;
+        private final HeavyHitters heavyHitters;
+
+        private final Map<Long, List<Entry>> cells = new HashMap<>();
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        SpatialIndex(double radiusKm, long ttlMillis, int maxEntries, HeavyHitters heavyHitters) {
+            this.radiusKm = radiusKm;
+            this.ttlMillis = ttlMillis;
+            this.maxEntries = maxEntries;
+            this.cellSizeDeg = Math.max(radiusKm, 0.1) / GeoMath.KM_PER_DEGREE_LAT;
+            this.heavyHitters = heavyHitters;
+        }
+
+        Hit nearest(double lat, double lon, String units, long now) {
+            long latIndex = GeoMath.cellIndex(lat, cellSizeDeg);
+            long lonIndex = GeoMath.cellIndex(lon, cellSizeDeg);
+            int lonSpan = GeoMath.lonCellSpan(lat, radiusKm, cellSizeDeg);
+
+            Entry best = null;
+            double bestDistance = Double.MAX_VALUE;
+
+            lock.readLock().lock();
+            try {
+                for (long i = latIndex - 1; i <= latIndex + 1; i++) {
+                    for (long j = lonIndex - lonSpan; j <= lonIndex + lonSpan; j++) {
+                        List<Entry> bucket = cells.get(GeoMath.cellKey(i, j));
+                        if (bucket == null) continue;
+                        for (Entry entry : bucket) {
+                            if (entry.expiresAt() <= now || !entry.units().equals(units)) continue;
+                            double distance = GeoMath.distanceKm(lat, lon, entry.lat(), entry.lon());
+                            if (distance <= radiusKm && distance < bestDistance) {
+                                best = entry;
+                                bestDistance = distance;
+                            }
+                        }
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            if (best == null) return null;
+            return new Hit(best.value(), best.lat(), best.lon(), Math.round(bestDistance * 100) / 100.0, best.expiresAt());
+        }
+
+        /**
+         * @return {@code false}, wenn der Ort bei vollem Cache nicht zugelassen wurde
+         */
+        boolean put(double lat, double lon, String units, Object value, long now, long expiresAt) {
+            if (expiresAt <= now) return false;
+            String key = units + "|" + lat + "|" + lon;
+            Entry entry = new Entry(key, lat, lon, units, value, expiresAt, GeoMath.cellKey(lat, lon, cellSizeDeg));
+
+            lock.writeLock().lock();
+            try {
+                Entry previous = entries.remove(key);
+                if (previous != null) {
+                    removeFromCell(previous);
+                }
+                Iterator<Entry> oldest = entries.values().iterator();
+                while (oldest.hasNext()) {
+                    Entry candidate = oldest.next();
+                    if (entries.size() < maxEntries && candidate.expiresAt() > now) break;
+                    if (candidate.expiresAt() > now && !admit(entry, candidate)) return false;
+                    oldest.remove();
+                    removeFromCell(candidate);
+                }
+                entries.put(key, entry);
+                cells.computeIfAbsent(entry.cellKey(), k -> new ArrayList<>()).add(entry);
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private boolean admit(Entry candidate, Entry victim) {
+            return heavyHitters == null || heavyHitters.admit(
+                    HeavyHitters.detailsKey(candidate.lat(), candidate.lon(), candidate.units()),
+                    HeavyHitters.detailsKey(victim.lat(), victim.lon(), victim.units()));
+        }
+
+        int removeWithin(double lat, double lon, double distanceKm) {
+            long latIndex = GeoMath.cellIndex(lat, cellSizeDeg);
+            long lonIndex = GeoMath.cellIndex(lon, cellSizeDeg);
+            int latSpan = (int) Math.ceil(distanceKm / GeoMath.KM_PER_DEGREE_LAT / cellSizeDeg);
+            int lonSpan = GeoMath.lonCellSpan(lat, distanceKm, cellSizeDeg);
+            int removed = 0;
+
+            lock.writeLock().lock();
+            try {
+                for (long i = latIndex - latSpan; i <= latIndex + latSpan; i++) {
+                    for (long j = lonIndex - lonSpan; j <= lonIndex + lonSpan; j++) {
+                        List<Entry> bucket = cells.get(GeoMath.cellKey(i, j));
+                        if (bucket == null) continue;
+                        for (Entry entry : List.copyOf(bucket)) {
+                            if (GeoMath.distanceKm(lat, lon, entry.lat(), entry.lon()) <= distanceKm) {
+                                entries.remove(entry.key());
+                                removeFromCell(entry);
+                                removed++;
+                            }
+                        }
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return removed;
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void removeFromCell(Entry entry) {
+            List<Entry> bucket = cells.get(entry.cellKey());
+            if (bucket != null) {
+                bucket.removeIf(candidate -> candidate == entry);
+                if (bucket.isEmpty()) {
+                    cells.remove(entry.cellKey());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * Antwort der Historienabfrage: pro Messgröße eine Zeitreihe in Spaltenform.
+ * Rohdaten liefern {@code values}, Rollups {@code min}, {@code max}, {@code avg} und {@code count}.
+ */
+public record ObservationHistory(String resolution, String units, long from, long to, Map<String, Series> metrics) {
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Series(long[] timestamps, double[] values, double[] min, double[] max, double[] avg, int[] count) {
+    }
+
+    /**
+     * Auflösung einer Abfrage mit Bucket-Größe und maximal abfragbarem Zeitraum.
+     */
+    public enum Resolution {
+        RAW("raw", ' ', 0, 7 * 86400L),
+        HOUR("hour", 'H', 3600, 92 * 86400L),
+        DAY("day", 'D', 86400, 3660 * 86400L);
+
+        private final String key;
+        private final char code;
+        private final long bucketSeconds;
+        private final long maxRangeSeconds;
+
+        Resolution(String key, char code, long bucketSeconds, long maxRangeSeconds) {
+            this.key = key;
+            this.code = code;
+            this.bucketSeconds = bucketSeconds;
+            this.maxRangeSeconds = maxRangeSeconds;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getCode() {
+            return String.valueOf(code);
+        }
+
+        public long getMaxRangeSeconds() {
+            return maxRangeSeconds;
+        }
+
+        public long bucketStart(long epochSecond) {
+            return Math.floorDiv(epochSecond, bucketSeconds) * bucketSeconds;
+        }
+
+        public static Resolution fromKey(String key) {
+            for (Resolution resolution : values()) {
+                if (resolution.key.equalsIgnoreCase(key)) return resolution;
+            }
+            throw new IllegalArgumentException("Unbekannte Auflösung: " + key);
+        }
+    }
+
+    public static ObservationHistory empty(Resolution resolution, String units, long from, long to) {
+        return new ObservationHistory(resolution.getKey(), units, from, to, Map.of());
+    }
+}
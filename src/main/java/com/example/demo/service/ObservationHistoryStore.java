@@ -0,0 +1,451 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lokale Historie der bereits abgerufenen Conditions- und AirQuality-Werte.
+ * Beobachtungen werden pro Rasterzelle ({@code weather.history.cell-size-deg}) nur angehängt;
+ * stündliche und tägliche Min/Max/Summe/Anzahl werden beim Schreiben fortgeschrieben, sodass
+ * Abfragen über Monate nur vorberechnete Buckets lesen und nie Xweather aufrufen.
+ * Geschrieben wird gebündelt von einem Hintergrund-Thread, die /details-Anfrage stellt nur in eine Queue.
+ * Ein fehlgeschlagener Block wird bis zu {@value #MAX_WRITE_ATTEMPTS} Mal wiederholt und danach als verworfen gezählt
+ * ({@code weather.history.dropped}).
+ * Rohwerte liegen in einer Tabelle pro UTC-Tag ({@code weather_observation_<epoch-tag>}, verzeichnet in
+ * {@code weather_observation_day}); die Aufbewahrung löscht ganze Tage per {@code DROP TABLE} statt Zeilen zu suchen.
+ * Legt die Tabellen beim ersten Zugriff selbst an (siehe {@link #SCHEMA}), außerhalb von {@code ddl-auto};
+ * deshalb nur mit {@code weather.history.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "weather.history.enabled", havingValue = "true")
+public class ObservationHistoryStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ObservationHistoryStore.class);
+
+    private static final List<ObservationHistory.Resolution> ROLLUPS =
+            List.of(ObservationHistory.Resolution.HOUR, ObservationHistory.Resolution.DAY);
+
+    static final int MAX_WRITE_ATTEMPTS = 5;
+
+    private static final long DAY_SECONDS = 86400;
+
+    static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS weather_observation_day (epoch_day BIGINT PRIMARY KEY)",
+            "CREATE TABLE IF NOT EXISTS weather_rollup (cell_key BIGINT NOT NULL, resolution CHAR(1) NOT NULL, "
+                    + "metric SMALLINT NOT NULL, bucket_start BIGINT NOT NULL, sample_count INTEGER NOT NULL, "
+                    + "value_sum DOUBLE PRECISION NOT NULL, value_min DOUBLE PRECISION NOT NULL, value_max DOUBLE PRECISION NOT NULL, "
+                    + "PRIMARY KEY (cell_key, resolution, metric, bucket_start))",
+            "CREATE INDEX IF NOT EXISTS weather_rollup_resolution_bucket ON weather_rollup (resolution, bucket_start)"
+    };
+
+    private static final String UPDATE_ROLLUP =
+            "UPDATE weather_rollup SET sample_count = sample_count + ?, value_sum = value_sum + ?, "
+                    + "value_min = LEAST(value_min, ?), value_max = GREATEST(value_max, ?) "
+                    + "WHERE cell_key = ? AND resolution = ? AND metric = ? AND bucket_start = ?";
+    private static final String INSERT_ROLLUP =
+            "INSERT INTO weather_rollup (sample_count, value_sum, value_min, value_max, cell_key, resolution, metric, bucket_start) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private record Sample(long cellKey, ObservationMetric metric, long observedAt, double value) {
+    }
+
+    private record RollupKey(long cellKey, ObservationHistory.Resolution resolution, ObservationMetric metric, long bucketStart) {
+    }
+
+    private static final class Aggregate {
+        int count;
+        double sum;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+
+        void add(double value) {
+            count++;
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final double cellSizeDeg;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long rawRetentionSeconds;
+    private final long hourlyRetentionSeconds;
+    private final BlockingQueue<Sample> queue;
+    private final Map<String, Long> lastObserved;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Set<Long> knownDays = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean schemaReady;
+    private ScheduledExecutorService writer;
+    private List<Sample> failedBatch = List.of();
+    private int failedAttempts;
+
+    @Autowired
+    public ObservationHistoryStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, Environment environment,
+                                   Optional<MeterRegistry> registry) {
+        this(jdbcTemplate, transactionManager, environment, Clock.systemUTC());
+        registry.ifPresent(meters -> FunctionCounter.builder("weather.history.dropped", dropped, AtomicLong::get)
+                .description("Verworfene Messwerte (Queue voll oder Schreiben wiederholt fehlgeschlagen)").register(meters));
+    }
+
+    ObservationHistoryStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, Environment environment, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.cellSizeDeg = environment.getProperty("weather.history.cell-size-deg", Double.class, 0.02);
+        this.batchSize = environment.getProperty("weather.history.batch-size", Integer.class, 2000);
+        this.flushIntervalMs = environment.getProperty("weather.history.flush-interval-ms", Long.class, 1000L);
+        this.rawRetentionSeconds = environment.getProperty("weather.history.raw-retention-days", Long.class, 7L) * 86400;
+        this.hourlyRetentionSeconds = environment.getProperty("weather.history.hourly-retention-days", Long.class, 92L) * 86400;
+        this.queue = new ArrayBlockingQueue<>(environment.getProperty("weather.history.queue-capacity", Integer.class, 50_000));
+        int maxTrackedCells = environment.getProperty("weather.history.max-tracked-cells", Integer.class, 100_000);
+        this.lastObserved = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxTrackedCells;
+            }
+        };
+    }
+
+    /**
+     * Startet den Schreib-Thread. Das Schema wird erst beim ersten Schreiben oder Lesen angelegt,
+     * damit der Kontext auch ohne erreichbare Datenbank startet (AOT-Trainingslauf).
+     */
+    @PostConstruct
+    void start() {
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "weather-history-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        writer.scheduleWithFixedDelay(this::pruneQuietly, 1, 60, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writer != null) {
+            writer.shutdown();
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        flushQuietly();
+    }
+
+    /**
+     * Übernimmt die Messwerte einer erfolgreichen Xweather-Antwort. Blockiert nie: ist die Queue voll,
+     * werden die Werte verworfen. Eine Beobachtung, die für die Zelle bereits erfasst wurde
+     * (gleicher oder älterer Zeitstempel), wird nicht doppelt gezählt.
+     */
+    public void record(WeatherSection section, double lat, double lon, JsonNode root) {
+        if (section != WeatherSection.CONDITIONS && section != WeatherSection.AIR_QUALITY) return;
+        JsonNode period = root.path("response").path(0).path("periods").path(0);
+        if (period.isMissingNode()) return;
+
+        long observedAt = period.path("timestamp").asLong(clock.millis() / 1000);
+        long cellKey = GeoMath.cellKey(lat, lon, cellSizeDeg);
+        if (!isNewObservation(section.getKey() + "|" + cellKey, observedAt)) return;
+
+        for (ObservationMetric metric : ObservationMetric.values()) {
+            if (metric.getSection() != section) continue;
+            double value = metric.extract(period);
+            if (Double.isNaN(value)) continue;
+            if (!queue.offer(new Sample(cellKey, metric, observedAt, value)) && dropped.incrementAndGet() % 10_000 == 1) {
+                logger.warn("Historien-Queue voll, bisher {} Messwerte verworfen", dropped.get());
+            }
+        }
+    }
+
+    /**
+     * Schreibt alle wartenden Messwerte in Blöcken von {@code weather.history.batch-size}, zuerst einen zuvor
+     * fehlgeschlagenen Block. Schlägt ein Block fehl, wird er beim nächsten Aufruf wiederholt (die Transaktion
+     * wurde zurückgerollt), nach {@value #MAX_WRITE_ATTEMPTS} Versuchen verworfen.
+     * @return Anzahl geschriebener Messwerte
+     */
+    public synchronized int flush() {
+        int written = 0;
+        List<Sample> batch = new ArrayList<>(failedBatch);
+        failedBatch = List.of();
+        while (!batch.isEmpty() || queue.drainTo(batch, batchSize) > 0) {
+            try {
+                ensureSchema();
+                writeBatch(batch);
+            } catch (RuntimeException e) {
+                if (++failedAttempts >= MAX_WRITE_ATTEMPTS) {
+                    dropped.addAndGet(batch.size());
+                    failedAttempts = 0;
+                    logger.error("Historien-Block mit {} Messwerten nach {} Versuchen verworfen", batch.size(), MAX_WRITE_ATTEMPTS);
+                } else {
+                    failedBatch = batch;
+                }
+                throw e;
+            }
+            failedAttempts = 0;
+            written += batch.size();
+            batch.clear();
+        }
+        return written;
+    }
+
+    /**
+     * Zeitreihen einer Zelle im Bereich {@code [from, to]} (Epoch-Sekunden); Rollups werden über den Bucket-Beginn gefiltert.
+     */
+    public ObservationHistory query(double lat, double lon, long from, long to, ObservationHistory.Resolution resolution,
+                                    Collection<ObservationMetric> metrics, String units) {
+        ensureSchema();
+        long cellKey = GeoMath.cellKey(lat, lon, cellSizeDeg);
+        Map<ObservationMetric, List<double[]>> rows = new EnumMap<>(ObservationMetric.class);
+        for (ObservationMetric metric : metrics) {
+            rows.put(metric, new ArrayList<>());
+        }
+
+        if (resolution == ObservationHistory.Resolution.RAW) {
+            List<Long> days = jdbcTemplate.queryForList("SELECT epoch_day FROM weather_observation_day "
+                    + "WHERE epoch_day BETWEEN ? AND ? ORDER BY epoch_day", Long.class, dayOf(from), dayOf(to));
+            for (long day : days) {
+                jdbcTemplate.query("SELECT metric, observed_at, observed_value FROM " + rawTable(day)
+                                + " WHERE cell_key = ? AND observed_at BETWEEN ? AND ? ORDER BY observed_at",
+                        rs -> {
+                            List<double[]> target = rows.get(ObservationMetric.fromCode(rs.getShort(1)));
+                            if (target != null) target.add(new double[]{rs.getLong(2), rs.getDouble(3)});
+                        }, cellKey, from, to);
+            }
+        } else {
+            jdbcTemplate.query("SELECT metric, bucket_start, sample_count, value_sum, value_min, value_max FROM weather_rollup "
+                            + "WHERE cell_key = ? AND resolution = ? AND bucket_start BETWEEN ? AND ? ORDER BY bucket_start",
+                    rs -> {
+                        List<double[]> target = rows.get(ObservationMetric.fromCode(rs.getShort(1)));
+                        if (target != null) {
+                            target.add(new double[]{rs.getLong(2), rs.getInt(3), rs.getDouble(4), rs.getDouble(5), rs.getDouble(6)});
+                        }
+                    }, cellKey, resolution.getCode(), resolution.bucketStart(from), to);
+        }
+
+        Map<String, ObservationHistory.Series> series = new LinkedHashMap<>();
+        rows.forEach((metric, values) -> series.put(metric.getKey(), toSeries(metric, values, resolution, units)));
+        return new ObservationHistory(resolution.getKey(), units, from, to, series);
+    }
+
+    /**
+     * Löscht Rohdaten-Tage, die vollständig außerhalb der Aufbewahrungsfrist liegen, und Stunden-Rollups;
+     * Tages-Rollups bleiben erhalten.
+     */
+    public void prune() {
+        ensureSchema();
+        long now = clock.millis() / 1000;
+        long cutoffDay = rawCutoffDay();
+        List<Long> expired = jdbcTemplate.queryForList("SELECT epoch_day FROM weather_observation_day WHERE epoch_day < ?",
+                Long.class, cutoffDay);
+        for (long day : expired) {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + rawTable(day));
+            jdbcTemplate.update("DELETE FROM weather_observation_day WHERE epoch_day = ?", day);
+        }
+        knownDays.removeIf(day -> day < cutoffDay);
+        int rollups = jdbcTemplate.update("DELETE FROM weather_rollup WHERE resolution = ? AND bucket_start < ?",
+                ObservationHistory.Resolution.HOUR.getCode(), now - hourlyRetentionSeconds);
+        logger.debug("Historie bereinigt: {} Tage Rohwerte, {} Stunden-Buckets", expired.size(), rollups);
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private boolean isNewObservation(String key, long observedAt) {
+        synchronized (lastObserved) {
+            Long previous = lastObserved.get(key);
+            if (previous != null && previous >= observedAt) return false;
+            lastObserved.put(key, observedAt);
+            return true;
+        }
+    }
+
+    /**
+     * Schreibt einen Block in einer Transaktion. Die Rollups werden vorher im Speicher je Bucket
+     * zusammengefasst, sodass pro Bucket nur ein UPDATE anfällt; fehlende Buckets werden eingefügt.
+     * Legt eine andere Instanz denselben Bucket gleichzeitig an, wird der Block einmal wiederholt.
+     * Rohwerte von Tagen, die schon außerhalb der Aufbewahrungsfrist liegen, gehen nur in die Rollups ein.
+     */
+    private void writeBatch(List<Sample> batch) {
+        long cutoffDay = rawCutoffDay();
+        Map<Long, List<Sample>> rawByDay = new TreeMap<>();
+        Map<RollupKey, Aggregate> rollups = new LinkedHashMap<>();
+        for (Sample sample : batch) {
+            long day = dayOf(sample.observedAt());
+            if (day >= cutoffDay) {
+                rawByDay.computeIfAbsent(day, d -> new ArrayList<>()).add(sample);
+            }
+            for (ObservationHistory.Resolution resolution : ROLLUPS) {
+                RollupKey key = new RollupKey(sample.cellKey(), resolution, sample.metric(), resolution.bucketStart(sample.observedAt()));
+                rollups.computeIfAbsent(key, k -> new Aggregate()).add(sample.value());
+            }
+        }
+
+        // DDL außerhalb der Transaktion, H2 würde sonst mitten im Block committen
+        rawByDay.keySet().forEach(this::ensureDay);
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    rawByDay.forEach((day, samples) -> jdbcTemplate.batchUpdate("INSERT INTO " + rawTable(day)
+                                    + " (cell_key, metric, observed_at, observed_value) VALUES (?, ?, ?, ?)",
+                            samples, samples.size(), (ps, sample) -> {
+                                ps.setLong(1, sample.cellKey());
+                                ps.setShort(2, sample.metric().getCode());
+                                ps.setLong(3, sample.observedAt());
+                                ps.setDouble(4, sample.value());
+                            }));
+                    upsertRollups(rollups);
+                });
+                return;
+            } catch (DuplicateKeyException e) {
+                if (attempt == 2) throw e;
+            }
+        }
+    }
+
+    private void upsertRollups(Map<RollupKey, Aggregate> rollups) {
+        List<Map.Entry<RollupKey, Aggregate>> entries = new ArrayList<>(rollups.entrySet());
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE_ROLLUP, entries, entries.size(),
+                (ps, entry) -> bindRollup(ps, entry.getKey(), entry.getValue()));
+
+        List<Map.Entry<RollupKey, Aggregate>> missing = new ArrayList<>();
+        int index = 0;
+        for (int[] counts : updated) {
+            for (int count : counts) {
+                if (count == 0) missing.add(entries.get(index));
+                index++;
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ROLLUP, missing, missing.size(),
+                    (ps, entry) -> bindRollup(ps, entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private static void bindRollup(PreparedStatement ps, RollupKey key, Aggregate aggregate) throws SQLException {
+        ps.setInt(1, aggregate.count);
+        ps.setDouble(2, aggregate.sum);
+        ps.setDouble(3, aggregate.min);
+        ps.setDouble(4, aggregate.max);
+        ps.setLong(5, key.cellKey());
+        ps.setString(6, key.resolution().getCode());
+        ps.setShort(7, key.metric().getCode());
+        ps.setLong(8, key.bucketStart());
+    }
+
+    private static ObservationHistory.Series toSeries(ObservationMetric metric, List<double[]> rows,
+                                                      ObservationHistory.Resolution resolution, String units) {
+        int n = rows.size();
+        long[] timestamps = new long[n];
+        if (resolution == ObservationHistory.Resolution.RAW) {
+            double[] values = new double[n];
+            for (int i = 0; i < n; i++) {
+                timestamps[i] = (long) rows.get(i)[0];
+                values[i] = metric.toUnits(rows.get(i)[1], units);
+            }
+            return new ObservationHistory.Series(timestamps, values, null, null, null, null);
+        }
+
+        double[] min = new double[n];
+        double[] max = new double[n];
+        double[] avg = new double[n];
+        int[] count = new int[n];
+        for (int i = 0; i < n; i++) {
+            double[] row = rows.get(i);
+            timestamps[i] = (long) row[0];
+            count[i] = (int) row[1];
+            avg[i] = Math.round(metric.toUnits(row[2] / row[1], units) * 100) / 100.0;
+            min[i] = metric.toUnits(row[3], units);
+            max[i] = metric.toUnits(row[4], units);
+        }
+        return new ObservationHistory.Series(timestamps, null, min, max, avg, count);
+    }
+
+    /**
+     * Legt die Rohwert-Tabelle eines Tages samt Index auf Zelle und Zeit an und trägt den Tag ein.
+     */
+    private void ensureDay(long day) {
+        if (knownDays.contains(day)) return;
+        String table = rawTable(day);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + table + " (cell_key BIGINT NOT NULL, metric SMALLINT NOT NULL, "
+                + "observed_at BIGINT NOT NULL, observed_value DOUBLE PRECISION NOT NULL)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + table + "_cell_time ON " + table + " (cell_key, observed_at)");
+        try {
+            jdbcTemplate.update("INSERT INTO weather_observation_day (epoch_day) VALUES (?)", day);
+        } catch (DuplicateKeyException e) {
+            // Von einer anderen Instanz oder vor einem Neustart eingetragen
+        }
+        knownDays.add(day);
+    }
+
+    /**
+     * Erster Tag, dessen Rohwerte noch aufbewahrt werden.
+     */
+    private long rawCutoffDay() {
+        return dayOf(clock.millis() / 1000 - rawRetentionSeconds);
+    }
+
+    private static long dayOf(long epochSecond) {
+        return Math.floorDiv(epochSecond, DAY_SECONDS);
+    }
+
+    private static String rawTable(long day) {
+        return "weather_observation_" + day;
+    }
+
+    private void ensureSchema() {
+        if (schemaReady) return;
+        synchronized (this) {
+            if (schemaReady) return;
+            for (String statement : SCHEMA) {
+                jdbcTemplate.execute(statement);
+            }
+            schemaReady = true;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Eine durchgereichte Exception würde scheduleWithFixedDelay dauerhaft beenden
+            logger.error("Fehler beim Schreiben der Historie: {}", e.getMessage());
+        }
+    }
+
+    private void pruneQuietly() {
+        try {
+            prune();
+        } catch (RuntimeException e) {
+            logger.error("Fehler beim Bereinigen der Historie: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Messgrößen, die aus Conditions und AirQuality in die Beobachtungshistorie übernommen werden.
+ * Gespeichert wird immer metrisch; {@link #toUnits(double, String)} rechnet beim Lesen um.
+ */
+public enum ObservationMetric {
+
+    TEMP(1, "temp", WeatherSection.CONDITIONS, "tempC"),
+    FEELS_LIKE(2, "feelsLike", WeatherSection.CONDITIONS, "feelslikeC"),
+    HUMIDITY(3, "humidity", WeatherSection.CONDITIONS, "humidity"),
+    WIND_SPEED(4, "windSpeed", WeatherSection.CONDITIONS, "windSpeedKPH"),
+    PRESSURE(5, "pressure", WeatherSection.CONDITIONS, "pressureMB"),
+    AQI(6, "aqi", WeatherSection.AIR_QUALITY, "aqi"),
+    PM25(7, "pm25", WeatherSection.AIR_QUALITY, "pollutants.pm2p5"),
+    PM10(8, "pm10", WeatherSection.AIR_QUALITY, "pollutants.pm10"),
+    O3(9, "o3", WeatherSection.AIR_QUALITY, "pollutants.o3"),
+    NO2(10, "no2", WeatherSection.AIR_QUALITY, "pollutants.no2");
+
+    private final short code;
+    private final String key;
+    private final WeatherSection section;
+    private final String field;
+
+    ObservationMetric(int code, String key, WeatherSection section, String field) {
+        this.code = (short) code;
+        this.key = key;
+        this.section = section;
+        this.field = field;
+    }
+
+    /**
+     * Kennung in der Datenbank; darf sich nach dem ersten Schreiben nicht mehr ändern.
+     */
+    public short getCode() {
+        return code;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public WeatherSection getSection() {
+        return section;
+    }
+
+    /**
+     * Pfad für Xweathers {@code fields=}, z. B. {@code periods.tempC} oder {@code periods.pollutants.o3.valueMG}.
+     */
+    public String getFieldPath() {
+        return "periods." + (field.startsWith("pollutants.") ? field + ".valueMG" : field);
+    }
+
+    /**
+     * Liest den Wert aus einer Xweather-Periode; NaN, wenn er fehlt.
+     * Schadstoffe stehen unter {@code pollutants.<name>.valueMG}, wie in der /details-Antwort.
+     */
+    public double extract(JsonNode period) {
+        JsonNode node = field.startsWith("pollutants.")
+                ? period.path("pollutants").path(field.substring("pollutants.".length())).path("valueMG")
+                : period.path(field);
+        return node.isNumber() ? node.asDouble() : Double.NaN;
+    }
+
+    /**
+     * Rechnet einen metrisch gespeicherten Wert in die angefragten Einheiten um.
+     * Die Umrechnungen sind linear, gelten also auch für Minimum, Maximum und Mittelwert.
+     */
+    public double toUnits(double value, String units) {
+        if (!"e".equalsIgnoreCase(units)) return value;
+        return switch (this) {
+            case TEMP, FEELS_LIKE -> value * 9 / 5 + 32;
+            case WIND_SPEED -> value * 0.621371;
+            default -> value;
+        };
+    }
+
+    public static ObservationMetric fromCode(short code) {
+        for (ObservationMetric metric : values()) {
+            if (metric.code == code) return metric;
+        }
+        throw new IllegalArgumentException("Unbekannte Messgröße: " + code);
+    }
+
+    public static ObservationMetric fromKey(String key) {
+        for (ObservationMetric metric : values()) {
+            if (metric.key.equalsIgnoreCase(key)) return metric;
+        }
+        throw new IllegalArgumentException("Unbekannte Messgröße: " + key);
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.demo.service;
+
+import com.example.demo.FavoriteLocationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aktualisiert die favorisierten Koordinaten im Hintergrund, clusterweit genau einmal pro
+ * {@code weather.refresh.interval-seconds}. Die Koordinaten werden nach Geohash-Zelle gruppiert und die
+ * Zellen per {@link ClusterMembership} auf die Instanzen verteilt. Vor der Aktualisierung beansprucht die
+ * zuständige Instanz die Zelle für das aktuelle Intervall in einer Tabelle; sehen zwei Instanzen während
+ * eines Mitgliederwechsels kurz unterschiedliche Ringe, gewinnt nur eine. Das Intervall richtet sich nach der
+ * Datenbankzeit ({@link ClusterMembership#getClock()}), sodass keine Instanz mit vorgehender Uhr früher ins nächste
+ * Intervall wechselt. Fällt eine Instanz aus, übernehmen die anderen ihre noch offenen Zellen beim nächsten
+ * Durchlauf ({@code weather.refresh.tick-seconds}).
+ * Mit {@link HeavyHitters} veröffentlicht jede Instanz ihre {@code weather.refresh.hot-keys} am häufigsten
+ * angefragten Orte in {@code weather_refresh_hot}; alle Instanzen lesen die Orte der lebenden Instanzen von dort,
+ * sodass die zuständige Instanz auch Orte aktualisiert, die nur bei einer anderen gefragt sind. Die Zellen werden
+ * absteigend nach der clusterweiten Häufigkeit aktualisiert.
+ */
+@Component
+@ConditionalOnProperty(name = "weather.refresh.enabled", havingValue = "true")
+public class PartitionedRefreshJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionedRefreshJob.class);
+
+    /**
+     * Koordinaten in derselben Zelle (ca. 1 km) gelten als ein Ort, wie bei {@link HeavyHitters}.
+     */
+    private static final double HOT_CELL_DEG = 0.01;
+
+    private final ClusterMembership membership;
+    private final JdbcTemplate jdbcTemplate;
+    private final FavoriteLocationRepository favorites;
+    private final WeatherDetailService weatherDetailService;
+    private final HeavyHitters heavyHitters;
+    private final Clock clock;
+    private final long intervalMillis;
+    private final long tickMillis;
+    private final int precision;
+    private final String units;
+    private final int hotKeys;
+
+    private final Set<String> handled = new HashSet<>();
+    private final AtomicLong refreshed = new AtomicLong();
+    private long currentSlot = -1;
+    private volatile boolean schemaReady;
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public PartitionedRefreshJob(ClusterMembership membership, JdbcTemplate jdbcTemplate, FavoriteLocationRepository favorites,
+                                 WeatherDetailService weatherDetailService, Optional<HeavyHitters> heavyHitters,
+                                 Environment environment) {
+        this(membership, jdbcTemplate, favorites, weatherDetailService, heavyHitters.orElse(null), environment, membership.getClock());
+    }
+
+    PartitionedRefreshJob(ClusterMembership membership, JdbcTemplate jdbcTemplate, FavoriteLocationRepository favorites,
+                          WeatherDetailService weatherDetailService, HeavyHitters heavyHitters, Environment environment,
+                          Clock clock) {
+        this.membership = membership;
+        this.jdbcTemplate = jdbcTemplate;
+        this.favorites = favorites;
+        this.weatherDetailService = weatherDetailService;
+        this.heavyHitters = heavyHitters;
+        this.clock = clock;
+        this.intervalMillis = environment.getProperty("weather.refresh.interval-seconds", Long.class, 300L) * 1000;
+        this.tickMillis = environment.getProperty("weather.refresh.tick-seconds", Long.class, 15L) * 1000;
+        this.precision = environment.getProperty("weather.refresh.geohash-precision", Integer.class, 5);
+        this.units = environment.getProperty("weather.refresh.units", "m");
+        this.hotKeys = environment.getProperty("weather.refresh.hot-keys", Integer.class, 100);
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "weather-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::tickQuietly, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Ein Durchlauf: aktualisiert alle Zellen, die dieser Instanz gehören und im aktuellen Intervall
+     * noch von keiner Instanz beansprucht wurden.
+     * @return Anzahl aktualisierter Koordinaten
+     */
+    public synchronized int tick() {
+        ensureSchema();
+        long slot = clock.millis() / intervalMillis;
+        if (slot != currentSlot) {
+            currentSlot = slot;
+            handled.clear();
+            if (membership.isLeader()) {
+                jdbcTemplate.update("DELETE FROM weather_refresh_claim WHERE slot < ?", slot - 1);
+                jdbcTemplate.update("DELETE FROM weather_refresh_hot WHERE published_at < ?", clock.millis() - 10 * intervalMillis);
+            }
+        }
+        publishHotCoordinates();
+
+        int count = 0;
+        for (Map.Entry<String, List<double[]>> cell : cells().entrySet()) {
+            if (handled.contains(cell.getKey()) || !membership.owns(cell.getKey())) {
+                continue;
+            }
+            handled.add(cell.getKey());
+            if (!tryClaim(cell.getKey(), slot)) {
+                continue;
+            }
+            for (double[] coordinate : cell.getValue()) {
+                try {
+                    weatherDetailService.refresh(coordinate[0], coordinate[1], units);
+                    count++;
+                } catch (RuntimeException e) {
+                    logger.error("Fehler beim Aktualisieren von {}, {}: {}", coordinate[0], coordinate[1], e.getMessage());
+                }
+            }
+        }
+        refreshed.addAndGet(count);
+        return count;
+    }
+
+    /**
+     * Anzahl der von dieser Instanz aktualisierten Koordinaten seit dem Start.
+     */
+    public long getRefreshedCount() {
+        return refreshed.get();
+    }
+
+    /**
+     * Ersetzt die veröffentlichten häufigen Orte dieser Instanz durch die aktuellen. Bestehende Zeilen werden
+     * aktualisiert und erst danach nicht mehr häufige gelöscht, sodass andere Instanzen nie eine leere Liste lesen.
+     */
+    private void publishHotCoordinates() {
+        if (heavyHitters == null) {
+            return;
+        }
+        String nodeId = membership.getNodeId();
+        long now = clock.millis();
+        List<Object[]> rows = new ArrayList<>();
+        for (double[] coordinate : heavyHitters.hotCoordinates(units, hotKeys)) {
+            rows.add(new Object[]{coordinate[0], coordinate[1],
+                    heavyHitters.frequency(HeavyHitters.detailsKey(coordinate[0], coordinate[1], units)), now,
+                    nodeId, GeoMath.cellKey(coordinate[0], coordinate[1], HOT_CELL_DEG)});
+        }
+        int[] updated = jdbcTemplate.batchUpdate("UPDATE weather_refresh_hot SET lat = ?, lon = ?, frequency = ?, published_at = ? "
+                + "WHERE node_id = ? AND cell_key = ?", rows);
+        List<Object[]> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) missing.add(rows.get(i));
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO weather_refresh_hot (lat, lon, frequency, published_at, node_id, cell_key) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)", missing);
+        }
+        jdbcTemplate.update("DELETE FROM weather_refresh_hot WHERE node_id = ? AND published_at < ?", nodeId, now);
+    }
+
+    /**
+     * Favorisierte und häufig angefragte Koordinaten nach Geohash-Zelle; Koordinaten, die auf etwa einen
+     * Kilometer ({@code 0.01°}) übereinstimmen, werden nur einmal aktualisiert. Häufige Orte kommen von allen
+     * Instanzen im aktuellen Ring, ihre Häufigkeiten werden addiert.
+     */
+    private Map<String, List<double[]>> cells() {
+        Map<String, Map<Long, double[]>> cells = new TreeMap<>();
+        for (FavoriteLocationRepository.Coordinate favorite : favorites.findDistinctCoordinates()) {
+            addCoordinate(cells, favorite.getLatitude(), favorite.getLongitude());
+        }
+        Set<String> live = new HashSet<>(membership.getRing().nodes());
+        Map<Long, Long> frequencies = new HashMap<>();
+        jdbcTemplate.query("SELECT node_id, cell_key, lat, lon, frequency FROM weather_refresh_hot", rs -> {
+            if (!live.contains(rs.getString(1))) {
+                return;
+            }
+            frequencies.merge(rs.getLong(2), (long) rs.getInt(5), Long::sum);
+            addCoordinate(cells, rs.getDouble(3), rs.getDouble(4));
+        });
+        Map<String, List<double[]>> result = new LinkedHashMap<>();
+        cells.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Map<Long, double[]>> cell) -> -hotness(cell.getValue().keySet(), frequencies)))
+                .forEach(cell -> result.put(cell.getKey(), new ArrayList<>(cell.getValue().values())));
+        return result;
+    }
+
+    private void addCoordinate(Map<String, Map<Long, double[]>> cells, double lat, double lon) {
+        cells.computeIfAbsent(GeoMath.geohash(lat, lon, precision), cell -> new LinkedHashMap<>())
+                .putIfAbsent(GeoMath.cellKey(lat, lon, HOT_CELL_DEG), new double[]{lat, lon});
+    }
+
+    private static long hotness(Collection<Long> cellKeys, Map<Long, Long> frequencies) {
+        long sum = 0;
+        for (long cellKey : cellKeys) {
+            sum += frequencies.getOrDefault(cellKey, 0L);
+        }
+        return sum;
+    }
+
+    /**
+     * Beansprucht die Zelle für das Intervall; gelingt genau einer Instanz, auch bei gleichzeitigen Versuchen.
+     */
+    private boolean tryClaim(String cell, long slot) {
+        try {
+            jdbcTemplate.update("INSERT INTO weather_refresh_claim (cell, slot, node_id, claimed_at) VALUES (?, ?, ?, ?)",
+                    cell, slot, membership.getNodeId(), clock.millis());
+            return true;
+        } catch (DuplicateKeyException e) {
+            return jdbcTemplate.update("UPDATE weather_refresh_claim SET slot = ?, node_id = ?, claimed_at = ? WHERE cell = ? AND slot < ?",
+                    slot, membership.getNodeId(), clock.millis(), cell, slot) > 0;
+        }
+    }
+
+    private void tickQuietly() {
+        try {
+            int count = tick();
+            if (count > 0) {
+                logger.info("{} Koordinaten aktualisiert (Instanz {})", count, membership.getNodeId());
+            }
+        } catch (RuntimeException e) {
+            // Eine durchgereichte Exception würde scheduleWithFixedDelay dauerhaft beenden
+            logger.error("Fehler bei der Hintergrundaktualisierung: {}", e.getMessage());
+        }
+    }
+
+    private void ensureSchema() {
+        if (schemaReady) return;
+        synchronized (this) {
+            if (schemaReady) return;
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS weather_refresh_claim (cell VARCHAR(16) PRIMARY KEY, "
+                    + "slot BIGINT NOT NULL, node_id VARCHAR(64) NOT NULL, claimed_at BIGINT NOT NULL)");
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS weather_refresh_hot (node_id VARCHAR(64) NOT NULL, "
+                    + "cell_key BIGINT NOT NULL, lat DOUBLE PRECISION NOT NULL, lon DOUBLE PRECISION NOT NULL, "
+                    + "frequency INTEGER NOT NULL, published_at BIGINT NOT NULL, PRIMARY KEY (node_id, cell_key))");
+            schemaReady = true;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demo.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * LRU-Cache für Ergebnisse der Ortssuche pro Suchbegriff ({@code weather.search-cache.max-entries},
+ * {@code weather.search-cache.ttl-seconds}). Ist er voll, verdrängt ein neuer Suchbegriff den am längsten
+ * nicht genutzten nur, wenn er laut {@link HeavyHitters} häufiger gesucht wird.
+ * Leere Ergebnisse (auch nach Fehlern) werden nicht zwischengespeichert.
+ */
+@Component
+@ConditionalOnProperty(name = "weather.search-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class PlaceSearchCache {
+
+    private record Cached(List<Map<String, Object>> results, long expiresAt) {
+    }
+
+    private final LinkedHashMap<String, Cached> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final HeavyHitters heavyHitters;
+    private final Clock clock;
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    @Autowired
+    public PlaceSearchCache(Environment environment, Optional<HeavyHitters> heavyHitters) {
+        this(environment, heavyHitters.orElse(null), Clock.systemUTC());
+    }
+
+    PlaceSearchCache(Environment environment, HeavyHitters heavyHitters, Clock clock) {
+        this.heavyHitters = heavyHitters;
+        this.clock = clock;
+        this.maxEntries = environment.getProperty("weather.search-cache.max-entries", Integer.class, 2000);
+        this.ttlMillis = environment.getProperty("weather.search-cache.ttl-seconds", Long.class, 3600L) * 1000;
+    }
+
+    /**
+     * @return zwischengespeicherte Ergebnisse oder {@code null}
+     */
+    public synchronized List<Map<String, Object>> get(String query) {
+        String key = HeavyHitters.searchKey(query);
+        Cached cached = entries.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt() <= clock.millis()) {
+            entries.remove(key);
+            return null;
+        }
+        return cached.results();
+    }
+
+    /**
+     * @return {@code false}, wenn der Cache voll ist und der Suchbegriff seltener gesucht wurde als der älteste
+     */
+    public synchronized boolean put(String query, List<Map<String, Object>> results) {
+        if (results.isEmpty()) {
+            return false;
+        }
+        String key = HeavyHitters.searchKey(query);
+        long now = clock.millis();
+        if (!entries.containsKey(key)) {
+            Iterator<Map.Entry<String, Cached>> oldest = entries.entrySet().iterator();
+            while (oldest.hasNext() && entries.size() >= maxEntries) {
+                Map.Entry<String, Cached> victim = oldest.next();
+                if (victim.getValue().expiresAt() > now && heavyHitters != null && !heavyHitters.admit(key, victim.getKey())) {
+                    return false;
+                }
+                oldest.remove();
+            }
+        }
+        entries.put(key, new Cached(List.copyOf(results), now + ttlMillis));
+        return true;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Warnungen werden nicht pro Koordinate, sondern pro Kachel ({@code weather.alerts.region.tile-deg})
+ * über {@code /alerts/within} samt Warnpolygonen geladen. Eine Abfrage prüft dann lokal per
+ * Punkt-in-Polygon, welche Warnungen die Koordinate abdecken; tausende Orte einer Region kosten
+ * so einen Xweather-Aufruf pro Kachel und TTL.
+ * Pro Kachel liegt ein Raster über den Polygon-Bounding-Boxes, sodass nur Kandidaten geprüft werden.
+ * Enthält eine Kachel eine Warnung ohne Polygon (z. B. nach Landkreis oder Zone), wird sie nicht lokal beantwortet.
+ */
+@Component
+@ConditionalOnProperty(name = "weather.alerts.region.enabled", havingValue = "true")
+public class RegionAlertCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegionAlertCache.class);
+
+    /**
+     * Eine Kachel als Bounding-Box in Grad.
+     */
+    public record Region(double south, double west, double north, double east) {
+    }
+
+    private final ConcurrentHashMap<Long, CompletableFuture<TileAlerts>> tiles = new ConcurrentHashMap<>();
+    private final AtomicLong loads = new AtomicLong();
+    private final double tileDeg;
+    private final long ttlMillis;
+    private final int limit;
+    private final int grid;
+    private final Clock clock;
+
+    @Autowired
+    public RegionAlertCache(Environment environment) {
+        this(environment, Clock.systemUTC());
+    }
+
+    RegionAlertCache(Environment environment, Clock clock) {
+        this.clock = clock;
+        this.tileDeg = environment.getProperty("weather.alerts.region.tile-deg", Double.class, 2.0);
+        this.ttlMillis = environment.getProperty("weather.alerts.region.ttl-seconds", Long.class, 300L) * 1000;
+        this.limit = environment.getProperty("weather.alerts.region.limit", Integer.class, 250);
+        this.grid = environment.getProperty("weather.alerts.region.grid", Integer.class, 8);
+    }
+
+    /**
+     * Warnungen an der Koordinate im Format von {@code parseAlerts}. Lädt die Kachel bei Bedarf über
+     * {@code loader} (genau ein Aufruf pro Kachel, gleichzeitige Anfragen warten darauf).
+     * @return {@code null}, wenn die Kachel nicht geladen werden konnte, das Limit erreicht hat oder eine Warnung
+     * ohne Polygon enthält; dann muss die Koordinate einzeln abgefragt werden
+     */
+    public List<Map<String, Object>> lookup(double lat, double lon, Function<Region, JsonNode> loader) {
+        long row = GeoMath.cellIndex(lat, tileDeg);
+        long col = GeoMath.cellIndex(lon, tileDeg);
+        TileAlerts tile = tile(GeoMath.cellKey(row, col), row, col, loader);
+        return tile != null && !tile.incomplete() ? tile.alertsAt(lat, lon) : null;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public long getLoadCount() {
+        return loads.get();
+    }
+
+    private TileAlerts tile(long key, long row, long col, Function<Region, JsonNode> loader) {
+        CompletableFuture<TileAlerts> entry = tiles.get(key);
+        if (entry != null && (!entry.isDone() || !isExpired(entry.join()))) {
+            return entry.join();
+        }
+
+        CompletableFuture<TileAlerts> fresh = new CompletableFuture<>();
+        boolean owner = entry == null ? tiles.putIfAbsent(key, fresh) == null : tiles.replace(key, entry, fresh);
+        if (!owner) {
+            CompletableFuture<TileAlerts> current = tiles.get(key);
+            return current != null ? current.join() : null;
+        }
+
+        Region region = new Region(row * tileDeg, col * tileDeg, (row + 1) * tileDeg, (col + 1) * tileDeg);
+        TileAlerts loaded = null;
+        try {
+            loads.incrementAndGet();
+            JsonNode root = loader.apply(region);
+            if (root != null && root.path("success").asBoolean()) {
+                loaded = TileAlerts.build(root.path("response"), region, grid, limit, clock.millis() + ttlMillis);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Fehler beim Laden der Warnungen für Region {}: {}", region, e.getMessage());
+        } finally {
+            fresh.complete(loaded);
+            if (loaded == null) {
+                tiles.remove(key, fresh);
+            }
+        }
+        return loaded;
+    }
+
+    private boolean isExpired(TileAlerts tile) {
+        return tile == null || tile.expiresAt() <= clock.millis();
+    }
+
+    /**
+     * Eine Warnung mit ihren Polygonen (jeweils Außenring und Löcher als {@code [lon0, lat0, lon1, lat1, …]})
+     * und der Bounding-Box über alle Polygone.
+     */
+    record AlertArea(Map<String, Object> alert, double[][][] polygons,
+                     double minLat, double minLon, double maxLat, double maxLon) {
+
+        static AlertArea of(Map<String, Object> alert, double[][][] polygons) {
+            double minLat = Double.MAX_VALUE, minLon = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE, maxLon = -Double.MAX_VALUE;
+            for (double[][] polygon : polygons) {
+                double[] outer = polygon[0];
+                for (int i = 0; i < outer.length; i += 2) {
+                    minLon = Math.min(minLon, outer[i]);
+                    maxLon = Math.max(maxLon, outer[i]);
+                    minLat = Math.min(minLat, outer[i + 1]);
+                    maxLat = Math.max(maxLat, outer[i + 1]);
+                }
+            }
+            return new AlertArea(alert, polygons, minLat, minLon, maxLat, maxLon);
+        }
+
+        boolean contains(double lat, double lon) {
+            if (lat < minLat || lat > maxLat || lon < minLon || lon > maxLon) {
+                return false;
+            }
+            for (double[][] polygon : polygons) {
+                if (polygonContains(polygon, lat, lon)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Gerade-Ungerade-Regel über alle Ringe eines Polygons, Löcher heben sich dadurch auf.
+     */
+    static boolean polygonContains(double[][] rings, double lat, double lon) {
+        boolean inside = false;
+        for (double[] ring : rings) {
+            int n = ring.length / 2;
+            for (int i = 0, j = n - 1; i < n; j = i++) {
+                double xi = ring[2 * i], yi = ring[2 * i + 1];
+                double xj = ring[2 * j], yj = ring[2 * j + 1];
+                if ((yi > lat) != (yj > lat) && lon < (xj - xi) * (lat - yi) / (yj - yi) + xi) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Warnungen einer Kachel mit einem {@code grid × grid}-Raster; jede Zelle kennt die Warnungen,
+     * deren Bounding-Box sie schneidet. {@code incomplete}, wenn die Antwort abgeschnitten ist oder
+     * eine Warnung kein Polygon hat, das Raster also nicht alle Warnungen der Kachel kennt.
+     */
+    record TileAlerts(Region region, AlertArea[] areas, int[][] cells, int grid, boolean incomplete, long expiresAt) {
+
+        static TileAlerts build(JsonNode response, Region region, int grid, int limit, long expiresAt) {
+            List<AlertArea> areas = new ArrayList<>();
+            int count = 0;
+            boolean withoutPolygon = false;
+            for (JsonNode item : response) {
+                count++;
+                if (!item.has("details")) {
+                    continue;
+                }
+                double[][][] polygons = parsePolygons(item.path("geoPoly"));
+                if (polygons.length > 0) {
+                    areas.add(AlertArea.of(WeatherDetailService.parseAlert(item.get("details")), polygons));
+                } else {
+                    withoutPolygon = true;
+                }
+            }
+
+            double cellLat = (region.north() - region.south()) / grid;
+            double cellLon = (region.east() - region.west()) / grid;
+            List<List<Integer>> buckets = new ArrayList<>(grid * grid);
+            for (int i = 0; i < grid * grid; i++) {
+                buckets.add(new ArrayList<>());
+            }
+            for (int a = 0; a < areas.size(); a++) {
+                AlertArea area = areas.get(a);
+                int r0 = clamp((int) Math.floor((area.minLat() - region.south()) / cellLat), grid);
+                int r1 = clamp((int) Math.floor((area.maxLat() - region.south()) / cellLat), grid);
+                int c0 = clamp((int) Math.floor((area.minLon() - region.west()) / cellLon), grid);
+                int c1 = clamp((int) Math.floor((area.maxLon() - region.west()) / cellLon), grid);
+                for (int r = r0; r <= r1; r++) {
+                    for (int c = c0; c <= c1; c++) {
+                        buckets.get(r * grid + c).add(a);
+                    }
+                }
+            }
+            int[][] cells = new int[grid * grid][];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = buckets.get(i).stream().mapToInt(Integer::intValue).toArray();
+            }
+            return new TileAlerts(region, areas.toArray(new AlertArea[0]), cells, grid, count >= limit || withoutPolygon, expiresAt);
+        }
+
+        List<Map<String, Object>> alertsAt(double lat, double lon) {
+            int row = clamp((int) ((lat - region.south()) / (region.north() - region.south()) * grid), grid);
+            int col = clamp((int) ((lon - region.west()) / (region.east() - region.west()) * grid), grid);
+            List<Map<String, Object>> alerts = new ArrayList<>();
+            for (int candidate : cells[row * grid + col]) {
+                if (areas[candidate].contains(lat, lon)) {
+                    alerts.add(areas[candidate].alert());
+                }
+            }
+            return alerts;
+        }
+
+        private static int clamp(int index, int grid) {
+            return Math.max(0, Math.min(grid - 1, index));
+        }
+    }
+
+    /**
+     * Liest ein GeoJSON-{@code Polygon} oder {@code MultiPolygon} (Koordinaten als {@code [lon, lat]}).
+     */
+    static double[][][] parsePolygons(JsonNode geometry) {
+        JsonNode coordinates = geometry.path("coordinates");
+        return switch (geometry.path("type").asText()) {
+            case "Polygon" -> coordinates.size() > 0 ? new double[][][]{parseRings(coordinates)} : new double[0][][];
+            case "MultiPolygon" -> {
+                List<double[][]> polygons = new ArrayList<>();
+                for (JsonNode polygon : coordinates) {
+                    if (polygon.size() > 0) {
+                        polygons.add(parseRings(polygon));
+                    }
+                }
+                yield polygons.toArray(new double[0][][]);
+            }
+            default -> new double[0][][];
+        };
+    }
+
+    private static double[][] parseRings(JsonNode rings) {
+        double[][] parsed = new double[rings.size()][];
+        for (int r = 0; r < parsed.length; r++) {
+            JsonNode ring = rings.get(r);
+            double[] points = new double[ring.size() * 2];
+            for (int p = 0; p < ring.size(); p++) {
+                points[2 * p] = ring.get(p).get(0).asDouble();
+                points[2 * p + 1] = ring.get(p).get(1).asDouble();
+            }
+            parsed[r] = points;
+        }
+        return parsed;
+    }
+}
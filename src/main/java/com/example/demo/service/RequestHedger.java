@@ -0,0 +1,264 @@
+package com.example.demo.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Hedging für Xweather-Aufrufe: Ist ein Aufruf nach dem gemessenen Perzentil der letzten
+ * Antwortzeiten ({@code xweather.hedging.percentile}) noch offen, wird derselbe Aufruf ein zweites Mal
+ * gestartet und die erste Antwort verwendet. Zusätzliche Aufrufe sind durch ein Budget begrenzt
+ * ({@code xweather.hedging.budget-percent} der Aufrufe, höchstens {@code max-burst} am Stück).
+ * Die Antwortzeiten werden pro Schlüssel (Abschnitt) getrennt erfasst.
+ */
+@Component
+@ConditionalOnProperty(name = "xweather.hedging.enabled", havingValue = "true")
+public class RequestHedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestHedger.class);
+
+    private final Map<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HedgeBudget budget;
+    private final double percentile;
+    private final long minDelayMillis;
+    private final int windowSize;
+    private final int minSamples;
+
+    private final LongAdder hedgesSent = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+
+    @Autowired
+    public RequestHedger(Environment environment) {
+        this.percentile = environment.getProperty("xweather.hedging.percentile", Double.class, 90.0);
+        this.minDelayMillis = environment.getProperty("xweather.hedging.min-delay-ms", Long.class, 20L);
+        this.windowSize = environment.getProperty("xweather.hedging.window-size", Integer.class, 512);
+        this.minSamples = environment.getProperty("xweather.hedging.min-samples", Integer.class, 32);
+        this.budget = new HedgeBudget(
+                environment.getProperty("xweather.hedging.budget-percent", Double.class, 10.0) / 100,
+                environment.getProperty("xweather.hedging.max-burst", Double.class, 10.0));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Blockierender Aufruf mit Hedging. Der langsamere Aufruf läuft im Hintergrund zu Ende,
+     * sein Ergebnis wird verworfen; seine Antwortzeit fließt trotzdem in die Messung ein.
+     */
+    public <T> T call(String key, Callable<T> request) throws Exception {
+        LatencyWindow window = window(key);
+        long delay = window.hedgeDelayMillis();
+        budget.onRequest();
+
+        CompletableFuture<T> primary = submit(window, request);
+        if (delay < 0) {
+            return await(primary);
+        }
+        try {
+            return primary.get(delay, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (!budget.tryAcquire()) {
+                return await(primary);
+            }
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+
+        hedgesSent.increment();
+        logger.debug("Hedge für {} nach {} ms", key, delay);
+        CompletableFuture<T> hedge = submit(window, request);
+        hedge.thenRun(() -> {
+            if (!primary.isDone()) hedgesWon.increment();
+        });
+        return await(firstSuccessful(primary, hedge));
+    }
+
+    /**
+     * Nicht-blockierende Variante: der unterlegene Aufruf wird abgebrochen. Schlägt der erste Aufruf fehl, bevor der
+     * Hedge gestartet ist, wird der Hedge verworfen und der Fehler weitergegeben, wie beim blockierenden Aufruf;
+     * ein schneller Fehler löst also keine unbudgetierte Wiederholung aus.
+     */
+    public <T> Mono<T> hedge(String key, Supplier<Mono<T>> request) {
+        return Mono.defer(() -> {
+            LatencyWindow window = window(key);
+            long delay = window.hedgeDelayMillis();
+            budget.onRequest();
+
+            if (delay < 0) {
+                return timed(window, request);
+            }
+            Sinks.One<Throwable> primaryFailure = Sinks.one();
+            AtomicBoolean hedged = new AtomicBoolean();
+            Mono<T> primary = timed(window, request).doOnError(primaryFailure::tryEmitValue);
+            Mono<T> hedge = Mono.delay(Duration.ofMillis(delay))
+                    .takeUntilOther(primaryFailure.asMono())
+                    .filter(tick -> budget.tryAcquire())
+                    .flatMap(tick -> {
+                        hedged.set(true);
+                        hedgesSent.increment();
+                        return timed(window, request).doOnNext(value -> hedgesWon.increment());
+                    });
+            // Ohne gestarteten Hedge kann nur der erste Aufruf fehlgeschlagen sein: dessen Fehler statt NoSuchElementException
+            return Mono.firstWithValue(primary, hedge)
+                    .onErrorResume(error -> hedged.get() ? Mono.error(error) : primaryFailure.asMono().flatMap(Mono::error));
+        });
+    }
+
+    /**
+     * Aktuelle Wartezeit bis zum Hedge in Millisekunden, -1 solange zu wenige Messwerte vorliegen.
+     */
+    public long hedgeDelayMillis(String key) {
+        return window(key).hedgeDelayMillis();
+    }
+
+    public long getHedgesSent() {
+        return hedgesSent.sum();
+    }
+
+    public long getHedgesWon() {
+        return hedgesWon.sum();
+    }
+
+    private LatencyWindow window(String key) {
+        return windows.computeIfAbsent(key, k -> new LatencyWindow(windowSize, percentile, minSamples, minDelayMillis));
+    }
+
+    private <T> CompletableFuture<T> submit(LatencyWindow window, Callable<T> request) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                T value = request.call();
+                window.record(System.nanoTime() - start);
+                return value;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    private static <T> Mono<T> timed(LatencyWindow window, Supplier<Mono<T>> request) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return request.get().doOnNext(value -> window.record(System.nanoTime() - start));
+        });
+    }
+
+    /**
+     * Liefert das erste erfolgreiche Ergebnis; schlagen beide fehl, den letzten Fehler.
+     */
+    private static <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> first, CompletableFuture<T> second) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        BiConsumer<T, Throwable> handler = (value, error) -> {
+            if (error == null) {
+                result.complete(value);
+            } else if (failures.incrementAndGet() == 2) {
+                result.completeExceptionally(error);
+            }
+        };
+        first.whenComplete(handler);
+        second.whenComplete(handler);
+        return result;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static Exception unwrap(ExecutionException e) {
+        Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                ? e.getCause().getCause() : e.getCause();
+        return cause instanceof Exception exception ? exception : e;
+    }
+
+    /**
+     * Ringpuffer der letzten Antwortzeiten. Das Perzentil wird nur alle {@code size / 8}
+     * neuen Messwerte neu berechnet, damit nicht jeder Aufruf sortieren muss.
+     */
+    private static final class LatencyWindow {
+
+        private final long[] samples;
+        private final double percentile;
+        private final int minSamples;
+        private final long minDelayMillis;
+        private final int recomputeEvery;
+
+        private int next;
+        private int count;
+        private int sinceRecompute;
+        private volatile long delayMillis = -1;
+
+        LatencyWindow(int size, double percentile, int minSamples, long minDelayMillis) {
+            this.samples = new long[size];
+            this.percentile = percentile;
+            this.minSamples = Math.min(minSamples, size);
+            this.minDelayMillis = minDelayMillis;
+            this.recomputeEvery = Math.max(1, size / 8);
+        }
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+            if (count >= minSamples && (++sinceRecompute >= recomputeEvery || delayMillis < 0)) {
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                int index = (int) Math.min(count - 1, Math.ceil(percentile / 100 * count) - 1);
+                delayMillis = Math.max(minDelayMillis, TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(0, index)]));
+                sinceRecompute = 0;
+            }
+        }
+
+        long hedgeDelayMillis() {
+            return delayMillis;
+        }
+    }
+
+    /**
+     * Token-Bucket: jeder Aufruf bringt {@code ratio} Token, jeder Hedge kostet eines.
+     */
+    private static final class HedgeBudget {
+
+        private final double ratio;
+        private final double maxTokens;
+        private double tokens;
+
+        HedgeBudget(double ratio, double maxTokens) {
+            this.ratio = ratio;
+            this.maxTokens = maxTokens;
+        }
+
+        synchronized void onRequest() {
+            tokens = Math.min(maxTokens, tokens + ratio);
+        }
+
+        synchronized boolean tryAcquire() {
+            if (tokens < 1) return false;
+            tokens -= 1;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.demo.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sammelt die Dauer einzelner Phasen (Xweather-Aufruf je Abschnitt, Parsen, Datenbank, Serialisierung …)
+ * während einer HTTP-Anfrage. Der {@code ServerTimingFilter} bindet eine Instanz an den Request-Thread;
+ * ohne gebundene Instanz (Tests, Hintergrund-Threads) sind alle statischen Methoden wirkungslos.
+ * Gleichnamige Phasen werden aufsummiert und gezählt.
+ */
+public final class RequestTimings {
+
+    public static final String AUTH = "auth";
+    public static final String CACHE = "cache";
+    public static final String SHARED_CACHE = "sharedCache";
+    public static final String DB = "db";
+    public static final String PARSE = "parse";
+    public static final String SERIALIZE = "serialize";
+    public static final String TOTAL = "total";
+
+    private static final int MAX_PHASES = 16;
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final String[] names = new String[MAX_PHASES];
+    private final long[] nanos = new long[MAX_PHASES];
+    private final int[] counts = new int[MAX_PHASES];
+    private int size;
+    private long serializeStartNanos;
+
+    /**
+     * Name der Phase für den Xweather-Aufruf eines Abschnitts, z. B. {@code upstream-current}.
+     */
+    public static String upstream(String key) {
+        return "upstream-" + key;
+    }
+
+    public static RequestTimings bind() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Die an den aktuellen Thread gebundene Instanz oder {@code null}. Für Arbeit auf anderen
+     * Threads (reaktive Aufrufe) vorher abholen und direkt {@link #add} verwenden.
+     */
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Startzeitpunkt für {@link #record}; 0, wenn nicht gemessen wird.
+     */
+    public static long start() {
+        return CURRENT.get() != null ? System.nanoTime() : 0;
+    }
+
+    public static void record(String phase, long startNanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null && startNanos != 0) {
+            timings.add(phase, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Der Controller ist fertig, ab hier wird der Rückgabewert serialisiert.
+     */
+    public static void beginSerialize() {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.serializeStartNanos = System.nanoTime();
+        }
+    }
+
+    public void endSerialize() {
+        if (serializeStartNanos != 0) {
+            add(SERIALIZE, System.nanoTime() - serializeStartNanos);
+            serializeStartNanos = 0;
+        }
+    }
+
+    public synchronized void add(String phase, long durationNanos) {
+        for (int i = 0; i < size; i++) {
+            if (names[i].equals(phase)) {
+                nanos[i] += durationNanos;
+                counts[i]++;
+                return;
+            }
+        }
+        if (size < MAX_PHASES) {
+            names[size] = phase;
+            nanos[size] = durationNanos;
+            counts[size] = 1;
+            size++;
+        }
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Wert für den {@code Server-Timing}-Header, z. B. {@code upstream-current;dur=84.2, parse;dur=0.6, total;dur=91.0}.
+     */
+    public synchronized String toHeader() {
+        StringBuilder header = new StringBuilder(32 * (size + 1));
+        for (int i = 0; i < size; i++) {
+            appendMetric(header, names[i], nanos[i]);
+            if (counts[i] > 1) {
+                header.append(";desc=\"").append(counts[i]).append("x\"");
+            }
+            header.append(", ");
+        }
+        appendMetric(header, TOTAL, elapsedNanos());
+        return header.toString();
+    }
+
+    /**
+     * Alle Phasen in Millisekunden, in der Reihenfolge ihres ersten Auftretens.
+     */
+    public synchronized Map<String, Double> toMillis() {
+        Map<String, Double> phases = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            phases.put(names[i], round(nanos[i]));
+        }
+        return phases;
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long durationNanos) {
+        header.append(name).append(";dur=").append(round(durationNanos));
+    }
+
+    private static double round(long durationNanos) {
+        return Math.round(durationNanos / 1e5) / 10.0;
+    }
+}
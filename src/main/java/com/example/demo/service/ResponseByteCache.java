@@ -0,0 +1,184 @@
+package com.example.demo.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Fertig serialisierte /details-Antworten pro Ort, Einheit und Variante (Format, vollständig oder Delta), bei Bedarf
+ * zusätzlich gzip-komprimiert. Ein Treffer wird ohne erneutes Serialisieren und Komprimieren geschrieben.
+ * Ein Eintrag gilt nur, solange die Antwortdaten zu ihm passen: mit {@link WeatherSnapshotStore} gleiche
+ * {@code version} (ändert sich mit jedem Abschnitt) und gleiche Entfernungen, sonst gleicher 64-Bit-Fingerabdruck
+ * ({@link ContentFingerprint}) der ganzen Antwort.
+ * Die Daten selbst werden nicht festgehalten. Wird ein Abschnitt neu geladen, wird beim nächsten Abruf neu serialisiert.
+ * Die Summe aller Bytes ist durch {@code weather.output-cache.max-bytes} begrenzt (LRU); mit {@link HeavyHitters}
+ * werden nur Orte aufgenommen, die mindestens {@code weather.output-cache.min-frequency} mal angefragt wurden.
+ */
+@Component
+@ConditionalOnProperty(name = "weather.output-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseByteCache {
+
+    /**
+     * Antwortbytes; {@code gzip} gibt an, ob sie komprimiert sind.
+     */
+    public record Body(byte[] bytes, boolean gzip) {
+    }
+
+    /**
+     * Kleinere Antworten werden nicht komprimiert, gzip-Kopf und -Prüfsumme würden sie kaum kleiner machen.
+     */
+    static final int MIN_GZIP_BYTES = 256;
+
+    /**
+     * Schlüssel, Version und Map-Eintrag, grob geschätzt.
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+    private static final String DISTANCES = "distanceKm";
+
+    private static final class Entry {
+        private final Object version;
+        private final long hash;
+        private final byte[] identity;
+        private byte[] gzip;
+
+        Entry(Object version, long hash, byte[] identity) {
+            this.version = version;
+            this.hash = hash;
+            this.identity = identity;
+        }
+
+        boolean matches(Object version, long hash) {
+            return this.hash == hash && Objects.equals(this.version, version);
+        }
+
+        long size() {
+            return ENTRY_OVERHEAD_BYTES + identity.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final HeavyHitters heavyHitters;
+    private final long maxBytes;
+    private final int minFrequency;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private long bytes;
+
+    @Autowired
+    public ResponseByteCache(Environment environment, Optional<HeavyHitters> heavyHitters) {
+        this(environment, heavyHitters.orElse(null));
+    }
+
+    ResponseByteCache(Environment environment, HeavyHitters heavyHitters) {
+        this.heavyHitters = heavyHitters;
+        this.maxBytes = environment.getProperty("weather.output-cache.max-bytes", Long.class, 32L * 1024 * 1024);
+        this.minFrequency = environment.getProperty("weather.output-cache.min-frequency", Integer.class, 2);
+    }
+
+    /**
+     * Liefert die Antwortbytes aus dem Cache oder serialisiert {@code data} mit {@code serializer}.
+     * @param variant alles außer Ort, Einheit und Daten, was die Bytes bestimmt, z. B. Format und Art der Antwort
+     * @param gzip ob der Client gzip akzeptiert; kleine Antworten bleiben trotzdem unkomprimiert
+     */
+    public Body get(double lat, double lon, String units, String variant, Map<String, Object> data, boolean gzip,
+                    Function<Map<String, Object>, byte[]> serializer) {
+        String key = variant + "|" + units + "|" + lat + "|" + lon;
+        Object version = data.get(WeatherSnapshotStore.VERSION);
+        long hash = ContentFingerprint.of(version != null ? data.get(DISTANCES) : data);
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry != null && entry.matches(version, hash)) {
+            hits.incrementAndGet();
+            return body(key, entry, gzip);
+        }
+
+        misses.incrementAndGet();
+        long serializeStart = RequestTimings.start();
+        Entry fresh = new Entry(version, hash, serializer.apply(data));
+        RequestTimings.record(RequestTimings.SERIALIZE, serializeStart);
+        if (heavyHitters != null && heavyHitters.frequency(HeavyHitters.detailsKey(lat, lon, units)) < minFrequency) {
+            return gzip && fresh.identity.length >= MIN_GZIP_BYTES ? new Body(compress(fresh.identity), true) : new Body(fresh.identity, false);
+        }
+        synchronized (this) {
+            Entry previous = entries.put(key, fresh);
+            if (previous != null) {
+                bytes -= previous.size();
+            }
+            bytes += fresh.size();
+            evict();
+        }
+        return body(key, fresh, gzip);
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private Body body(String key, Entry entry, boolean gzip) {
+        if (!gzip || entry.identity.length < MIN_GZIP_BYTES) {
+            return new Body(entry.identity, false);
+        }
+        byte[] compressed;
+        synchronized (this) {
+            compressed = entry.gzip;
+        }
+        if (compressed == null) {
+            long serializeStart = RequestTimings.start();
+            compressed = compress(entry.identity);
+            RequestTimings.record(RequestTimings.SERIALIZE, serializeStart);
+            synchronized (this) {
+                if (entry.gzip == null && entries.get(key) == entry) {
+                    entry.gzip = compressed;
+                    bytes += compressed.length;
+                    evict();
+                }
+            }
+        }
+        return new Body(compressed, true);
+    }
+
+    private void evict() {
+        Iterator<Entry> oldest = entries.values().iterator();
+        while (bytes > maxBytes && oldest.hasNext()) {
+            bytes -= oldest.next().size();
+            oldest.remove();
+        }
+    }
+
+    static byte[] compress(byte[] identity) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(identity.length / 3 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(identity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
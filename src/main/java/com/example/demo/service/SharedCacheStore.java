@@ -0,0 +1,31 @@
+package com.example.demo.service;
+
+/**
+ * Speicher für den instanzübergreifenden Cache ({@link SharedWeatherCache}).
+ * Neben den Einträgen verwaltet er zeitlich begrenzte Leases, damit im Cluster pro Schlüssel
+ * nur eine Instanz bei Xweather nachlädt.
+ */
+public interface SharedCacheStore {
+
+    /**
+     * Gespeicherter Eintrag als JSON, {@code null} wenn nicht vorhanden oder abgelaufen.
+     */
+    String get(String key, long now);
+
+    void put(String key, String json, long expiresAt);
+
+    void remove(String key);
+
+    /**
+     * Versucht, das Nachladen für den Schlüssel zu übernehmen. Gelingt, wenn kein
+     * anderer Besitzer eine noch gültige Lease hält.
+     */
+    boolean tryLease(String key, String owner, long now, long leaseUntil);
+
+    void releaseLease(String key, String owner);
+
+    /**
+     * Entfernt abgelaufene Einträge und Leases.
+     */
+    void purgeExpired(long now);
+}
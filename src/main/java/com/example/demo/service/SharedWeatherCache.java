@@ -0,0 +1,229 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Zweite Cache-Ebene hinter dem {@link NearbyWeatherCache}, gemeinsam für alle Instanzen.
+ * Einträge werden pro Abschnitt in Rasterzellen abgelegt, deren Diagonale dem Radius des Abschnitts
+ * entspricht; TTL und Radius stammen aus {@code weather.cache.<abschnitt>.*}.
+ * Fehlt ein Eintrag, lädt im Cluster nur die Instanz mit der Lease nach; die anderen warten bis
+ * {@code weather.shared-cache.wait-ms} auf deren Ergebnis und laden erst danach selbst. Dabei wird die Datenbank
+ * zunächst alle {@code poll-ms}, mit jeder Runde halb so oft bis höchstens alle {@code max-poll-ms} abgefragt.
+ * Ersetzt ein {@link #put} einen noch gültigen Eintrag (z. B. bei der Hintergrundaktualisierung), verwerfen die
+ * anderen Instanzen ihre lokalen Einträge für diese Zelle.
+ * Ist die Datenbank nicht erreichbar, verhält sich die Anwendung wie ohne diese Ebene.
+ */
+@Component
+@ConditionalOnProperty(name = "weather.shared-cache.enabled", havingValue = "true")
+public class SharedWeatherCache {
+
+    public static final String TOPIC = "weather";
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedWeatherCache.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int PURGE_EVERY_PUTS = 1000;
+
+    private final SharedCacheStore store;
+    private final CacheInvalidationBus bus;
+    private final NearbyWeatherCache localCache;
+    private final Clock clock;
+    private final String nodeId;
+    private final long leaseMillis;
+    private final long waitMillis;
+    private final long pollMillis;
+    private final long maxPollMillis;
+    private final Map<WeatherSection, Double> radiusKm = new EnumMap<>(WeatherSection.class);
+    private final Map<WeatherSection, Long> ttlMillis = new EnumMap<>(WeatherSection.class);
+    private final AtomicLong puts = new AtomicLong();
+
+    @Autowired
+    public SharedWeatherCache(SharedCacheStore store, Environment environment,
+                              Optional<CacheInvalidationBus> bus, Optional<NearbyWeatherCache> localCache) {
+        this(store, environment, bus.orElse(null), localCache.orElse(null), Clock.systemUTC(), UUID.randomUUID().toString());
+    }
+
+    SharedWeatherCache(SharedCacheStore store, Environment environment, CacheInvalidationBus bus,
+                       NearbyWeatherCache localCache, Clock clock, String nodeId) {
+        this.store = store;
+        this.bus = bus;
+        this.localCache = localCache;
+        this.clock = clock;
+        this.nodeId = nodeId;
+        this.leaseMillis = environment.getProperty("weather.shared-cache.lease-ms", Long.class, 5000L);
+        this.waitMillis = environment.getProperty("weather.shared-cache.wait-ms", Long.class, 3000L);
+        this.pollMillis = environment.getProperty("weather.shared-cache.poll-ms", Long.class, 50L);
+        this.maxPollMillis = Math.max(pollMillis, environment.getProperty("weather.shared-cache.max-poll-ms", Long.class, 400L));
+        for (WeatherSection section : WeatherSection.values()) {
+            String prefix = "weather.cache." + section.getKey();
+            radiusKm.put(section, environment.getProperty(prefix + ".radius-km", Double.class, NearbyWeatherCache.defaultRadiusKm(section)));
+            ttlMillis.put(section, environment.getProperty(prefix + ".ttl-seconds", Long.class, NearbyWeatherCache.defaultTtlSeconds(section)) * 1000);
+        }
+        if (bus != null) {
+            bus.subscribe(TOPIC, this::onInvalidation);
+        }
+    }
+
+    /**
+     * Sucht die Abschnitte in der gemeinsamen Ebene. Fehlende Abschnitte, für die eine andere Instanz
+     * gerade nachlädt, werden abgewartet. Abschnitte, die nicht im Ergebnis stehen, muss der Aufrufer
+     * selbst laden und anschließend mit {@link #put} oder {@link #release} abschließen.
+     */
+    public Map<WeatherSection, NearbyWeatherCache.Hit> resolve(List<WeatherSection> sections, double lat, double lon, String units) {
+        Map<WeatherSection, NearbyWeatherCache.Hit> hits = new EnumMap<>(WeatherSection.class);
+        List<WeatherSection> waiting = new ArrayList<>();
+        try {
+            for (WeatherSection section : sections) {
+                NearbyWeatherCache.Hit hit = lookup(section, lat, lon, units);
+                if (hit != null) {
+                    hits.put(section, hit);
+                } else if (!tryLease(section, lat, lon, units)) {
+                    waiting.add(section);
+                }
+            }
+
+            long deadline = clock.millis() + waitMillis;
+            long delay = pollMillis;
+            while (!waiting.isEmpty() && clock.millis() < deadline) {
+                Thread.sleep(Math.max(1, Math.min(delay, deadline - clock.millis())));
+                delay = Math.min(delay * 2, maxPollMillis);
+                for (Iterator<WeatherSection> it = waiting.iterator(); it.hasNext(); ) {
+                    WeatherSection section = it.next();
+                    NearbyWeatherCache.Hit hit = lookup(section, lat, lon, units);
+                    if (hit != null) {
+                        hits.put(section, hit);
+                        it.remove();
+                    } else if (tryLease(section, lat, lon, units)) {
+                        // Die andere Instanz hat aufgegeben oder ihre Lease ist abgelaufen
+                        it.remove();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.warn("Gemeinsamer Cache nicht verfügbar: {}", e.getMessage());
+        }
+        return hits;
+    }
+
+    public NearbyWeatherCache.Hit lookup(WeatherSection section, double lat, double lon, String units) {
+        String json = store.get(key(section, lat, lon, units), clock.millis());
+        if (json == null) return null;
+        try {
+            JsonNode node = MAPPER.readTree(json);
+            double entryLat = node.get("lat").asDouble();
+            double entryLon = node.get("lon").asDouble();
+            Object value = MAPPER.treeToValue(node.get("value"), Object.class);
+            double distance = GeoMath.distanceKm(lat, lon, entryLat, entryLon);
+            long expiresAt = node.path("expiresAt").asLong(Long.MAX_VALUE);
+            return new NearbyWeatherCache.Hit(value, entryLat, entryLon, Math.round(distance * 100) / 100.0, expiresAt);
+        } catch (Exception e) {
+            logger.warn("Ungültiger Eintrag im gemeinsamen Cache: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Legt einen frisch geladenen Abschnitt ab und gibt die Lease frei. War für die Zelle noch ein gültiger
+     * Eintrag vorhanden, verwerfen die anderen Instanzen ihre lokalen Einträge dazu.
+     */
+    public void put(WeatherSection section, double lat, double lon, String units, Object value) {
+        String key = key(section, lat, lon, units);
+        try {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("lat", lat);
+            entry.put("lon", lon);
+            entry.put("value", value);
+            long now = clock.millis();
+            long expiresAt = now + ttlMillis.get(section);
+            // Auch im Payload, damit lokale Kopien nicht länger gelten als der gemeinsame Eintrag
+            entry.put("expiresAt", expiresAt);
+            boolean replaced = store.get(key, now) != null;
+            store.put(key, MAPPER.writeValueAsString(entry), expiresAt);
+            store.releaseLease(key, nodeId);
+            if (replaced && bus != null) {
+                // Mit Absender, die eigene Instanz hat den neuen Wert bereits lokal
+                bus.publish(TOPIC, key + "|" + nodeId);
+            }
+            if (puts.incrementAndGet() % PURGE_EVERY_PUTS == 0) {
+                store.purgeExpired(clock.millis());
+            }
+        } catch (Exception e) {
+            logger.warn("Fehler beim Schreiben in den gemeinsamen Cache: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Gibt die Lease frei, wenn das Nachladen fehlgeschlagen ist, damit andere Instanzen nicht bis zum Ablauf warten.
+     */
+    public void release(WeatherSection section, double lat, double lon, String units) {
+        try {
+            store.releaseLease(key(section, lat, lon, units), nodeId);
+        } catch (RuntimeException e) {
+            logger.warn("Fehler beim Freigeben der Lease: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Entfernt den Eintrag aus der gemeinsamen Ebene und aus den lokalen Caches aller Instanzen.
+     */
+    public void invalidate(WeatherSection section, double lat, double lon, String units) {
+        String key = key(section, lat, lon, units);
+        store.remove(key);
+        if (bus != null) {
+            bus.publish(TOPIC, key);
+        } else {
+            onInvalidation(key);
+        }
+    }
+
+    String key(WeatherSection section, double lat, double lon, String units) {
+        double cellSize = cellSizeDeg(section);
+        return section.getKey() + "|" + units + "|" + GeoMath.cellIndex(lat, cellSize) + "|" + GeoMath.cellIndex(lon, cellSize);
+    }
+
+    private boolean tryLease(WeatherSection section, double lat, double lon, String units) {
+        long now = clock.millis();
+        return store.tryLease(key(section, lat, lon, units), nodeId, now, now + leaseMillis);
+    }
+
+    /**
+     * Entfernt lokale Einträge, die Anfragen aus der invalidierten Zelle bedienen könnten:
+     * alles im Umkreis von halber Zelldiagonale plus Radius um den Zellmittelpunkt.
+     */
+    private void onInvalidation(String key) {
+        if (localCache == null) return;
+        String[] parts = key.split("\\|");
+        if (parts.length == 5 && parts[4].equals(nodeId)) return;
+        WeatherSection section = Arrays.stream(WeatherSection.values())
+                .filter(candidate -> candidate.getKey().equals(parts[0]))
+                .findFirst().orElse(null);
+        if (section == null || parts.length < 4) return;
+
+        double cellSize = cellSizeDeg(section);
+        double centerLat = (Long.parseLong(parts[2]) + 0.5) * cellSize;
+        double centerLon = (Long.parseLong(parts[3]) + 0.5) * cellSize;
+        double reach = radiusKm.get(section) / 2 + radiusKm.get(section);
+        int removed = localCache.invalidate(section, centerLat, centerLon, reach);
+        logger.debug("Invalidierung {}: {} lokale Einträge entfernt", key, removed);
+    }
+
+    /**
+     * Zellgröße, deren Diagonale (in Breitenrichtung gerechnet) dem Radius entspricht; in höheren
+     * Breiten sind die Zellen in Ost-West-Richtung schmaler, also eher zu streng als zu großzügig.
+     */
+    private double cellSizeDeg(WeatherSection section) {
+        return Math.max(radiusKm.get(section), 0.1) / Math.sqrt(2) / GeoMath.KM_PER_DEGREE_LAT;
+    }
+}
@@ -6,8 +6,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import java.util.*;
 
 @Service
@@ -16,6 +19,30 @@ public class WeatherDetailService {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired(required = false)
+    private XweatherReactiveClient reactiveClient;
+
+    @Autowired(required = false)
+    private NearbyWeatherCache cache;
+
+    @Autowired(required = false)
+    private SharedWeatherCache sharedCache;
+
+    @Autowired(required = false)
+    private ObservationHistoryStore history;
+
+    @Autowired(required = false)
+    private RequestHedger hedger;
+
+    @Autowired(required = false)
+    private RegionAlertCache regionAlerts;
+
+    @Autowired(required = false)
+    private WeatherTileCache tiles;
+
+    @Autowired(required = false)
+    private HeavyHitters heavyHitters;
+
     @Value("${XWEATHER_CLIENT_ID}")
     private String clientId;
 
@@ -25,94 +52,352 @@ public class WeatherDetailService {
     @Value("${XWEATHER_BASE_URL}")
     private String baseUrl;
 
+    @Value("${xweather.fields.enabled:true}")
+    private boolean requestFields = true;
+
     private static final Logger logger = LoggerFactory.getLogger(WeatherDetailService.class);
 
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Map<WeatherSection, String> UPSTREAM_PHASES = new EnumMap<>(WeatherSection.class);
+
+    private static final String UPSTREAM_BATCH = RequestTimings.upstream("batch");
+
+    /**
+     * Felder, die {@link #parseHourlySeries} liest.
+     */
+    private static final List<String> HOURLY_SERIES_FIELDS = List.of("periods.timestamp",
+            "periods.avgTempC", "periods.avgTempF", "periods.feelslikeC", "periods.feelslikeF",
+            "periods.windSpeedKPH", "periods.windSpeedMPH", "periods.humidity", "periods.pop", "periods.icon");
+
+    /**
+     * Felder, die {@link WeatherTileCache#parseSample} aus den Teilantworten von {@code /batch} liest;
+     * Xweather wendet Parameter der Batch-Anfrage auf jede Teilanfrage an.
+     */
+    private static final List<String> BATCH_FIELDS = Arrays.stream(ObservationMetric.values())
+            .map(ObservationMetric::getFieldPath)
+            .toList();
+
+    static {
+        for (WeatherSection section : WeatherSection.values()) {
+            UPSTREAM_PHASES.put(section, RequestTimings.upstream(section.getKey()));
+        }
+    }
+
     public Map<String, Object> fetchAllWeatherData(double lat, double lon, String units) {
+        if (heavyHitters != null) {
+            heavyHitters.record(HeavyHitters.detailsKey(lat, lon, units));
+        }
         Map<String, Object> result = new HashMap<>();
+        Map<String, Double> distances = new HashMap<>();
+        List<WeatherSection> missing = new ArrayList<>();
+
+        List<Map<String, Object>> regionalAlerts = regionAlerts != null
+                ? regionAlerts.lookup(lat, lon, this::fetchAlertRegion)
+                : null;
+
+        long cacheStart = RequestTimings.start();
+        for (WeatherSection section : WeatherSection.values()) {
+            if (section == WeatherSection.ALERTS && regionalAlerts != null) {
+                result.put(section.getKey(), regionalAlerts);
+                distances.put(section.getKey(), 0.0);
+                continue;
+            }
+            NearbyWeatherCache.Hit hit = cache != null ? cache.lookup(section, lat, lon, units) : null;
+            if (hit != null) {
+                result.put(section.getKey(), hit.value());
+                distances.put(section.getKey(), hit.distanceKm());
+            } else {
+                missing.add(section);
+            }
+        }
+        RequestTimings.record(RequestTimings.CACHE, cacheStart);
+
+        if (sharedCache != null && !missing.isEmpty()) {
+            long sharedStart = RequestTimings.start();
+            Map<WeatherSection, NearbyWeatherCache.Hit> shared = sharedCache.resolve(missing, lat, lon, units);
+            RequestTimings.record(RequestTimings.SHARED_CACHE, sharedStart);
+            shared.forEach((section, hit) -> {
+                if (cache != null) {
+                    cache.put(section, hit.lat(), hit.lon(), units, hit.value(), hit.expiresAt());
+                }
+                result.put(section.getKey(), hit.value());
+                distances.put(section.getKey(), hit.distanceKm());
+            });
+            missing.removeAll(shared.keySet());
+        }
 
-        result.put("current", fetchConditions(lat, lon, units));
-        result.put("forecast", fetchForecasts(lat, lon, units));
-        result.put("hourly", fetchHourlyForecasts(lat, lon, units));
-        result.put("airQuality", fetchAirQuality(lat, lon));
-        result.put("alerts", fetchAlerts(lat, lon));
+        Map<WeatherSection, Object> fetched = fetchSections(missing, lat, lon, units);
+        for (WeatherSection section : missing) {
+            Object value = fetched.get(section);
+            if (value != null && cache != null) {
+                cache.put(section, lat, lon, units, value);
+            }
+            if (sharedCache != null) {
+                long sharedStart = RequestTimings.start();
+                if (value != null) {
+                    sharedCache.put(section, lat, lon, units, value);
+                } else {
+                    sharedCache.release(section, lat, lon, units);
+                }
+                RequestTimings.record(RequestTimings.SHARED_CACHE, sharedStart);
+            }
+            result.put(section.getKey(), value != null ? value : section.emptyValue());
+            distances.put(section.getKey(), 0.0);
+        }
 
+        result.put("distanceKm", distances);
         return result;
     }
 
-    private Map<String, Object> fetchConditions(double lat, double lon, String units) {
-        String url = String.format("%s/conditions/%s,%s?units=%s&client_id=%s&client_secret=%s",
-                baseUrl, lat, lon, units, clientId, clientSecret);
+    /**
+     * Lädt alle Abschnitte unabhängig vom Cache neu und legt sie im lokalen und gemeinsamen Cache ab.
+     * Für die Hintergrundaktualisierung; fehlgeschlagene Abschnitte bleiben, wie sie sind.
+     * @return Anzahl neu geladener Abschnitte
+     */
+    public int refresh(double lat, double lon, String units) {
+        List<WeatherSection> sections = new ArrayList<>(List.of(WeatherSection.values()));
+        if (regionAlerts != null) {
+            sections.remove(WeatherSection.ALERTS);
+        }
+        Map<WeatherSection, Object> fetched = fetchSections(sections, lat, lon, units);
+        fetched.forEach((section, value) -> {
+            if (cache != null) {
+                cache.put(section, lat, lon, units, value);
+            }
+            if (sharedCache != null) {
+                sharedCache.put(section, lat, lon, units, value);
+            }
+        });
+        return fetched.size();
+    }
+
+    /**
+     * Stündliche Vorhersage über einen langen Zeitraum (bis 240 Stunden) in Spaltenform.
+     * Eine zwischengespeicherte, mindestens gleich lange Reihe in der Nähe wird gekürzt wiederverwendet.
+     */
+    public ForecastSeries fetchHourlySeries(double lat, double lon, String units, int hours) {
+        NearbyWeatherCache.Hit hit = cache != null ? cache.lookup(NearbyWeatherCache.HOURLY_SERIES, lat, lon, units) : null;
+        if (hit != null && ((ForecastSeries) hit.value()).getLength() >= hours) {
+            return ((ForecastSeries) hit.value()).head(hours);
+        }
+
+        String url = String.format("%s/forecasts/%s,%s?filter=1hr&limit=%d&units=%s&client_id=%s&client_secret=%s",
+                baseUrl, lat, lon, hours, units, clientId, clientSecret) + fieldsParam(HOURLY_SERIES_FIELDS);
 
         try {
-            String response = restTemplate.getForObject(url, String.class);
-            return parseConditions(response, units);
+            long upstreamStart = RequestTimings.start();
+            JsonNode root = reactiveClient != null
+                    ? reactiveClient.get(url).block()
+                    : readTree(restTemplate.getForObject(url, String.class));
+            RequestTimings.record(UPSTREAM_PHASES.get(WeatherSection.HOURLY), upstreamStart);
+            if (!isSuccessful(root)) {
+                return ForecastSeries.empty(units);
+            }
+            long parseStart = RequestTimings.start();
+            ForecastSeries series = parseHourlySeries(root, units, hours);
+            RequestTimings.record(RequestTimings.PARSE, parseStart);
+            if (cache != null) {
+                cache.put(NearbyWeatherCache.HOURLY_SERIES, lat, lon, units, series);
+            }
+            return series;
         } catch (Exception e) {
-            logger.error("Fehler beim Abrufen der Conditions für {}, {}: {}", lat, lon, e.getMessage());
-            return new HashMap<>();
+            logger.error("Fehler beim Abrufen der Stundenreihe für {}, {}: {}", lat, lon, e.getMessage());
+            return ForecastSeries.empty(units);
         }
     }
 
-    private List<Map<String, Object>> fetchForecasts(double lat, double lon, String units) {
-        String url = String.format("%s/forecasts/%s,%s?filter=day&limit=5&units=%s&client_id=%s&client_secret=%s",
-                baseUrl, lat, lon, units, clientId, clientSecret);
+    /**
+     * Kartenkachel einer Messgröße aus dem {@link WeatherTileCache}; fehlende Stützpunkte werden gebündelt abgefragt.
+     * @return {@code null}, wenn Kartenkacheln deaktiviert sind
+     */
+    public WeatherTileCache.Tile fetchTile(ObservationMetric metric, int z, int x, int y, String units) {
+        return tiles != null ? tiles.tile(metric, z, x, y, units, this::fetchBatch) : null;
+    }
 
+    /**
+     * Ruft mehrere Teilanfragen (z. B. {@code /conditions/52.5,13.4}) in einem {@code /batch}-Aufruf ab.
+     */
+    private JsonNode fetchBatch(List<String> requests) {
+        String url = String.format("%s/batch?requests=%s&client_id=%s&client_secret=%s",
+                baseUrl, String.join(",", requests), clientId, clientSecret) + fieldsParam(BATCH_FIELDS);
+        long upstreamStart = RequestTimings.start();
         try {
-            String response = restTemplate.getForObject(url, String.class);
-            return parseForecasts(response, units);
-        } catch (Exception e) {
-            logger.error("Fehler beim Abrufen der Forecasts für {}, {}: {}", lat, lon, e.getMessage());
-            return new ArrayList<>();
+            return reactiveClient != null
+                    ? reactiveClient.get(url).block()
+                    : readTree(restTemplate.getForObject(url, String.class));
+        } catch (JsonProcessingException e) {
+            logger.error("Fehler beim Parsen der Batch-Antwort für {} Anfragen: {}", requests.size(), e.getMessage());
+            return null;
+        } finally {
+            RequestTimings.record(UPSTREAM_BATCH, upstreamStart);
         }
     }
 
-    private List<Map<String, Object>> fetchHourlyForecasts(double lat, double lon, String units) {
-        String url = String.format("%s/forecasts/%s,%s?filter=1hr&limit=6&units=%s&client_id=%s&client_secret=%s",
-                baseUrl, lat, lon, units, clientId, clientSecret);
-
+    /**
+     * Lädt alle Warnungen einer Kachel samt Polygonen für den {@link RegionAlertCache}.
+     */
+    private JsonNode fetchAlertRegion(RegionAlertCache.Region region) {
+        String url = String.format("%s/alerts/within?p=%s,%s,%s,%s&filter=geo&limit=%d&client_id=%s&client_secret=%s",
+                baseUrl, region.south(), region.west(), region.north(), region.east(), regionAlerts.getLimit(), clientId, clientSecret);
+        long upstreamStart = RequestTimings.start();
         try {
-            String response = restTemplate.getForObject(url, String.class);
-            return parseHourlyForecasts(response, units);
-        } catch (Exception e) {
-            logger.error("Fehler beim Abrufen der Hourly-Forecasts für {}, {}: {}", lat, lon, e.getMessage());
-            return new ArrayList<>();
+            return reactiveClient != null
+                    ? reactiveClient.get(url).block()
+                    : readTree(restTemplate.getForObject(url, String.class));
+        } catch (JsonProcessingException e) {
+            logger.error("Fehler beim Parsen der Warnungen für Region {}: {}", region, e.getMessage());
+            return null;
+        } finally {
+            RequestTimings.record(UPSTREAM_PHASES.get(WeatherSection.ALERTS), upstreamStart);
         }
     }
 
-    private Map<String, Object> fetchAirQuality(double lat, double lon) {
-        String url = String.format("%s/airquality/%s,%s?client_id=%s&client_secret=%s",
-                baseUrl, lat, lon, clientId, clientSecret);
+    /**
+     * Ruft die angegebenen Abschnitte bei Xweather ab.
+     * Fehlgeschlagene Abschnitte fehlen im Ergebnis, damit sie nicht zwischengespeichert werden.
+     */
+    private Map<WeatherSection, Object> fetchSections(List<WeatherSection> sections, double lat, double lon, String units) {
+        if (sections.isEmpty()) {
+            return new EnumMap<>(WeatherSection.class);
+        }
+        return reactiveClient != null
+                ? fetchSectionsReactive(sections, lat, lon, units)
+                : fetchSectionsBlocking(sections, lat, lon, units);
+    }
 
-        try {
-            String response = restTemplate.getForObject(url, String.class);
-            return parseAirQuality(response);
-        } catch (Exception e) {
-            logger.error("Fehler beim Abrufen der AirQuality für {}, {}: {}", lat, lon, e.getMessage());
-            return new HashMap<>();
+    private Map<WeatherSection, Object> fetchSectionsBlocking(List<WeatherSection> sections, double lat, double lon, String units) {
+        Map<WeatherSection, Object> fetched = new EnumMap<>(WeatherSection.class);
+        for (WeatherSection section : sections) {
+            Object value = fetchSection(section, lat, lon, units);
+            if (value != null) {
+                fetched.put(section, value);
+            }
         }
+        return fetched;
     }
 
-    private List<Map<String, Object>> fetchAlerts(double lat, double lon) {
-        String url = String.format("%s/alerts/%s,%s?client_id=%s&client_secret=%s",
-                baseUrl, lat, lon, clientId, clientSecret);
+    private Object fetchSection(WeatherSection section, double lat, double lon, String units) {
+        String url = buildUrl(section, lat, lon, units);
 
         try {
-            String response = restTemplate.getForObject(url, String.class);
-            return parseAlerts(response);
+            long upstreamStart = RequestTimings.start();
+            String response = hedger != null
+                    ? hedger.call(section.getKey(), () -> restTemplate.getForObject(url, String.class))
+                    : restTemplate.getForObject(url, String.class);
+            RequestTimings.record(UPSTREAM_PHASES.get(section), upstreamStart);
+            long parseStart = RequestTimings.start();
+            JsonNode root = readTree(response);
+            Object value = isSuccessful(root) ? parseAndRecord(section, root, lat, lon, units) : null;
+            RequestTimings.record(RequestTimings.PARSE, parseStart);
+            return value;
         } catch (Exception e) {
-            logger.error("Fehler beim Abrufen der Alerts für {}, {}: {}", lat, lon, e.getMessage());
-            return new ArrayList<>();
+            logger.error("Fehler beim Abrufen der {} für {}, {}: {}", section.getLabel(), lat, lon, e.getMessage());
+            return null;
         }
     }
 
-    private Map<String, Object> parseConditions(String jsonResponse, String units) {
-        Map<String, Object> conditions = new HashMap<>();
-        try {
-            if (jsonResponse == null || jsonResponse.isBlank()) return conditions;
+    /**
+     * Ruft alle Abschnitte parallel über den nicht-blockierenden Client ab.
+     * Die Anzahl gleichzeitiger Aufrufe ist begrenzt, sodass ein voller Verbindungspool
+     * Rückstau erzeugt statt neue Anfragen anzunehmen. Die Zeitmessung läuft auf den Reactor-Threads,
+     * daher wird die Instanz der Anfrage vorher abgeholt.
+     */
+    private Map<WeatherSection, Object> fetchSectionsReactive(List<WeatherSection> sections, double lat, double lon, String units) {
+        RequestTimings timings = RequestTimings.current();
+        Map<WeatherSection, Object> fetched = Flux.fromIterable(sections)
+                .flatMap(section -> timed(timings, UPSTREAM_PHASES.get(section), fetchReactive(section, buildUrl(section, lat, lon, units)))
+                                .filter(this::isSuccessful)
+                                .map(root -> {
+                                    long parseStart = System.nanoTime();
+                                    Object value = parseAndRecord(section, root, lat, lon, units);
+                                    if (timings != null) {
+                                        timings.add(RequestTimings.PARSE, System.nanoTime() - parseStart);
+                                    }
+                                    return Map.entry(section, value);
+                                })
+                                .onErrorResume(e -> {
+                                    logger.error("Fehler beim Abrufen der {} für {}, {}: {}", section.getLabel(), lat, lon, e.getMessage());
+                                    return Mono.empty();
+                                }),
+                        reactiveClient.getMaxConcurrency())
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .block();
+        return fetched != null ? fetched : new EnumMap<>(WeatherSection.class);
+    }
+
+    private Mono<JsonNode> fetchReactive(WeatherSection section, String url) {
+        return hedger != null
+                ? hedger.hedge(section.getKey(), () -> reactiveClient.get(url))
+                : reactiveClient.get(url);
+    }
+
+    private static <T> Mono<T> timed(RequestTimings timings, String phase, Mono<T> call) {
+        if (timings == null) {
+            return call;
+        }
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.doFinally(signal -> timings.add(phase, System.nanoTime() - start));
+        });
+    }
+
+    private String buildUrl(WeatherSection section, double lat, double lon, String units) {
+        String url = switch (section) {
+            case CONDITIONS -> String.format("%s/conditions/%s,%s?units=%s&client_id=%s&client_secret=%s",
+                    baseUrl, lat, lon, units, clientId, clientSecret);
+            case FORECAST -> String.format("%s/forecasts/%s,%s?filter=day&limit=5&units=%s&client_id=%s&client_secret=%s",
+                    baseUrl, lat, lon, units, clientId, clientSecret);
+            case HOURLY -> String.format("%s/forecasts/%s,%s?filter=1hr&limit=6&units=%s&client_id=%s&client_secret=%s",
+                    baseUrl, lat, lon, units, clientId, clientSecret);
+            case AIR_QUALITY -> String.format("%s/airquality/%s,%s?client_id=%s&client_secret=%s",
+                    baseUrl, lat, lon, clientId, clientSecret);
+            case ALERTS -> String.format("%s/alerts/%s,%s?client_id=%s&client_secret=%s",
+                    baseUrl, lat, lon, clientId, clientSecret);
+        };
+        return url + fieldsParam(section.getFields());
+    }
+
+    /**
+     * Beschränkt die Xweather-Antwort auf die gelesenen Felder ({@code xweather.fields.enabled}).
+     */
+    private String fieldsParam(List<String> fields) {
+        return requestFields ? "&fields=" + String.join(",", fields) : "";
+    }
+
+    /**
+     * Parst einen frisch abgerufenen Abschnitt und übernimmt Conditions und AirQuality in die Historie.
+     */
+    private Object parseAndRecord(WeatherSection section, JsonNode root, double lat, double lon, String units) {
+        if (history != null) {
+            history.record(section, lat, lon, root);
+        }
+        return parseSection(section, root, units);
+    }
+
+    private Object parseSection(WeatherSection section, JsonNode root, String units) {
+        return switch (section) {
+            case CONDITIONS -> parseConditions(root, units);
+            case FORECAST -> parseForecasts(root, units);
+            case HOURLY -> parseHourlyForecasts(root, units);
+            case AIR_QUALITY -> parseAirQuality(root);
+            case ALERTS -> parseAlerts(root);
+        };
+    }
+
+    private boolean isSuccessful(JsonNode root) {
+        return root != null && root.has("success") && root.get("success").asBoolean();
+    }
 
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode root = mapper.readTree(jsonResponse);
+    private JsonNode readTree(String jsonResponse) throws JsonProcessingException {
+        if (jsonResponse == null || jsonResponse.isBlank()) return null;
+        return MAPPER.readTree(jsonResponse);
+    }
 
-            if (!root.has("success") || !root.get("success").asBoolean()) return conditions;
+    private Map<String, Object> parseConditions(JsonNode root, String units) {
+        Map<String, Object> conditions = new HashMap<>();
+        try {
+            if (root == null || !root.has("success") || !root.get("success").asBoolean()) return conditions;
 
             if (root.has("response") && root.get("response").isArray() && root.get("response").size() > 0) {
                 JsonNode responseNode = root.get("response").get(0);
@@ -150,15 +435,10 @@ public class WeatherDetailService {
         return conditions;
     }
 
-    private List<Map<String, Object>> parseForecasts(String jsonResponse, String units) {
+    private List<Map<String, Object>> parseForecasts(JsonNode root, String units) {
         List<Map<String, Object>> forecasts = new ArrayList<>();
         try {
-            if (jsonResponse == null || jsonResponse.isBlank()) return forecasts;
-
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode root = mapper.readTree(jsonResponse);
-
-            if (!root.has("success") || !root.get("success").asBoolean()) return forecasts;
+            if (root == null || !root.has("success") || !root.get("success").asBoolean()) return forecasts;
 
             if (root.has("response") && root.get("response").isArray()) {
                 JsonNode responseArray = root.get("response");
@@ -190,15 +470,10 @@ public class WeatherDetailService {
         return forecasts;
     }
 
-    private List<Map<String, Object>> parseHourlyForecasts(String jsonResponse, String units) {
+    private List<Map<String, Object>> parseHourlyForecasts(JsonNode root, String units) {
         List<Map<String, Object>> hourlyForecasts = new ArrayList<>();
         try {
-            if (jsonResponse == null || jsonResponse.isBlank()) return hourlyForecasts;
-
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode root = mapper.readTree(jsonResponse);
-
-            if (!root.has("success") || !root.get("success").asBoolean()) return hourlyForecasts;
+            if (root == null || !root.has("success") || !root.get("success").asBoolean()) return hourlyForecasts;
 
             if (root.has("response") && root.get("response").isArray()) {
                 JsonNode responseArray = root.get("response");
@@ -226,15 +501,37 @@ public class WeatherDetailService {
         return hourlyForecasts;
     }
 
-    private Map<String, Object> parseAirQuality(String jsonResponse) {
-        Map<String, Object> airQuality = new HashMap<>();
-        try {
-            if (jsonResponse == null || jsonResponse.isBlank()) return airQuality;
+    private ForecastSeries parseHourlySeries(JsonNode root, String units, int hours) {
+        ForecastSeries.Builder series = new ForecastSeries.Builder(units, hours);
+        boolean isImperial = "e".equalsIgnoreCase(units);
+
+        if (root.has("response") && root.get("response").isArray()) {
+            for (JsonNode item : root.get("response")) {
+                if (item.has("periods") && item.get("periods").isArray()) {
+                    for (JsonNode period : item.get("periods")) {
+                        series.add(period.path("timestamp").asLong(),
+                                column(period, isImperial, "avgTempF", "avgTempC"),
+                                column(period, isImperial, "feelslikeF", "feelslikeC"),
+                                column(period, isImperial, "windSpeedMPH", "windSpeedKPH"),
+                                column(period, false, "humidity", "humidity"),
+                                column(period, false, "pop", "pop"),
+                                period.has("icon") ? period.get("icon").asText() : null);
+                    }
+                }
+            }
+        }
+        return series.build();
+    }
 
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode root = mapper.readTree(jsonResponse);
+    private float column(JsonNode period, boolean isImperial, String imperialField, String metricField) {
+        if (isImperial && period.hasNonNull(imperialField)) return (float) period.get(imperialField).asDouble();
+        return period.hasNonNull(metricField) ? (float) period.get(metricField).asDouble() : Float.NaN;
+    }
 
-            if (!root.has("success") || !root.get("success").asBoolean()) return airQuality;
+    private Map<String, Object> parseAirQuality(JsonNode root) {
+        Map<String, Object> airQuality = new HashMap<>();
+        try {
+            if (root == null || !root.has("success") || !root.get("success").asBoolean()) return airQuality;
 
             if (root.has("response") && root.get("response").isArray() && root.get("response").size() > 0) {
                 JsonNode periods = root.get("response").get(0).get("periods");
@@ -266,26 +563,16 @@ public class WeatherDetailService {
         return airQuality;
     }
 
-    private List<Map<String, Object>> parseAlerts(String jsonResponse) {
+    private List<Map<String, Object>> parseAlerts(JsonNode root) {
         List<Map<String, Object>> alerts = new ArrayList<>();
         try {
-            if (jsonResponse == null || jsonResponse.isBlank()) return alerts;
-
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode root = mapper.readTree(jsonResponse);
-
-            if (!root.has("success") || !root.get("success").asBoolean()) return alerts;
+            if (root == null || !root.has("success") || !root.get("success").asBoolean()) return alerts;
 
             if (root.has("response") && root.get("response").isArray()) {
                 JsonNode responseArray = root.get("response");
                 for (JsonNode item : responseArray) {
                     if (item.has("details")) {
-                        JsonNode details = item.get("details");
-                        Map<String, Object> alert = new HashMap<>();
-                        alert.put("type", details.has("type") ? details.get("type").asText() : null);
-                        alert.put("message", details.has("body") ? details.get("body").asText() : null);
-                        alert.put("severity", details.has("priority") ? details.get("priority").asText() : null);
-                        alerts.add(alert);
+                        alerts.add(parseAlert(item.get("details")));
                     }
                 }
             }
@@ -294,4 +581,12 @@ public class WeatherDetailService {
         }
         return alerts;
     }
+
+    static Map<String, Object> parseAlert(JsonNode details) {
+        Map<String, Object> alert = new HashMap<>();
+        alert.put("type", details.has("type") ? details.get("type").asText() : null);
+        alert.put("message", details.has("body") ? details.get("body").asText() : null);
+        alert.put("severity", details.has("priority") ? details.get("priority").asText() : null);
+        return alert;
+    }
 }
\ No newline at end of file
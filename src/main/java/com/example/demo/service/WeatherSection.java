@@ -0,0 +1,60 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Die Abschnitte einer /details-Antwort.
+ * Jeder Abschnitt entspricht genau einem Xweather-Aufruf und einem Schlüssel im Ergebnis.
+ * Die Felder sind genau die, die der Parser in {@link WeatherDetailService} und die Historie
+ * ({@link ObservationMetric}) lesen; sie werden als {@code fields=} mitgeschickt.
+ */
+public enum WeatherSection {
+    CONDITIONS("current", "Conditions", false, List.of("periods.timestamp",
+            "periods.tempC", "periods.tempF", "periods.feelslikeC", "periods.feelslikeF", "periods.humidity",
+            "periods.windSpeedKPH", "periods.windSpeedMPH", "periods.windDir", "periods.pressureMB",
+            "periods.visibilityKM", "periods.visibilityMI", "periods.uvi", "periods.sky", "periods.weather", "periods.icon")),
+    FORECAST("forecast", "Forecasts", true, List.of("periods.timestamp",
+            "periods.maxTempC", "periods.maxTempF", "periods.minTempC", "periods.minTempF", "periods.weather", "periods.icon")),
+    HOURLY("hourly", "Hourly-Forecasts", true, List.of("periods.timestamp",
+            "periods.avgTempC", "periods.avgTempF", "periods.icon")),
+    AIR_QUALITY("airQuality", "AirQuality", false, List.of("periods.timestamp",
+            "periods.aqi", "periods.category", "periods.pollutants.pm2p5.valueMG", "periods.pollutants.pm10.valueMG",
+            "periods.pollutants.o3.valueMG", "periods.pollutants.no2.valueMG")),
+    ALERTS("alerts", "Alerts", true, List.of("details.type", "details.body", "details.priority"));
+
+    private final String key;
+    private final String label;
+    private final boolean list;
+    private final List<String> fields;
+
+    WeatherSection(String key, String label, boolean list, List<String> fields) {
+        this.key = key;
+        this.label = label;
+        this.list = list;
+        this.fields = fields;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Gelesene Felder relativ zu einem Eintrag in {@code response}, z. B. {@code periods.tempC}.
+     */
+    public List<String> getFields() {
+        return fields;
+    }
+
+    /**
+     * Leerer Wert, der bei Fehlern anstelle der Daten zurückgegeben wird.
+     */
+    public Object emptyValue() {
+        return list ? new ArrayList<>() : new HashMap<>();
+    }
+}
@@ -6,9 +6,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson. databind.JsonNode;
 import com.fasterxml.jackson. databind.ObjectMapper;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
 
 import java.net.URI;
 import java.util.*;
@@ -19,6 +21,15 @@ public class WeatherService {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired(required = false)
+    private XweatherReactiveClient reactiveClient;
+
+    @Autowired(required = false)
+    private HeavyHitters heavyHitters;
+
+    @Autowired(required = false)
+    private PlaceSearchCache searchCache;
+
     @Value("${XWEATHER_CLIENT_ID}")
     private String clientId;
 
@@ -30,7 +41,26 @@ public class WeatherService {
 
     private static final Logger logger = LoggerFactory.getLogger(WeatherService.class);
 
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String UPSTREAM_SEARCH = RequestTimings.upstream("search");
+
     public List<Map<String, Object>> searchPlaces(String query) {
+        if (heavyHitters != null) {
+            heavyHitters.record(HeavyHitters.searchKey(query));
+        }
+        List<Map<String, Object>> cached = searchCache != null ? searchCache.get(query) : null;
+        if (cached != null) {
+            return cached;
+        }
+        List<Map<String, Object>> results = loadPlaces(query);
+        if (searchCache != null) {
+            searchCache.put(query, results);
+        }
+        return results;
+    }
+
+    private List<Map<String, Object>> loadPlaces(String query) {
         URI uri = UriComponentsBuilder.fromHttpUrl(baseUrl)
                 .path("/places/search")
                 .queryParam("query", "name:^" + query)
@@ -40,27 +70,47 @@ public class WeatherService {
                 .build()
                 .toUri();
 
+        if (reactiveClient != null) {
+            return searchPlacesReactive(uri, query);
+        }
+
         try {
+            long upstreamStart = RequestTimings.start();
             String response = restTemplate.getForObject(uri, String.class);
-            return parseSearchResults(response);
+            RequestTimings.record(UPSTREAM_SEARCH, upstreamStart);
+            long parseStart = RequestTimings.start();
+            List<Map<String, Object>> results = parseSearchResults(readTree(response));
+            RequestTimings.record(RequestTimings.PARSE, parseStart);
+            return results;
         } catch (Exception e) {
             logger.error("Fehler bei der Ortssuche für '{}': {}", query, e.getMessage());
             return new ArrayList<>();
         }
     }
 
-    private List<Map<String, Object>> parseSearchResults(String jsonResponse) {
-        List<Map<String, Object>> results = new ArrayList<>();
+    private List<Map<String, Object>> searchPlacesReactive(URI uri, String query) {
+        long upstreamStart = RequestTimings.start();
+        List<Map<String, Object>> results = reactiveClient.get(uri)
+                .map(this::parseSearchResults)
+                .onErrorResume(e -> {
+                    logger.error("Fehler bei der Ortssuche für '{}': {}", query, e.getMessage());
+                    return Mono.just(new ArrayList<>());
+                })
+                .block();
+        RequestTimings.record(UPSTREAM_SEARCH, upstreamStart);
+        return results != null ? results : new ArrayList<>();
+    }
 
-        try {
-            if (jsonResponse == null || jsonResponse.isBlank()) {
-                return results;
-            }
+    private JsonNode readTree(String jsonResponse) throws JsonProcessingException {
+        if (jsonResponse == null || jsonResponse.isBlank()) return null;
+        return MAPPER.readTree(jsonResponse);
+    }
 
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode root = mapper.readTree(jsonResponse);
+    private List<Map<String, Object>> parseSearchResults(JsonNode root) {
+        List<Map<String, Object>> results = new ArrayList<>();
 
-            if (!root.has("success") || !root.get("success").asBoolean()) {
+        try {
+            if (root == null || !root.has("success") || !root.get("success").asBoolean()) {
                 return results;
             }
 
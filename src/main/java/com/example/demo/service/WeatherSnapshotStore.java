@@ -0,0 +1,161 @@
+package com.example.demo.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versionierte Stände der /details-Antwort pro Ort (Rasterzelle {@code weather.delta.cell-size-deg} und Einheiten).
+ * Gespeichert werden nur ein 64-Bit-Fingerabdruck ({@link ContentFingerprint}) pro Abschnitt und die Version,
+ * in der sich der Abschnitt zuletzt geändert hat.
+ * Wer mit {@code since=<version>} erneut abfragt, bekommt nur die seitdem geänderten Abschnitte.
+ * Versionen gelten nur auf dieser Instanz und seit dem Start; unbekannte, fremde oder zu alte Versionen
+ * (älter als der gespeicherte Stand des Orts) ergeben die vollständige Antwort.
+ */
+@Component
+@ConditionalOnProperty(name = "weather.delta.enabled", havingValue = "true", matchIfMissing = true)
+public class WeatherSnapshotStore {
+
+    public static final String VERSION = "version";
+    public static final String SINCE = "since";
+    public static final String DELTA = "delta";
+
+    private static final String DISTANCES = "distanceKm";
+
+    private static final class Snapshot {
+        private final long base;
+        private final long[] hashes;
+        private final long[] changedAt;
+        private long version;
+
+        Snapshot(long base, long[] hashes) {
+            this.base = base;
+            this.version = base;
+            this.hashes = hashes.clone();
+            this.changedAt = new long[hashes.length];
+            Arrays.fill(changedAt, base);
+        }
+    }
+
+    private final ConcurrentHashMap<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final String instance = Long.toString(ThreadLocalRandom.current().nextLong(1L << 40), 36);
+    private final double cellSizeDeg;
+    private final int maxEntries;
+
+    @Autowired
+    public WeatherSnapshotStore(Environment environment) {
+        this.cellSizeDeg = environment.getProperty("weather.delta.cell-size-deg", Double.class, 0.01);
+        this.maxEntries = environment.getProperty("weather.delta.max-entries", Integer.class, 10_000);
+    }
+
+    /**
+     * Übernimmt die frisch zusammengestellte Antwort als neuen Stand des Orts und liefert, was der Client braucht:
+     * ohne gültiges {@code since} die vollständige Antwort, sonst nur die seitdem geänderten Abschnitte
+     * samt ihren Entfernungen. Beide Varianten enthalten die neue {@code version} und {@code delta}.
+     */
+    public Map<String, Object> apply(double lat, double lon, String units, Map<String, Object> data, String since) {
+        String key = GeoMath.cellKey(lat, lon, cellSizeDeg) + ":" + units;
+        WeatherSection[] sections = WeatherSection.values();
+        long sinceVersion = parseVersion(since);
+
+        long[] hashes = new long[sections.length];
+        for (int i = 0; i < sections.length; i++) {
+            hashes[i] = ContentFingerprint.of(data.get(sections[i].getKey()));
+        }
+
+        long version;
+        long base;
+        long[] changedAt;
+        Snapshot snapshot = snapshots.get(key);
+        if (snapshot == null) {
+            if (snapshots.size() >= maxEntries) {
+                evictOne();
+            }
+            Snapshot fresh = new Snapshot(versions.incrementAndGet(), hashes);
+            snapshot = Objects.requireNonNullElse(snapshots.putIfAbsent(key, fresh), fresh);
+        }
+        synchronized (snapshot) {
+            boolean changed = false;
+            long next = 0;
+            for (int i = 0; i < sections.length; i++) {
+                if (snapshot.hashes[i] != hashes[i]) {
+                    if (!changed) {
+                        next = versions.incrementAndGet();
+                        changed = true;
+                    }
+                    snapshot.hashes[i] = hashes[i];
+                    snapshot.changedAt[i] = next;
+                }
+            }
+            if (changed) {
+                snapshot.version = next;
+            }
+            version = snapshot.version;
+            base = snapshot.base;
+            changedAt = snapshot.changedAt.clone();
+        }
+
+        Map<String, Object> response;
+        if (sinceVersion < base || sinceVersion > version) {
+            response = new LinkedHashMap<>(data);
+            response.put(DELTA, false);
+        } else {
+            response = new LinkedHashMap<>();
+            Map<?, ?> distances = data.get(DISTANCES) instanceof Map<?, ?> map ? map : Map.of();
+            Map<Object, Object> changedDistances = new HashMap<>();
+            for (int i = 0; i < sections.length; i++) {
+                String section = sections[i].getKey();
+                if (changedAt[i] > sinceVersion) {
+                    response.put(section, data.get(section));
+                    changedDistances.put(section, distances.get(section));
+                }
+            }
+            response.put(DISTANCES, changedDistances);
+            response.put(DELTA, true);
+            response.put(SINCE, since);
+        }
+        response.put(VERSION, instance + "." + Long.toString(version, 36));
+        return response;
+    }
+
+    public int size() {
+        return snapshots.size();
+    }
+
+    /**
+     * Zahl der Version, wenn sie von dieser Instanz stammt, sonst -1.
+     */
+    private long parseVersion(String token) {
+        if (token == null) {
+            return -1;
+        }
+        int dot = token.indexOf('.');
+        if (dot < 0 || !instance.equals(token.substring(0, dot))) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(token.substring(dot + 1), 36);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void evictOne() {
+        Iterator<String> keys = snapshots.keySet().iterator();
+        if (keys.hasNext()) {
+            snapshots.remove(keys.next());
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Kartenkacheln (z/x/y in Web-Mercator) für eine {@link ObservationMetric}, z. B. Temperatur, Wind oder AQI.
+ * Pro Kachel werden {@code (samples + 1)²} Stützpunkte gebündelt über Xweather-{@code /batch} abgefragt
+ * und auf {@code grid × grid} Zellen bilinear interpoliert.
+ * Die Stützpunkte liegen auf einem globalen Raster, das die Kachelränder einschließt. Sie werden pro
+ * Abschnitt zwischengespeichert, sodass benachbarte Kacheln ihre Randpunkte und gröbere Zoomstufen
+ * die Punkte der feineren teilen. Fertige Kacheln liegen begrenzt ({@code weather.tiles.max-entries})
+ * mit eigener TTL im Cache; Kacheln mit fehlenden Stützpunkten werden nicht gespeichert.
+ */
+@Component
+@ConditionalOnProperty(name = "weather.tiles.enabled", havingValue = "true", matchIfMissing = true)
+public class WeatherTileCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(WeatherTileCache.class);
+
+    private static final int MAX_ZOOM = 20;
+
+    /**
+     * Eine Kachel; {@code values} enthält {@code size × size} Zellen zeilenweise von Nordwesten aus,
+     * auf eine Nachkommastelle gerundet und {@code null}, wo keine Daten vorliegen.
+     * {@code expiresAt} ist 0, wenn Stützpunkte fehlen; solche Kacheln werden nicht zwischengespeichert.
+     */
+    public record Tile(int z, int x, int y, String layer, String units, int size, Float[] values,
+                       @JsonIgnore long expiresAt) {
+    }
+
+    private record CachedTile(Tile tile, long expiresAt) {
+    }
+
+    /**
+     * Werte eines Stützpunkts für alle Messgrößen seines Abschnitts, indiziert nach {@link ObservationMetric#ordinal()}.
+     */
+    record Sample(double[] values, long expiresAt) {
+    }
+
+    private record Pending(long key, double lat, double lon, CompletableFuture<Sample> future) {
+    }
+
+    private final ConcurrentHashMap<String, CompletableFuture<CachedTile>> tiles = new ConcurrentHashMap<>();
+    private final Map<WeatherSection, ConcurrentHashMap<Long, CompletableFuture<Sample>>> samples = new EnumMap<>(WeatherSection.class);
+    private final AtomicLong batchCalls = new AtomicLong();
+    private final AtomicLong sampleLoads = new AtomicLong();
+    private final int samplesPerTile;
+    private final int grid;
+    private final int maxZoom;
+    private final int batchSize;
+    private final long ttlSeconds;
+    private final long sampleTtlMillis;
+    private final int maxTiles;
+    private final int maxSamples;
+    private final Clock clock;
+
+    @Autowired
+    public WeatherTileCache(Environment environment) {
+        this(environment, Clock.systemUTC());
+    }
+
+    WeatherTileCache(Environment environment, Clock clock) {
+        this.clock = clock;
+        this.samplesPerTile = environment.getProperty("weather.tiles.samples", Integer.class, 4);
+        this.grid = environment.getProperty("weather.tiles.grid", Integer.class, 16);
+        this.maxZoom = Math.min(MAX_ZOOM, environment.getProperty("weather.tiles.max-zoom", Integer.class, 12));
+        this.batchSize = environment.getProperty("weather.tiles.batch-size", Integer.class, 25);
+        this.ttlSeconds = environment.getProperty("weather.tiles.ttl-seconds", Long.class, 600L);
+        this.sampleTtlMillis = environment.getProperty("weather.tiles.sample-ttl-seconds", Long.class, 600L) * 1000;
+        this.maxTiles = environment.getProperty("weather.tiles.max-entries", Integer.class, 5_000);
+        this.maxSamples = environment.getProperty("weather.tiles.max-samples", Integer.class, 100_000);
+        samples.put(WeatherSection.CONDITIONS, new ConcurrentHashMap<>());
+        samples.put(WeatherSection.AIR_QUALITY, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Liefert die Kachel aus dem Cache oder erzeugt sie. Fehlende Stützpunkte werden über {@code batchLoader}
+     * geladen, der eine Liste von Teilanfragen wie {@code /conditions/52.5,13.4} erhält und die
+     * {@code /batch}-Antwort zurückgibt. Gleichzeitige Anfragen für dieselbe Kachel warten auf eine Erzeugung.
+     * @throws IllegalArgumentException bei ungültigen Koordinaten oder einer Messgröße ohne Kartenquelle
+     */
+    public Tile tile(ObservationMetric metric, int z, int x, int y, String units, Function<List<String>, JsonNode> batchLoader) {
+        if (z < 0 || z > maxZoom || x < 0 || y < 0 || x >= (1 << z) || y >= (1 << z)) {
+            throw new IllegalArgumentException("Ungültige Kachel: " + z + "/" + x + "/" + y);
+        }
+        if (!samples.containsKey(metric.getSection())) {
+            throw new IllegalArgumentException("Keine Kartenquelle für " + metric.getKey());
+        }
+
+        String key = metric.getKey() + "/" + units + "/" + z + "/" + x + "/" + y;
+        while (true) {
+            CompletableFuture<CachedTile> entry = tiles.get(key);
+            if (entry != null) {
+                boolean waited = !entry.isDone();
+                CachedTile cached = entry.join();
+                if (cached.tile() != null && (waited || !isExpired(cached.expiresAt()))) {
+                    return cached.tile();
+                }
+            }
+
+            CompletableFuture<CachedTile> fresh = new CompletableFuture<>();
+            boolean owner = entry == null ? tiles.putIfAbsent(key, fresh) == null : tiles.replace(key, entry, fresh);
+            if (!owner) {
+                continue;
+            }
+            if (tiles.size() > maxTiles) {
+                evictOne(tiles, key);
+            }
+            CachedTile loaded = null;
+            try {
+                loaded = load(metric, z, x, y, units, batchLoader);
+                return loaded.tile();
+            } finally {
+                fresh.complete(loaded != null ? loaded : new CachedTile(null, 0));
+                if (loaded == null || isExpired(loaded.expiresAt())) {
+                    tiles.remove(key, fresh);
+                }
+            }
+        }
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    /**
+     * Verbleibende Gültigkeit der Kachel in Sekunden, 0 für unvollständige oder abgelaufene Kacheln.
+     */
+    public long maxAgeSeconds(Tile tile) {
+        return Math.max(0, (tile.expiresAt() - clock.millis()) / 1000);
+    }
+
+    /**
+     * Anzahl der {@code /batch}-Aufrufe seit dem Start.
+     */
+    public long getBatchCount() {
+        return batchCalls.get();
+    }
+
+    /**
+     * Anzahl der bei Xweather abgefragten Stützpunkte seit dem Start.
+     */
+    public long getSampleLoadCount() {
+        return sampleLoads.get();
+    }
+
+    private CachedTile load(ObservationMetric metric, int z, int x, int y, String units, Function<List<String>, JsonNode> batchLoader) {
+        int n = samplesPerTile;
+        long perAxis = (long) n << z;
+        ConcurrentHashMap<Long, CompletableFuture<Sample>> cache = samples.get(metric.getSection());
+        List<CompletableFuture<Sample>> points = new ArrayList<>((n + 1) * (n + 1));
+        List<Pending> pending = new ArrayList<>();
+
+        for (int j = 0; j <= n; j++) {
+            for (int i = 0; i <= n; i++) {
+                long gx = (long) x * n + i;
+                long gy = (long) y * n + j;
+                long key = sampleKey(z, gx, gy);
+                CompletableFuture<Sample> future = cache.get(key);
+                if (future == null || (future.isDone() && isExpired(future.join()))) {
+                    CompletableFuture<Sample> fresh = new CompletableFuture<>();
+                    boolean owner = future == null ? cache.putIfAbsent(key, fresh) == null : cache.replace(key, future, fresh);
+                    if (owner) {
+                        if (cache.size() > maxSamples) {
+                            evictOne(cache, key);
+                        }
+                        pending.add(new Pending(key, latitude(gy, perAxis), longitude(gx, perAxis), fresh));
+                        future = fresh;
+                    } else {
+                        future = cache.getOrDefault(key, CompletableFuture.completedFuture(null));
+                    }
+                }
+                points.add(future);
+            }
+        }
+
+        fetch(metric.getSection(), pending, cache, batchLoader);
+
+        boolean complete = true;
+        double[] values = new double[points.size()];
+        for (int k = 0; k < values.length; k++) {
+            Sample sample = points.get(k).join();
+            complete &= sample != null;
+            values[k] = sample != null ? sample.values()[metric.ordinal()] : Double.NaN;
+        }
+        long expiresAt = complete ? clock.millis() + ttlSeconds * 1000 : 0;
+        Tile tile = new Tile(z, x, y, metric.getKey(), units, grid, interpolate(values, n, grid, metric, units), expiresAt);
+        return new CachedTile(tile, expiresAt);
+    }
+
+    /**
+     * Lädt die eigenen offenen Stützpunkte in Blöcken von {@code weather.tiles.batch-size}.
+     * Jeder Stützpunkt wird abgeschlossen, fehlgeschlagene mit {@code null} und ohne Cache-Eintrag,
+     * damit wartende Kacheln nie hängen bleiben.
+     */
+    private void fetch(WeatherSection section, List<Pending> pending, ConcurrentHashMap<Long, CompletableFuture<Sample>> cache,
+                       Function<List<String>, JsonNode> batchLoader) {
+        String endpoint = section == WeatherSection.CONDITIONS ? "conditions" : "airquality";
+        try {
+            for (int from = 0; from < pending.size(); from += batchSize) {
+                List<Pending> chunk = pending.subList(from, Math.min(pending.size(), from + batchSize));
+                List<String> requests = new ArrayList<>(chunk.size());
+                for (Pending point : chunk) {
+                    requests.add(String.format(Locale.ROOT, "/%s/%.4f,%.4f", endpoint, point.lat(), point.lon()));
+                }
+
+                JsonNode responses = null;
+                try {
+                    batchCalls.incrementAndGet();
+                    sampleLoads.addAndGet(chunk.size());
+                    JsonNode root = batchLoader.apply(requests);
+                    if (root != null && root.path("success").asBoolean()) {
+                        responses = root.path("response").path("responses");
+                    }
+                } catch (RuntimeException e) {
+                    logger.error("Fehler beim Laden von {} Stützpunkten für Kartenkacheln: {}", chunk.size(), e.getMessage());
+                }
+
+                long expiresAt = clock.millis() + sampleTtlMillis;
+                for (int i = 0; i < chunk.size(); i++) {
+                    complete(cache, chunk.get(i), responses != null ? parseSample(section, responses.path(i), expiresAt) : null);
+                }
+            }
+        } finally {
+            for (Pending point : pending) {
+                if (!point.future().isDone()) {
+                    complete(cache, point, null);
+                }
+            }
+        }
+    }
+
+    private static void complete(ConcurrentHashMap<Long, CompletableFuture<Sample>> cache, Pending point, Sample sample) {
+        point.future().complete(sample);
+        if (sample == null) {
+            cache.remove(point.key(), point.future());
+        }
+    }
+
+    /**
+     * Liest alle Messgrößen des Abschnitts aus einer Teilantwort von {@code /batch}.
+     */
+    static Sample parseSample(WeatherSection section, JsonNode response, long expiresAt) {
+        JsonNode period = response.path("response").path(0).path("periods").path(0);
+        if (!response.path("success").asBoolean() || !period.isObject()) {
+            return null;
+        }
+        double[] values = new double[ObservationMetric.values().length];
+        Arrays.fill(values, Double.NaN);
+        for (ObservationMetric metric : ObservationMetric.values()) {
+            if (metric.getSection() == section) {
+                values[metric.ordinal()] = metric.extract(period);
+            }
+        }
+        return new Sample(values, expiresAt);
+    }
+
+    /**
+     * Bilineare Interpolation der {@code (n + 1)²} Stützpunkte auf die Zellmitten eines {@code grid × grid}-Rasters.
+     * Fehlende Stützpunkte werden ausgelassen und die übrigen Gewichte neu normiert.
+     */
+    static Float[] interpolate(double[] points, int n, int grid, ObservationMetric metric, String units) {
+        Float[] values = new Float[grid * grid];
+        for (int row = 0; row < grid; row++) {
+            double sy = (row + 0.5) * n / grid;
+            int j = Math.min(n - 1, (int) sy);
+            double fy = sy - j;
+            for (int col = 0; col < grid; col++) {
+                double sx = (col + 0.5) * n / grid;
+                int i = Math.min(n - 1, (int) sx);
+                double fx = sx - i;
+
+                double sum = 0;
+                double weight = 0;
+                for (int corner = 0; corner < 4; corner++) {
+                    int di = corner & 1;
+                    int dj = corner >> 1;
+                    double w = (di == 1 ? fx : 1 - fx) * (dj == 1 ? fy : 1 - fy);
+                    double value = points[(j + dj) * (n + 1) + i + di];
+                    if (w > 0 && !Double.isNaN(value)) {
+                        sum += w * value;
+                        weight += w;
+                    }
+                }
+                values[row * grid + col] = weight > 0
+                        ? (float) (Math.round(metric.toUnits(sum / weight, units) * 10) / 10.0)
+                        : null;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Schlüssel eines Stützpunkts, unabhängig von der Zoomstufe: Punkt {@code (gx, gy)} auf Stufe {@code z}
+     * liegt an derselben Stelle wie {@code (gx/2, gy/2)} auf Stufe {@code z - 1}, solange beide gerade sind.
+     */
+    static long sampleKey(int z, long gx, long gy) {
+        while (z > 0 && (gx & 1) == 0 && (gy & 1) == 0) {
+            gx >>= 1;
+            gy >>= 1;
+            z--;
+        }
+        return ((long) z << 58) | (gx << 29) | gy;
+    }
+
+    private static double longitude(long gx, long perAxis) {
+        return (double) gx / perAxis * 360.0 - 180.0;
+    }
+
+    private static double latitude(long gy, long perAxis) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2.0 * gy / perAxis))));
+    }
+
+    private boolean isExpired(long expiresAt) {
+        return expiresAt <= clock.millis();
+    }
+
+    private boolean isExpired(Sample sample) {
+        return sample == null || isExpired(sample.expiresAt());
+    }
+
+    private static <K, V> void evictOne(ConcurrentHashMap<K, V> map, K keep) {
+        Iterator<K> keys = map.keySet().iterator();
+        while (keys.hasNext()) {
+            K key = keys.next();
+            if (!key.equals(keep)) {
+                map.remove(key);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Nicht-blockierender Xweather-Client auf Basis von {@link WebClient}.
+ * Wird nur mit {@code xweather.engine=reactive} aktiviert; die Antworten werden
+ * direkt aus den Netzwerkpuffern zu einem {@link JsonNode} dekodiert.
+ */
+@Component
+@ConditionalOnProperty(name = "xweather.engine", havingValue = "reactive")
+public class XweatherReactiveClient {
+
+    private final WebClient webClient;
+    private final Duration timeout;
+    private final int maxConcurrency;
+
+    public XweatherReactiveClient(WebClient xweatherWebClient,
+                                  @Value("${xweather.reactive.timeout-ms:10000}") long timeoutMs,
+                                  @Value("${xweather.reactive.max-concurrency:5}") int maxConcurrency) {
+        this.webClient = xweatherWebClient;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public Mono<JsonNode> get(String url) {
+        return get(URI.create(url));
+    }
+
+    public Mono<JsonNode> get(URI uri) {
+        return webClient.get()
+                .uri(uri)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(timeout);
+    }
+
+    /**
+     * Maximale Anzahl gleichzeitiger Abschnitts-Aufrufe pro /details-Anfrage.
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+}
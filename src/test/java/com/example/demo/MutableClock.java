@@ -0,0 +1,33 @@
+package com.example.demo;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Uhr für Tests, die nur über {@link #advanceSeconds(long)} weiterläuft; beginnt am 1. Januar 2025 (UTC).
+ */
+public final class MutableClock extends Clock {
+
+    private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+    public void advanceSeconds(long seconds) {
+        now = now.plusSeconds(seconds);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return this;
+    }
+
+    @Override
+    public Instant instant() {
+        return now;
+    }
+}
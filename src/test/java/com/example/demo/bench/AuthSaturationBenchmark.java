@@ -0,0 +1,63 @@
+package com.example.demo.bench;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Flutet die Anwendung mit Basic-Auth-Anfragen (jede löst einen BCrypt-Vergleich aus) und misst
+ * parallel die Latenz von /details. Zum Vergleich läuft /details zuerst allein.
+ * Ausgegeben werden p50/p99 von /details sowie der Anteil schnell abgewiesener Logins (429).
+ */
+class AuthSaturationBenchmark extends SimulatedBackendBenchmark {
+
+    private static final String USERNAME = "bench-user";
+    private static final String PASSWORD = "bench-password";
+
+    @Test
+    void detailsLatencyDuringLoginFlood() throws Exception {
+        int rate = intProperty("bench.rate", 50);
+        int loginRate = intProperty("bench.loginRate", 200);
+        Duration duration = Duration.ofSeconds(intProperty("bench.duration", 10));
+        register();
+
+        Workloads workloads = new Workloads(11);
+        LoadGenerator.Report baseline = new LoadGenerator(appUrl())
+                .run("details allein", rate, duration, () -> workloads.detailsPath(3));
+        System.out.println(baseline);
+
+        String credentials = Base64.getEncoder()
+                .encodeToString((USERNAME + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+        CompletableFuture<LoadGenerator.Report> logins = CompletableFuture.supplyAsync(() -> new LoadGenerator(appUrl())
+                .run("login", loginRate, duration, () -> "/favoriteLocations",
+                        Map.of("Authorization", "Basic " + credentials, "X-Requested-With", "XMLHttpRequest")));
+        LoadGenerator.Report underLoad = new LoadGenerator(appUrl())
+                .run("details mit Login-Flut", rate, duration, () -> workloads.detailsPath(3));
+        LoadGenerator.Report loginReport = logins.join();
+        System.out.println(underLoad);
+        System.out.println(loginReport);
+
+        System.out.printf("[auth-saturation] details p99 allein=%.1f ms, mit Login-Flut=%.1f ms, Logins abgewiesen=%d/%d%n",
+                baseline.latency().percentileMillis(99), underLoad.latency().percentileMillis(99),
+                loginReport.failed(), loginReport.sent());
+    }
+
+    private void register() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(appUrl() + "/register"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .build();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            client.send(request, HttpResponse.BodyHandlers.discarding());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.bench;
+
+import com.example.demo.service.HeavyHitters;
+import com.example.demo.service.NearbyWeatherCache;
+import com.example.demo.service.PlaceSearchCache;
+import com.example.demo.service.WeatherSection;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * Spielt eine schiefe Anfragefolge gegen die Caches ab, einmal mit reiner Verdrängung des ältesten
+ * Eintrags (LRU bzw. FIFO) und einmal mit Zulassung über {@link HeavyHitters} (TinyLFU).
+ * /details: Zipf-verteilte Städte ({@link Workloads}), 10 % zufällige Kartenklicks und alle
+ * {@code bench.panEvery} Anfragen ein Kartenschwenk über {@code bench.panSize} einmalige Koordinaten.
+ * Ortssuche: Zipf-verteilte Präfixe und 30 % einmalige Suchbegriffe.
+ */
+@Tag("benchmark")
+class CacheAdmissionBenchmark {
+
+    private static final int REQUESTS = Integer.getInteger("bench.requests", 200_000);
+    private static final int MAX_ENTRIES = Integer.getInteger("bench.maxEntries", 200);
+    private static final int PAN_EVERY = Integer.getInteger("bench.panEvery", 20_000);
+    private static final int PAN_SIZE = Integer.getInteger("bench.panSize", 3_000);
+    private static final List<Map<String, Object>> RESULTS = List.of(Map.of("name", "Ort"));
+
+    @Test
+    void hitRatio() {
+        for (boolean admission : new boolean[]{false, true}) {
+            details(admission);
+            search(admission);
+        }
+    }
+
+    private void details(boolean admission) {
+        MockEnvironment environment = new MockEnvironment().withProperty("weather.cache.max-entries", String.valueOf(MAX_ENTRIES));
+        HeavyHitters heavyHitters = new HeavyHitters(environment);
+        NearbyWeatherCache cache = new NearbyWeatherCache(environment, admission ? Optional.of(heavyHitters) : Optional.empty());
+        Workloads workloads = new Workloads(3);
+
+        long hits = 0;
+        long hitsAfterPan = 0;
+        long requestsAfterPan = 0;
+        int panRemaining = 0;
+        for (int i = 0; i < REQUESTS; i++) {
+            if (i % PAN_EVERY == PAN_EVERY - 1) {
+                panRemaining = PAN_SIZE;
+            }
+            boolean pan = panRemaining > 0;
+            double[] c = pan || i % 10 == 0 ? workloads.randomCoordinate() : workloads.coordinate(1.0);
+            if (pan) {
+                panRemaining--;
+            }
+            heavyHitters.record(HeavyHitters.detailsKey(c[0], c[1], "m"));
+            boolean hit = cache.lookup(WeatherSection.CONDITIONS, c[0], c[1], "m") != null;
+            if (hit) {
+                hits++;
+            } else {
+                cache.put(WeatherSection.CONDITIONS, c[0], c[1], "m", Map.of());
+            }
+            // Die 1000 Stadtanfragen direkt nach einem Schwenk zeigen, ob beliebte Orte verdrängt wurden
+            if (!pan && i % PAN_EVERY < PAN_SIZE + 1000 && i >= PAN_EVERY) {
+                requestsAfterPan++;
+                hitsAfterPan += hit ? 1 : 0;
+            }
+        }
+        System.out.printf("[admission] details %-7s hit ratio=%.1f%% after pan=%.1f%% (max-entries=%d)%n",
+                admission ? "tinylfu" : "fifo", 100.0 * hits / REQUESTS,
+                100.0 * hitsAfterPan / Math.max(1, requestsAfterPan), MAX_ENTRIES);
+    }
+
+    private void search(boolean admission) {
+        MockEnvironment environment = new MockEnvironment().withProperty("weather.search-cache.max-entries", "15");
+        HeavyHitters heavyHitters = new HeavyHitters(environment);
+        PlaceSearchCache cache = new PlaceSearchCache(environment, admission ? Optional.of(heavyHitters) : Optional.empty());
+        Workloads workloads = new Workloads(5);
+        Random random = new Random(5);
+
+        long hits = 0;
+        for (int i = 0; i < REQUESTS; i++) {
+            String query = random.nextDouble() < 0.3 ? "q" + Long.toString(random.nextLong() & Long.MAX_VALUE, 36) : workloads.searchPrefix();
+            heavyHitters.record(HeavyHitters.searchKey(query));
+            if (cache.get(query) != null) {
+                hits++;
+            } else {
+                cache.put(query, RESULTS);
+            }
+        }
+        System.out.printf("[admission] search  %-7s hit ratio=%.1f%% (max-entries=15)%n",
+                admission ? "tinylfu" : "lru", 100.0 * hits / REQUESTS);
+    }
+}
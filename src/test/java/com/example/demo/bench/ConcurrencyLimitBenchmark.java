@@ -0,0 +1,81 @@
+package com.example.demo.bench;
+
+import com.example.demo.config.GradientConcurrencyLimit;
+import com.example.demo.sim.XweatherSimulator.LatencyModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Xweather wird mitten im Lauf langsam (fest {@code bench.slowMs}). Gemessen wird, wie schnell
+ * anonyme /details-Anfragen mit 503 abgewiesen werden und ob angemeldete /favoriteLocations-Aufrufe
+ * dabei weiter schnell bleiben. Dazu das Limit vor und nach dem Einbruch.
+ */
+@TestPropertySource(properties = "security.password.bcrypt-strength=4")
+class ConcurrencyLimitBenchmark extends SimulatedBackendBenchmark {
+
+    private static final String USERNAME = "limit-bench-user";
+    private static final String PASSWORD = "bench-password";
+
+    @Autowired
+    private GradientConcurrencyLimit limit;
+
+    @AfterEach
+    void resetSimulator() {
+        SIMULATOR.latency(LatencyModel.none());
+    }
+
+    @Test
+    void sheddingWhenUpstreamSlowsDown() throws Exception {
+        int rate = intProperty("bench.rate", 100);
+        int favoritesRate = intProperty("bench.favoritesRate", 20);
+        Duration duration = Duration.ofSeconds(intProperty("bench.duration", 10));
+        register();
+        String credentials = Base64.getEncoder()
+                .encodeToString((USERNAME + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+        Map<String, String> headers = Map.of("Authorization", "Basic " + credentials, "X-Requested-With", "XMLHttpRequest");
+
+        SIMULATOR.latency(LatencyModel.logNormal(40, 0.3));
+        run("normal", rate, favoritesRate, duration, headers);
+
+        SIMULATOR.latency(LatencyModel.fixed(intProperty("bench.slowMs", 2000)));
+        run("Xweather langsam", rate, favoritesRate, duration, headers);
+    }
+
+    private void run(String phase, int rate, int favoritesRate, Duration duration, Map<String, String> headers) {
+        Workloads workloads = new Workloads(17);
+        int limitBefore = limit.getLimit();
+        CompletableFuture<LoadGenerator.Report> favorites = CompletableFuture.supplyAsync(() -> new LoadGenerator(appUrl())
+                .run("favoriteLocations " + phase, favoritesRate, duration, () -> "/favoriteLocations", headers));
+        LoadGenerator.Report details = new LoadGenerator(appUrl())
+                .run("details " + phase, rate, duration, () -> workloads.detailsPath(3));
+        LoadGenerator.Report favoritesReport = favorites.join();
+        System.out.println(details);
+        System.out.println(favoritesReport);
+        System.out.printf("[limiter] %s: limit %d -> %d, details abgewiesen=%d/%d, favoriteLocations p99=%.1f ms%n",
+                phase, limitBefore, limit.getLimit(), limit.getRejected(false), details.sent(),
+                favoritesReport.latency().percentileMillis(99));
+    }
+
+    private void register() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(appUrl() + "/register"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .build();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            client.send(request, HttpResponse.BodyHandlers.discarding());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.demo.bench;
+
+import com.example.demo.service.WeatherDetailService;
+import com.example.demo.service.WeatherService;
+import com.example.demo.sim.XweatherSimulator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Vergleicht Antwortgröße und Serialisierungszeit von JSON, CBOR und Smile
+ * für realistische /details- und /places/search-Antworten aus dem Simulator.
+ */
+@Tag("benchmark")
+class ContentFormatBenchmark {
+
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 20_000);
+
+    @Test
+    void payloadSizeAndSerializationCost() throws IOException {
+        List<Object> details = new ArrayList<>();
+        List<Object> searches = new ArrayList<>();
+        try (XweatherSimulator simulator = new XweatherSimulator().start()) {
+            WeatherDetailService detailService = configure(new WeatherDetailService(), simulator);
+            WeatherService weatherService = configure(new WeatherService(), simulator);
+            Workloads workloads = new Workloads(3);
+            for (int i = 0; i < 20; i++) {
+                double[] c = workloads.coordinate(5);
+                details.add(detailService.fetchAllWeatherData(c[0], c[1], "m"));
+                searches.add(weatherService.searchPlaces(workloads.searchPrefix()));
+            }
+        }
+
+        Map<String, ObjectMapper> formats = Map.of(
+                "json", new ObjectMapper(),
+                "cbor", new ObjectMapper(new CBORFactory()),
+                "smile", new ObjectMapper(new SmileFactory()));
+
+        for (String format : List.of("json", "cbor", "smile")) {
+            report("details", format, formats.get(format), details);
+            report("search", format, formats.get(format), searches);
+        }
+    }
+
+    private static void report(String endpoint, String format, ObjectMapper mapper, List<Object> payloads) throws IOException {
+        long bytes = 0;
+        long gzipped = 0;
+        for (Object payload : payloads) {
+            byte[] encoded = mapper.writeValueAsBytes(payload);
+            bytes += encoded.length;
+            gzipped += gzip(encoded);
+        }
+
+        for (int i = 0; i < ITERATIONS / 4; i++) {
+            mapper.writeValueAsBytes(payloads.get(i % payloads.size()));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.writeValueAsBytes(payloads.get(i % payloads.size()));
+        }
+        double microsPerOp = (System.nanoTime() - start) / 1000.0 / ITERATIONS;
+
+        System.out.printf("[content-format] %-7s %-5s avg bytes=%,6d gzip=%,6d serialize=%.2fµs/op%n",
+                endpoint, format, bytes / payloads.size(), gzipped / payloads.size(), microsPerOp);
+    }
+
+    private static <T> T configure(T service, XweatherSimulator simulator) {
+        ReflectionTestUtils.setField(service, "restTemplate", new RestTemplate());
+        ReflectionTestUtils.setField(service, "clientId", "bench");
+        ReflectionTestUtils.setField(service, "clientSecret", "bench");
+        ReflectionTestUtils.setField(service, "baseUrl", simulator.baseUrl());
+        return service;
+    }
+
+    private static int gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.demo.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Dashboard-Polling von /details: Jeder Ort wird wiederholt abgefragt, einmal vollständig und einmal mit
+ * {@code since}. Eine Poll-Runde ({@code bench.pollMs}) steht für eine Minute; die Cache-TTLs sind im selben
+ * Verhältnis verkürzt, sodass sich Conditions etwa alle fünf Runden ändern, Vorhersagen deutlich seltener.
+ * Ausgegeben werden Bytes pro Abfrage und wie oft welcher Abschnitt mitgeschickt wurde.
+ */
+@TestPropertySource(properties = {
+        "weather.cache.current.ttl-seconds=5",
+        "weather.cache.forecast.ttl-seconds=30",
+        "weather.cache.hourly.ttl-seconds=15",
+        "weather.cache.airQuality.ttl-seconds=15",
+        "weather.cache.alerts.ttl-seconds=5"
+})
+class DeltaPollingBenchmark extends SimulatedBackendBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String[] SECTIONS = {"current", "forecast", "hourly", "airQuality", "alerts"};
+
+    @Test
+    void bytesPerPoll() throws Exception {
+        int locations = intProperty("bench.locations", 20);
+        int polls = intProperty("bench.polls", 40);
+        long pollNanos = intProperty("bench.pollMs", 1000) * 1_000_000L;
+
+        Map<Integer, String> versions = new HashMap<>();
+        Map<String, Integer> sectionsSent = new HashMap<>();
+        long fullBytes = 0;
+        long deltaBytes = 0;
+        long deltaResponses = 0;
+
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            for (int poll = 0; poll < polls; poll++) {
+                long roundStart = System.nanoTime();
+                for (int i = 0; i < locations; i++) {
+                    double[] city = Workloads.CITIES[i % Workloads.CITIES.length];
+                    String path = "/api/weather/details?lat=" + city[0] + "&lon=" + city[1];
+
+                    fullBytes += get(client, path).length;
+
+                    String since = versions.get(i);
+                    byte[] body = get(client, since != null
+                            ? path + "&since=" + URLEncoder.encode(since, StandardCharsets.UTF_8)
+                            : path);
+                    deltaBytes += body.length;
+                    JsonNode root = MAPPER.readTree(body);
+                    versions.put(i, root.path("version").asText());
+                    if (root.path("delta").asBoolean()) {
+                        deltaResponses++;
+                        for (String section : SECTIONS) {
+                            if (root.has(section)) {
+                                sectionsSent.merge(section, 1, Integer::sum);
+                            }
+                        }
+                    }
+                }
+                LockSupport.parkNanos(pollNanos - (System.nanoTime() - roundStart));
+            }
+        }
+
+        long requests = (long) locations * polls;
+        System.out.printf("[delta] %d Orte × %d Abfragen: vollständig %.0f Bytes/Abfrage, mit since %.0f Bytes/Abfrage (%.0f %%)%n",
+                locations, polls, fullBytes / (double) requests, deltaBytes / (double) requests, 100.0 * deltaBytes / fullBytes);
+        System.out.printf("[delta] Delta-Antworten=%d, davon mit Abschnitt: %s%n", deltaResponses, sectionsSent);
+    }
+
+    private byte[] get(HttpClient client, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(appUrl() + path))
+                .header("Accept", "application/json")
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+}
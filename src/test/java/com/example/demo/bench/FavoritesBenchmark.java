@@ -0,0 +1,129 @@
+package com.example.demo.bench;
+
+import com.example.demo.AppUser;
+import com.example.demo.AppUserRepository;
+import com.example.demo.FavoriteLocation;
+import com.example.demo.FavoriteLocationRepository;
+import com.example.demo.service.FavoritesCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Dashboard-Aufrufe der Favoriten: Entity-Abfrage wie bisher, DTO-Projektion und Cache im Vergleich,
+ * jeweils mit Latenz und Anzahl SQL-Statements pro Aufruf. Dazu die HTTP-Latenz für 200 und 304.
+ */
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "security.password.bcrypt-strength=4"
+})
+class FavoritesBenchmark extends SimulatedBackendBenchmark {
+
+    private static final int USERS = Integer.getInteger("bench.users", 200);
+    private static final int FAVORITES = Integer.getInteger("bench.favorites", 10);
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 20_000);
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private FavoriteLocationRepository favoriteLocationRepository;
+
+    @Autowired
+    private FavoritesCache favoritesCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void dashboardLoads() throws Exception {
+        List<String> usernames = seed();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        measure("entities", statistics, usernames, favoriteLocationRepository::findByAppUserUsername);
+        measure("projektion", statistics, usernames, favoriteLocationRepository::findViewsByUsername);
+        measure("cache", statistics, usernames, username ->
+                favoritesCache.get(username, () -> favoriteLocationRepository.findViewsByUsername(username)));
+
+        measureHttp(usernames.get(0));
+    }
+
+    private List<String> seed() {
+        List<String> usernames = new ArrayList<>();
+        for (int u = 0; u < USERS; u++) {
+            AppUser user = appUserRepository.save(new AppUser("fav-bench-" + u, "{noop}unused"));
+            for (int f = 0; f < FAVORITES; f++) {
+                FavoriteLocation location = new FavoriteLocation("Ort " + f, "Germany", 47 + f * 0.3, 6 + u * 0.01);
+                location.setAppUser(user);
+                favoriteLocationRepository.save(location);
+            }
+            usernames.add(user.getUsername());
+        }
+        return usernames;
+    }
+
+    private static void measure(String name, Statistics statistics, List<String> usernames, Consumer<String> load) {
+        for (int i = 0; i < ITERATIONS / 10; i++) {
+            load.accept(usernames.get(i % usernames.size()));
+        }
+        statistics.clear();
+        LatencyStats stats = new LatencyStats();
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            load.accept(usernames.get(i % usernames.size()));
+            stats.record(System.nanoTime() - start);
+        }
+        System.out.printf("[favorites] %-10s %s statements/Aufruf=%.2f%n",
+                name, stats.summary(), statistics.getPrepareStatementCount() / (double) ITERATIONS);
+    }
+
+    private void measureHttp(String username) throws Exception {
+        String password = "bench-password";
+        HttpClient client = HttpClient.newHttpClient();
+        client.send(HttpRequest.newBuilder(URI.create(appUrl() + "/register"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"username\":\"" + username + "-http\",\"password\":\"" + password + "\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        String authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((username + "-http:" + password).getBytes(StandardCharsets.UTF_8));
+
+        String etag = client.send(HttpRequest.newBuilder(URI.create(appUrl() + "/favoriteLocations"))
+                        .header("Authorization", authorization).build(),
+                HttpResponse.BodyHandlers.discarding()).headers().firstValue("ETag").orElse("");
+
+        for (boolean conditional : new boolean[]{false, true}) {
+            LatencyStats stats = new LatencyStats();
+            int notModified = 0;
+            for (int i = 0; i < ITERATIONS / 20; i++) {
+                HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(appUrl() + "/favoriteLocations"))
+                        .header("Authorization", authorization);
+                if (conditional) {
+                    request.header("If-None-Match", etag);
+                }
+                long start = System.nanoTime();
+                HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+                stats.record(System.nanoTime() - start);
+                if (response.statusCode() == 304) {
+                    notModified++;
+                }
+            }
+            System.out.printf("[favorites] http %-13s %s 304=%d%n",
+                    conditional ? "If-None-Match" : "ohne ETag", stats.summary(), notModified);
+        }
+    }
+}
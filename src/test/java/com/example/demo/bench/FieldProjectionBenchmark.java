@@ -0,0 +1,66 @@
+package com.example.demo.bench;
+
+import com.example.demo.service.WeatherSection;
+import com.example.demo.sim.XweatherSimulator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Misst pro Abschnitt die empfangenen Bytes, die Übertragungsdauer und die Parse-Dauer (JSON-Baum) einer
+ * Xweather-Antwort, einmal vollständig und einmal mit {@code fields=} aus {@link WeatherSection#getFields()}.
+ * Der Simulator liefert dabei dieselben synthetischen Daten wie bei den Lasttests.
+ */
+@Tag("benchmark")
+class FieldProjectionBenchmark {
+
+    private static final int REQUESTS = Integer.getInteger("bench.requests", 2000);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void bytesAndParseTimePerSection() throws Exception {
+        RestTemplate restTemplate = new RestTemplate();
+        try (XweatherSimulator simulator = new XweatherSimulator().start()) {
+            for (WeatherSection section : WeatherSection.values()) {
+                for (boolean projected : new boolean[]{false, true}) {
+                    Workloads workloads = new Workloads(11);
+                    LatencyStats transfer = new LatencyStats();
+                    LatencyStats parse = new LatencyStats();
+                    long bytes = 0;
+                    for (int i = 0; i < REQUESTS; i++) {
+                        double[] c = i % 4 == 0 ? workloads.randomCoordinate() : workloads.coordinate(2);
+                        String url = simulator.baseUrl() + path(section, c[0], c[1])
+                                + (projected ? "&fields=" + String.join(",", section.getFields()) : "");
+
+                        long start = System.nanoTime();
+                        String response = restTemplate.getForObject(url, String.class);
+                        transfer.record(System.nanoTime() - start);
+
+                        start = System.nanoTime();
+                        MAPPER.readTree(response);
+                        parse.record(System.nanoTime() - start);
+                        bytes += response.getBytes(StandardCharsets.UTF_8).length;
+                    }
+                    System.out.printf(Locale.ROOT, "[fields] %-10s %-9s bytes/req=%6d transfer p50=%.2fms p99=%.2fms parse p50=%.1fµs p99=%.1fµs%n",
+                            section.getKey(), projected ? "projected" : "full", bytes / REQUESTS,
+                            transfer.percentileMillis(50), transfer.percentileMillis(99),
+                            parse.percentileMillis(50) * 1000, parse.percentileMillis(99) * 1000);
+                }
+            }
+        }
+    }
+
+    private static String path(WeatherSection section, double lat, double lon) {
+        return switch (section) {
+            case CONDITIONS -> String.format(Locale.ROOT, "/conditions/%s,%s?units=m", lat, lon);
+            case FORECAST -> String.format(Locale.ROOT, "/forecasts/%s,%s?filter=day&limit=5&units=m", lat, lon);
+            case HOURLY -> String.format(Locale.ROOT, "/forecasts/%s,%s?filter=1hr&limit=6&units=m", lat, lon);
+            case AIR_QUALITY -> String.format(Locale.ROOT, "/airquality/%s,%s?client_id=bench", lat, lon);
+            case ALERTS -> String.format(Locale.ROOT, "/alerts/%s,%s?client_id=bench", lat, lon);
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.bench;
+
+import com.example.demo.service.ForecastSeries;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Vergleicht Speicherbedarf pro zwischengespeichertem Ort und Antwortgröße der spaltenbasierten
+ * {@link ForecastSeries} mit dem bisherigen Layout (eine HashMap pro Periode).
+ */
+@Tag("benchmark")
+class ForecastSeriesBenchmark {
+
+    private static final int LOCATIONS = Integer.getInteger("bench.locations", 2_000);
+    private static final String[] ICONS = {"sunny.png", "pcloudy.png", "cloudy.png", "showers.png"};
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void memoryAndPayload() throws IOException {
+        for (int hours : new int[]{6, 48, 120, 240}) {
+            long mapBytes = retainedBytesPerLocation(i -> mapLayout(i, hours));
+            long columnBytes = retainedBytesPerLocation(i -> columnLayout(i, hours));
+
+            byte[] mapJson = mapper.writeValueAsBytes(mapLayout(1, hours));
+            byte[] columnJson = mapper.writeValueAsBytes(columnLayout(1, hours));
+
+            System.out.printf("[forecast-series] hours=%3d heap/location map=%,d B columnar=%,d B (%.1fx) | "
+                            + "json map=%,d B columnar=%,d B | gzip map=%,d B columnar=%,d B%n",
+                    hours, mapBytes, columnBytes, mapBytes / (double) columnBytes,
+                    mapJson.length, columnJson.length, gzip(mapJson), gzip(columnJson));
+        }
+    }
+
+    private static List<Map<String, Object>> mapLayout(int location, int hours) {
+        List<Map<String, Object>> periods = new ArrayList<>();
+        for (int h = 0; h < hours; h++) {
+            Map<String, Object> hourly = new HashMap<>();
+            hourly.put("timestamp", 1_700_000_000L + h * 3600L);
+            hourly.put("temp", 10.0 + (location + h) % 15 / 10.0);
+            hourly.put("feelsLike", 9.0 + (location + h) % 15 / 10.0);
+            hourly.put("windSpeed", 12.0 + h % 7);
+            hourly.put("humidity", 60.0 + h % 20);
+            hourly.put("pop", (double) (h % 5 * 10));
+            hourly.put("icon", ICONS[(location + h / 6) % ICONS.length]);
+            periods.add(hourly);
+        }
+        return periods;
+    }
+
+    private static ForecastSeries columnLayout(int location, int hours) {
+        ForecastSeries.Builder builder = new ForecastSeries.Builder("m", hours);
+        for (int h = 0; h < hours; h++) {
+            builder.add(1_700_000_000L + h * 3600L,
+                    (float) (10.0 + (location + h) % 15 / 10.0),
+                    (float) (9.0 + (location + h) % 15 / 10.0),
+                    12 + h % 7, 60 + h % 20, h % 5 * 10,
+                    ICONS[(location + h / 6) % ICONS.length]);
+        }
+        return builder.build();
+    }
+
+    private static long retainedBytesPerLocation(IntFunction<Object> factory) {
+        Object[] retained = new Object[LOCATIONS];
+        long before = usedHeap();
+        for (int i = 0; i < LOCATIONS; i++) {
+            retained[i] = factory.apply(i);
+        }
+        long after = usedHeap();
+        long perLocation = (after - before) / LOCATIONS;
+        Arrays.fill(retained, null);
+        return perLocation;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static int gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.demo.bench;
+
+import com.example.demo.service.RequestHedger;
+import com.example.demo.service.WeatherDetailService;
+import com.example.demo.sim.XweatherSimulator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Vergleicht die /details-Latenz mit und ohne Hedging gegen einen Simulator mit
+ * Heavy-Tail-Verteilung (Pareto). Ausgegeben werden p50/p99 und der Anteil zusätzlicher Upstream-Aufrufe.
+ */
+@Tag("benchmark")
+class HedgingBenchmark {
+
+    private static final int REQUESTS = Integer.getInteger("bench.requests", 2_000);
+    private static final int CONCURRENCY = Integer.getInteger("bench.concurrency", 16);
+
+    @Test
+    void tailLatencyWithAndWithoutHedging() throws Exception {
+        try (XweatherSimulator simulator = new XweatherSimulator()
+                .latency(XweatherSimulator.LatencyModel.pareto(20, 1.5, 3000))
+                .start()) {
+            run("ohne Hedging", simulator, null);
+            RequestHedger hedger = new RequestHedger(new MockEnvironment()
+                    .withProperty("xweather.hedging.percentile", System.getProperty("bench.percentile", "90"))
+                    .withProperty("xweather.hedging.budget-percent", System.getProperty("bench.budgetPercent", "10")));
+            run("mit Hedging", simulator, hedger);
+        }
+    }
+
+    private static void run(String name, XweatherSimulator simulator, RequestHedger hedger) throws Exception {
+        WeatherDetailService service = new WeatherDetailService();
+        ReflectionTestUtils.setField(service, "restTemplate", new RestTemplate());
+        ReflectionTestUtils.setField(service, "clientId", "bench");
+        ReflectionTestUtils.setField(service, "clientSecret", "bench");
+        ReflectionTestUtils.setField(service, "baseUrl", simulator.baseUrl());
+        ReflectionTestUtils.setField(service, "hedger", hedger);
+
+        Workloads workloads = new Workloads(5);
+        LatencyStats stats = new LatencyStats();
+        simulator.resetCounts();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                double[] c = workloads.coordinate(5);
+                futures.add(executor.submit(() -> {
+                    long start = System.nanoTime();
+                    service.fetchAllWeatherData(c[0], c[1], "m");
+                    stats.record(System.nanoTime() - start);
+                }));
+                if (futures.size() >= CONCURRENCY) {
+                    futures.removeFirst().get();
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        long upstream = simulator.totalRequests();
+        long baseline = REQUESTS * 5L;
+        System.out.printf("[hedging] %-13s %s upstream=%,d (+%.1f%%)%s%n", name, stats.summary(), upstream,
+                100.0 * (upstream - baseline) / baseline,
+                hedger != null ? String.format(" hedges=%d gewonnen=%d", hedger.getHedgesSent(), hedger.getHedgesWon()) : "");
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.bench;
+
+import java.util.Arrays;
+
+/**
+ * Sammelt Latenzen (in Nanosekunden) und berechnet Perzentile.
+ */
+public class LatencyStats {
+
+    private long[] samples = new long[1024];
+    private int size;
+
+    public synchronized void record(long nanos) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+    }
+
+    public synchronized int count() {
+        return size;
+    }
+
+    /**
+     * @param percentile Wert zwischen 0 und 100
+     * @return Latenz in Millisekunden
+     */
+    public synchronized double percentileMillis(double percentile) {
+        if (size == 0) return 0;
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * size) - 1;
+        return sorted[Math.max(0, Math.min(size - 1, index))] / 1_000_000.0;
+    }
+
+    public synchronized double meanMillis() {
+        if (size == 0) return 0;
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += samples[i];
+        }
+        return sum / (double) size / 1_000_000.0;
+    }
+
+    public String summary() {
+        return String.format("n=%d mean=%.2fms p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms",
+                count(), meanMillis(), percentileMillis(50), percentileMillis(95), percentileMillis(99), percentileMillis(100));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.demo.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Offener Lastgenerator mit fester Ankunftsrate.
+ * Anfragen werden unabhängig von laufenden Antworten im festen Takt gestartet; die Latenz
+ * wird ab dem geplanten Startzeitpunkt gemessen, damit Rückstau nicht verschleiert wird.
+ */
+public class LoadGenerator {
+
+    /**
+     * Ergebnis eines Lastlaufs.
+     */
+    public record Report(String name, int targetRate, long sent, long succeeded, long failed,
+                         double elapsedSeconds, LatencyStats latency) {
+
+        public double throughput() {
+            return succeeded / elapsedSeconds;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[%s] rate=%d/s sent=%d ok=%d failed=%d throughput=%.1f/s %s",
+                    name, targetRate, sent, succeeded, failed, throughput(), latency.summary());
+        }
+    }
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final String baseUrl;
+
+    public LoadGenerator(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public Report run(String name, int ratePerSecond, Duration duration, Supplier<String> paths) {
+        return run(name, ratePerSecond, duration, paths, Map.of());
+    }
+
+    public Report run(String name, int ratePerSecond, Duration duration, Supplier<String> paths, Map<String, String> headers) {
+        LatencyStats latency = new LatencyStats();
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        List<CompletableFuture<?>> inflight = new ArrayList<>();
+
+        long intervalNanos = 1_000_000_000L / ratePerSecond;
+        long total = ratePerSecond * duration.toSeconds();
+        long start = System.nanoTime();
+
+        for (long i = 0; i < total; i++) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + paths.get()))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET();
+            headers.forEach(request::header);
+
+            inflight.add(client.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        latency.record(System.nanoTime() - intended);
+                        if (error == null && response.statusCode() < 400) {
+                            succeeded.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    }));
+        }
+
+        try {
+            CompletableFuture.allOf(inflight.toArray(new CompletableFuture[0]))
+                    .exceptionally(e -> null)
+                    .get(60, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            // Nicht abgeschlossene Anfragen zählen als fehlgeschlagen
+        }
+
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        return new Report(name, ratePerSecond, total, succeeded.get(), failed.get(), elapsed, latency);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.bench;
+
+import com.example.demo.sim.XweatherSimulator.LatencyModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lasttest für /api/weather/details und /api/weather/places/search.
+ * Steuerung über System-Properties, z. B.
+ * {@code ./gradlew benchmark -Dbench.rate=100 -Dbench.duration=30 -Dbench.errorRate=0.01}.
+ */
+class LoadTestHarness extends SimulatedBackendBenchmark {
+
+    private final int rate = intProperty("bench.rate", 50);
+    private final Duration duration = Duration.ofSeconds(intProperty("bench.duration", 10));
+
+    @BeforeEach
+    void configureSimulator() {
+        SIMULATOR.latency(LatencyModel.logNormal(Double.parseDouble(System.getProperty("bench.latencyMedianMs", "60")), 0.5))
+                .errorRate(Double.parseDouble(System.getProperty("bench.errorRate", "0.0")))
+                .failureRate(Double.parseDouble(System.getProperty("bench.failureRate", "0.0")))
+                .resetCounts();
+    }
+
+    @Test
+    void details() {
+        Workloads workloads = new Workloads(42);
+        LoadGenerator.Report report = new LoadGenerator(appUrl())
+                .run("details", rate, duration, () -> workloads.detailsPath(3));
+
+        System.out.println(report);
+        System.out.printf("[details] upstream requests=%d (%.2f per request)%n",
+                SIMULATOR.totalRequests(), SIMULATOR.totalRequests() / (double) report.sent());
+        assertTrue(report.succeeded() > 0);
+    }
+
+    @Test
+    void search() {
+        Workloads workloads = new Workloads(7);
+        LoadGenerator.Report report = new LoadGenerator(appUrl())
+                .run("search", rate, duration, workloads::searchPath);
+
+        System.out.println(report);
+        System.out.printf("[search] upstream requests=%d%n", SIMULATOR.requestCount("places"));
+        assertTrue(report.succeeded() > 0);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.bench;
+
+import com.example.demo.service.NearbyWeatherCache;
+import com.example.demo.service.WeatherSection;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Map;
+
+/**
+ * Vergleicht Trefferquote und Lookup-Latenz des koordinatentoleranten Caches mit einem
+ * Cache, der nur exakt gleiche Koordinaten erkennt (Radius 0).
+ * Die Anfragen folgen {@link Workloads}: Zipf-verteilte Städte mit Streuung um das Zentrum
+ * plus ein Anteil zufälliger Kartenklicks.
+ */
+@Tag("benchmark")
+class NearbyWeatherCacheBenchmark {
+
+    private static final int REQUESTS = Integer.getInteger("bench.requests", 200_000);
+
+    @Test
+    void hitRatioAndLatency() {
+        for (double jitterKm : new double[]{0.5, 2, 5}) {
+            run("exact", 0, jitterKm);
+            run("nearby", -1, jitterKm);
+        }
+    }
+
+    private void run(String name, double radiusOverride, double jitterKm) {
+        MockEnvironment environment = new MockEnvironment();
+        if (radiusOverride >= 0) {
+            for (WeatherSection section : WeatherSection.values()) {
+                environment.setProperty("weather.cache." + section.getKey() + ".radius-km", String.valueOf(radiusOverride));
+            }
+        }
+        NearbyWeatherCache cache = new NearbyWeatherCache(environment);
+        Workloads workloads = new Workloads(1);
+
+        StringBuilder line = new StringBuilder(String.format("[nearby-cache] %-6s jitter=%.1fkm", name, jitterKm));
+        LatencyStats lookups = new LatencyStats();
+        for (WeatherSection section : WeatherSection.values()) {
+            long hits = 0;
+            for (int i = 0; i < REQUESTS; i++) {
+                double[] c = i % 10 == 0 ? workloads.randomCoordinate() : workloads.coordinate(jitterKm);
+                long start = System.nanoTime();
+                NearbyWeatherCache.Hit hit = cache.lookup(section, c[0], c[1], "m");
+                lookups.record(System.nanoTime() - start);
+                if (hit != null) {
+                    hits++;
+                } else {
+                    cache.put(section, c[0], c[1], "m", Map.of());
+                }
+            }
+            line.append(String.format(" %s=%.1f%%", section.getKey(), 100.0 * hits / REQUESTS));
+        }
+        line.append(String.format(" lookup p50=%.1fµs p99=%.1fµs",
+                lookups.percentileMillis(50) * 1000, lookups.percentileMillis(99) * 1000));
+        System.out.println(line);
+    }
+}
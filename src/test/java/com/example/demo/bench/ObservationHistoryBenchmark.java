@@ -0,0 +1,110 @@
+package com.example.demo.bench;
+
+import com.example.demo.service.ObservationHistory;
+import com.example.demo.service.ObservationHistoryStore;
+import com.example.demo.service.ObservationMetric;
+import com.example.demo.service.WeatherSection;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * Misst Schreibdurchsatz und Abfragelatenz der Beobachtungshistorie über mehrere Monate
+ * für viele Orte. Standard ist eine eingebettete H2-Datenbank; mit
+ * {@code -Dbench.history.url=jdbc:postgresql://...} (plus user/password) läuft er gegen Postgres.
+ */
+@Tag("benchmark")
+class ObservationHistoryBenchmark {
+
+    private static final int LOCATIONS = Integer.getInteger("bench.locations", 500);
+    private static final int DAYS = Integer.getInteger("bench.days", 90);
+    private static final int OBSERVATIONS_PER_DAY = Integer.getInteger("bench.observationsPerDay", 12);
+    private static final int QUERIES = Integer.getInteger("bench.queries", 2_000);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void ingestAndQuery() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource());
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS weather_observation_day (epoch_day BIGINT PRIMARY KEY)");
+        for (Long day : jdbcTemplate.queryForList("SELECT epoch_day FROM weather_observation_day", Long.class)) {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS weather_observation_" + day);
+        }
+        jdbcTemplate.execute("DROP TABLE weather_observation_day");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS weather_rollup");
+        ObservationHistoryStore store = new ObservationHistoryStore(jdbcTemplate,
+                new DataSourceTransactionManager(jdbcTemplate.getDataSource()), new MockEnvironment(), Optional.empty());
+
+        Workloads workloads = new Workloads(7);
+        double[][] locations = new double[LOCATIONS][];
+        for (int i = 0; i < LOCATIONS; i++) {
+            locations[i] = workloads.randomCoordinate();
+        }
+
+        long now = System.currentTimeMillis() / 1000;
+        long start = now - DAYS * 86400L;
+        long step = 86400L / OBSERVATIONS_PER_DAY;
+
+        long samples = 0;
+        long ingestStart = System.nanoTime();
+        for (long t = start; t < now; t += step) {
+            for (double[] location : locations) {
+                store.record(WeatherSection.CONDITIONS, location[0], location[1], conditions(t, location));
+            }
+            samples += store.flush();
+        }
+        double ingestSeconds = (System.nanoTime() - ingestStart) / 1e9;
+        System.out.printf("[history] ingest locations=%d days=%d samples=%,d in %.1fs (%,.0f samples/s)%n",
+                LOCATIONS, DAYS, samples, ingestSeconds, samples / ingestSeconds);
+
+        Random random = new Random(11);
+        List<ObservationMetric> metrics = List.of(ObservationMetric.TEMP, ObservationMetric.HUMIDITY, ObservationMetric.WIND_SPEED);
+        query("raw 24h", store, locations, random, metrics, ObservationHistory.Resolution.RAW, now - 86400, now);
+        query("hour 30d", store, locations, random, metrics, ObservationHistory.Resolution.HOUR, now - 30 * 86400L, now);
+        query("day 90d", store, locations, random, metrics, ObservationHistory.Resolution.DAY, now - 90 * 86400L, now);
+    }
+
+    private static void query(String name, ObservationHistoryStore store, double[][] locations, Random random,
+                              List<ObservationMetric> metrics, ObservationHistory.Resolution resolution, long from, long to) {
+        LatencyStats stats = new LatencyStats();
+        long points = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            double[] location = locations[random.nextInt(locations.length)];
+            long begin = System.nanoTime();
+            ObservationHistory history = store.query(location[0], location[1], from, to, resolution, metrics, "m");
+            stats.record(System.nanoTime() - begin);
+            points += history.metrics().get("temp").timestamps().length;
+        }
+        System.out.printf("[history] query %-8s avg points=%d %s%n", name, points / QUERIES, stats.summary());
+    }
+
+    private ObjectNode conditions(long timestamp, double[] location) {
+        double hourOfDay = (timestamp / 3600.0 + location[1] / 15.0) % 24;
+        ObjectNode period = mapper.createObjectNode()
+                .put("timestamp", timestamp)
+                .put("tempC", Math.round((15 - location[0] / 6 + 6 * Math.sin((hourOfDay - 9) / 24 * 2 * Math.PI)) * 10) / 10.0)
+                .put("feelslikeC", 14.0)
+                .put("humidity", 50 + (int) (hourOfDay * 2))
+                .put("windSpeedKPH", 10 + timestamp % 13)
+                .put("pressureMB", 1013);
+        ObjectNode root = mapper.createObjectNode().put("success", true);
+        root.putArray("response").addObject().putArray("periods").add(period);
+        return root;
+    }
+
+    private static DataSource dataSource() {
+        String url = System.getProperty("bench.history.url", "jdbc:h2:mem:history;DB_CLOSE_DELAY=-1");
+        return new SingleConnectionDataSource(url,
+                System.getProperty("bench.history.user", "sa"), System.getProperty("bench.history.password", ""), true);
+    }
+}
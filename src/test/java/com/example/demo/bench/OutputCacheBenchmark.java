@@ -0,0 +1,126 @@
+package com.example.demo.bench;
+
+import com.example.demo.WeatherApp;
+import com.example.demo.service.ResponseByteCache;
+import com.example.demo.sim.XweatherSimulator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Geschlossene Last mit {@code bench.threads} Clients auf beliebte Städte (/details, {@code Accept-Encoding: gzip}),
+ * einmal mit Serialisierung und gzip pro Anfrage (Tomcat-Kompression, {@code weather.output-cache.enabled=false})
+ * und einmal mit {@link ResponseByteCache}. Verglichen werden Durchsatz, CPU-Zeit des Prozesses pro Anfrage
+ * (Server und Clients laufen im selben Prozess, der Client-Anteil ist in beiden Läufen gleich) und Bytes pro Antwort.
+ */
+@Tag("benchmark")
+class OutputCacheBenchmark {
+
+    private static final int THREADS = Integer.getInteger("bench.threads", 16);
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("bench.warmup", 5));
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("bench.duration", 15));
+
+    @Test
+    void throughputAndCpuPerRequest() throws Exception {
+        try (XweatherSimulator simulator = new XweatherSimulator().start()) {
+            run("serialize", simulator, false);
+            run("byte-cache", simulator, true);
+        }
+    }
+
+    private static void run(String name, XweatherSimulator simulator, boolean outputCache) throws Exception {
+        try (ConfigurableApplicationContext context = start(simulator, name, outputCache)) {
+            String baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+            load(baseUrl, WARMUP);
+
+            com.sun.management.OperatingSystemMXBean os =
+                    (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+            long cpuStart = os.getProcessCpuTime();
+            long[] result = load(baseUrl, DURATION);
+            long cpuNanos = os.getProcessCpuTime() - cpuStart;
+
+            long requests = result[0];
+            System.out.printf(Locale.ROOT, "[output-cache] %-10s throughput=%.0f req/s cpu=%.1fµs/req bytes/resp=%d failed=%d%n",
+                    name, requests / (double) DURATION.toSeconds(), cpuNanos / 1000.0 / Math.max(1, requests),
+                    result[1] / Math.max(1, requests), result[2]);
+            if (outputCache) {
+                ResponseByteCache cache = context.getBean(ResponseByteCache.class);
+                System.out.printf(Locale.ROOT, "[output-cache] %-10s hits=%d misses=%d entries=%d bytes=%d%n",
+                        name, cache.getHitCount(), cache.getMissCount(), cache.size(), cache.getBytes());
+            }
+        }
+    }
+
+    /**
+     * @return Anzahl erfolgreicher Anfragen, empfangene Bytes, Fehler
+     */
+    private static long[] load(String baseUrl, Duration duration) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong bytes = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        ExecutorService clients = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> running = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Workloads workloads = new Workloads(t);
+            running.add(clients.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + workloads.detailsPath(0)))
+                            .header("Accept", "application/json")
+                            .header("Accept-Encoding", "gzip")
+                            .build();
+                    try {
+                        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        if (response.statusCode() == 200) {
+                            succeeded.incrementAndGet();
+                            bytes.addAndGet(response.body().length);
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : running) {
+            future.get();
+        }
+        clients.shutdown();
+        return new long[]{succeeded.get(), bytes.get(), failed.get()};
+    }
+
+    private static ConfigurableApplicationContext start(XweatherSimulator simulator, String database, boolean outputCache) {
+        return new SpringApplicationBuilder(WeatherApp.class)
+                .profiles("bench")
+                .properties(
+                        "server.port=0",
+                        "XWEATHER_BASE_URL=" + simulator.baseUrl(),
+                        "spring.datasource.url=jdbc:h2:mem:output-" + database + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        "weather.limiter.enabled=false",
+                        "server.compression.enabled=true",
+                        "server.compression.mime-types=application/json,application/cbor,application/x-jackson-smile",
+                        "server.compression.min-response-size=256",
+                        "weather.output-cache.enabled=" + outputCache)
+                .run();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.demo.bench;
+
+import com.example.demo.AppUser;
+import com.example.demo.AppUserRepository;
+import com.example.demo.FavoriteLocation;
+import com.example.demo.FavoriteLocationRepository;
+import com.example.demo.WeatherApp;
+import com.example.demo.service.PartitionedRefreshJob;
+import com.example.demo.sim.XweatherSimulator;
+import com.example.demo.sim.XweatherSimulator.LatencyModel;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drei Anwendungsinstanzen auf einer gemeinsamen H2-Datenbank mit aktivierter Hintergrundaktualisierung
+ * ({@code weather.refresh.enabled}). Gemessen wird pro Intervall, wie viele Koordinaten jede Instanz aktualisiert
+ * und wie viele Xweather-Aufrufe dabei entstehen; nach zwei Intervallen wird eine Instanz beendet.
+ * Erwartet: jede Koordinate genau einmal pro Intervall, auch nach dem Ausfall.
+ */
+@Tag("benchmark")
+class PartitionedRefreshBenchmark {
+
+    private static final int FAVORITES = Integer.getInteger("bench.favorites", 200);
+    private static final int INTERVAL_SECONDS = 4;
+
+    @Test
+    void refreshOncePerInterval() throws InterruptedException {
+        try (XweatherSimulator simulator = new XweatherSimulator().latency(LatencyModel.logNormal(30, 0.5)).start()) {
+            List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+            for (int i = 1; i <= 3; i++) {
+                contexts.add(start(simulator, "node-" + i));
+            }
+            try {
+                seed(contexts.get(0));
+                long[] before = new long[contexts.size()];
+                for (int interval = 1; interval <= 5; interval++) {
+                    simulator.resetCounts();
+                    Thread.sleep(INTERVAL_SECONDS * 1000L);
+                    StringBuilder perNode = new StringBuilder();
+                    long total = 0;
+                    for (int i = 0; i < contexts.size(); i++) {
+                        ConfigurableApplicationContext context = contexts.get(i);
+                        if (!context.isActive()) {
+                            perNode.append(" node-").append(i + 1).append("=-");
+                            continue;
+                        }
+                        long count = context.getBean(PartitionedRefreshJob.class).getRefreshedCount();
+                        perNode.append(" node-").append(i + 1).append('=').append(count - before[i]);
+                        total += count - before[i];
+                        before[i] = count;
+                    }
+                    System.out.printf("[refresh] interval=%d%s total=%d of %d upstream requests=%d%n",
+                            interval, perNode, total, FAVORITES, simulator.totalRequests());
+                    if (interval == 2) {
+                        contexts.get(2).close();
+                    }
+                }
+            } finally {
+                contexts.forEach(ConfigurableApplicationContext::close);
+            }
+        }
+    }
+
+    private static void seed(ConfigurableApplicationContext context) {
+        AppUser user = context.getBean(AppUserRepository.class).save(new AppUser("refresh-bench", "{noop}unused"));
+        FavoriteLocationRepository repository = context.getBean(FavoriteLocationRepository.class);
+        for (int f = 0; f < FAVORITES; f++) {
+            FavoriteLocation location = new FavoriteLocation("Ort " + f, "Germany", 47 + (f / 20) * 0.4, 6 + (f % 20) * 0.45);
+            location.setAppUser(user);
+            repository.save(location);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(XweatherSimulator simulator, String nodeId) {
+        return new SpringApplicationBuilder(WeatherApp.class)
+                .profiles("bench")
+                .properties(
+                        "server.port=0",
+                        "XWEATHER_BASE_URL=" + simulator.baseUrl(),
+                        "spring.datasource.url=jdbc:h2:mem:refresh-cluster;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        "weather.shared-cache.enabled=true",
+                        "weather.refresh.enabled=true",
+                        "weather.refresh.interval-seconds=" + INTERVAL_SECONDS,
+                        "weather.refresh.tick-seconds=1",
+                        "weather.cluster.node-id=" + nodeId,
+                        "weather.cluster.heartbeat-ms=500",
+                        "weather.cluster.timeout-ms=1500")
+                .run();
+    }
+}
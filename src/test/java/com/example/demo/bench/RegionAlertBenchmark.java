@@ -0,0 +1,102 @@
+package com.example.demo.bench;
+
+import com.example.demo.service.RegionAlertCache;
+import com.example.demo.service.WeatherDetailService;
+import com.example.demo.sim.XweatherSimulator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Misst den {@link RegionAlertCache}: Dauer einer Punkt-in-Polygon-Abfrage bei vielen Warnpolygonen pro Kachel
+ * und die Zahl der /alerts-Aufrufe für viele verschiedene Koordinaten mit und ohne Regionsmodus.
+ */
+@Tag("benchmark")
+class RegionAlertBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final int POLYGONS = Integer.getInteger("bench.polygons", 200);
+    private static final int VERTICES = Integer.getInteger("bench.vertices", 64);
+    private static final int LOOKUPS = Integer.getInteger("bench.lookups", 2_000_000);
+    private static final int COORDINATES = Integer.getInteger("bench.coordinates", 2_000);
+
+    @Test
+    void lookupSpeed() {
+        RegionAlertCache cache = new RegionAlertCache(new MockEnvironment()
+                .withProperty("weather.alerts.region.tile-deg", "4")
+                .withProperty("weather.alerts.region.limit", String.valueOf(POLYGONS + 1)));
+        Function<RegionAlertCache.Region, JsonNode> loader = RegionAlertBenchmark::syntheticRegion;
+
+        Random random = new Random(7);
+        long hits = 0;
+        for (int i = 0; i < LOOKUPS / 10; i++) {
+            hits += cache.lookup(48 + random.nextDouble() * 4, 12 + random.nextDouble() * 4, loader).size();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            hits += cache.lookup(48 + random.nextDouble() * 4, 12 + random.nextDouble() * 4, loader).size();
+        }
+        double nanosPerLookup = (System.nanoTime() - start) / (double) LOOKUPS;
+        System.out.printf("[region-alerts] %d Polygone à %d Punkte: %.0f ns pro Abfrage (%d Treffer)%n",
+                POLYGONS, VERTICES, nanosPerLookup, hits);
+    }
+
+    @Test
+    void upstreamCallsPerCoordinate() {
+        try (XweatherSimulator simulator = new XweatherSimulator().start()) {
+            run("pro Koordinate", simulator, null);
+            run("pro Region", simulator, new RegionAlertCache(new MockEnvironment()));
+        }
+    }
+
+    private static void run(String name, XweatherSimulator simulator, RegionAlertCache regionAlerts) {
+        WeatherDetailService service = new WeatherDetailService();
+        ReflectionTestUtils.setField(service, "restTemplate", new RestTemplate());
+        ReflectionTestUtils.setField(service, "clientId", "bench");
+        ReflectionTestUtils.setField(service, "clientSecret", "bench");
+        ReflectionTestUtils.setField(service, "baseUrl", simulator.baseUrl());
+        ReflectionTestUtils.setField(service, "regionAlerts", regionAlerts);
+
+        Workloads workloads = new Workloads(3);
+        simulator.resetCounts();
+        for (int i = 0; i < COORDINATES; i++) {
+            double[] c = workloads.coordinate(30);
+            service.fetchAllWeatherData(c[0], c[1], "m");
+        }
+        System.out.printf("[region-alerts] %-14s %d Koordinaten, /alerts-Aufrufe=%d%n",
+                name, COORDINATES, simulator.requestCount("alerts"));
+    }
+
+    /**
+     * Zufällige, sich teilweise überlappende Kreise (als Polygone) in der Kachel.
+     */
+    private static JsonNode syntheticRegion(RegionAlertCache.Region region) {
+        Random random = new Random(11);
+        ObjectNode root = MAPPER.createObjectNode().put("success", true);
+        ArrayNode response = root.putArray("response");
+        for (int p = 0; p < POLYGONS; p++) {
+            double centerLat = region.south() + random.nextDouble() * (region.north() - region.south());
+            double centerLon = region.west() + random.nextDouble() * (region.east() - region.west());
+            double radius = 0.05 + random.nextDouble() * 0.3;
+            ObjectNode alert = response.addObject();
+            alert.putObject("details").put("type", "SIM." + p).put("body", "Warnung " + p).put("priority", 50);
+            ObjectNode geoPoly = alert.putObject("geoPoly").put("type", "Polygon");
+            ArrayNode ring = geoPoly.putArray("coordinates").addArray();
+            for (int v = 0; v <= VERTICES; v++) {
+                double angle = 2 * Math.PI * v / VERTICES;
+                ring.addArray().add(centerLon + radius * Math.cos(angle)).add(centerLat + radius * Math.sin(angle));
+            }
+        }
+        return root;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.bench;
+
+import com.example.demo.WeatherApp;
+import com.example.demo.sim.XweatherSimulator;
+import com.example.demo.sim.XweatherSimulator.LatencyModel;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Zwei Anwendungsinstanzen im selben Prozess auf einer gemeinsamen H2-Datenbank, die Last wird
+ * gleichmäßig verteilt. Verglichen wird die Zahl der Xweather-Aufrufe pro /details-Anfrage
+ * mit und ohne gemeinsamen Cache ({@code weather.shared-cache.enabled}).
+ */
+@Tag("benchmark")
+class SharedCacheClusterBenchmark {
+
+    private static final int RATE = Integer.getInteger("bench.rate", 50);
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("bench.duration", 10));
+
+    @Test
+    void upstreamCallsPerRequest() {
+        try (XweatherSimulator simulator = new XweatherSimulator().latency(LatencyModel.logNormal(60, 0.5)).start()) {
+            run("lokal", simulator, false);
+            run("gemeinsam", simulator, true);
+        }
+    }
+
+    private static void run(String name, XweatherSimulator simulator, boolean shared) {
+        String database = "cluster-" + name;
+        try (ConfigurableApplicationContext first = start(simulator, database, shared);
+             ConfigurableApplicationContext second = start(simulator, database, shared)) {
+            simulator.resetCounts();
+            Workloads workloads = new Workloads(42);
+
+            List<CompletableFuture<LoadGenerator.Report>> runs = List.of(first, second).stream()
+                    .map(context -> CompletableFuture.supplyAsync(() -> new LoadGenerator(url(context))
+                            .run(name, RATE / 2, DURATION, () -> workloads.detailsPath(3))))
+                    .toList();
+            long sent = 0;
+            for (CompletableFuture<LoadGenerator.Report> run : runs) {
+                LoadGenerator.Report report = run.join();
+                System.out.println(report);
+                sent += report.sent();
+            }
+            System.out.printf("[shared-cache] %-9s upstream requests=%d (%.2f per request)%n",
+                    name, simulator.totalRequests(), simulator.totalRequests() / (double) sent);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(XweatherSimulator simulator, String database, boolean shared) {
+        return new SpringApplicationBuilder(WeatherApp.class)
+                .profiles("bench")
+                .properties(
+                        "server.port=0",
+                        "XWEATHER_BASE_URL=" + simulator.baseUrl(),
+                        "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        "weather.shared-cache.enabled=" + shared)
+                .run();
+    }
+
+    private static String url(ConfigurableApplicationContext context) {
+        return "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+    }
+}
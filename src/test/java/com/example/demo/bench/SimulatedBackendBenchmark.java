@@ -0,0 +1,38 @@
+package com.example.demo.bench;
+
+import com.example.demo.sim.XweatherSimulator;
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Basisklasse für Benchmarks, die die vollständige Spring-Anwendung gegen den
+ * {@link XweatherSimulator} betreiben. Simulator und Anwendungskontext werden von allen
+ * Unterklassen gemeinsam genutzt.
+ */
+@Tag("benchmark")
+@ActiveProfiles("bench")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public abstract class SimulatedBackendBenchmark {
+
+    protected static final XweatherSimulator SIMULATOR = new XweatherSimulator().start();
+
+    @LocalServerPort
+    protected int port;
+
+    @DynamicPropertySource
+    static void xweatherProperties(DynamicPropertyRegistry registry) {
+        registry.add("XWEATHER_BASE_URL", SIMULATOR::baseUrl);
+    }
+
+    protected String appUrl() {
+        return "http://127.0.0.1:" + port;
+    }
+
+    protected static int intProperty(String name, int defaultValue) {
+        return Integer.parseInt(System.getProperty(name, String.valueOf(defaultValue)));
+    }
+}
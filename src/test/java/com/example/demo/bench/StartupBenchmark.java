@@ -0,0 +1,176 @@
+package com.example.demo.bench;
+
+import com.example.demo.sim.XweatherSimulator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Misst für jeden Startmodus die Zeit bis zur ersten erfolgreichen /details-Antwort und den
+ * Speicherverbrauch (RSS) des Prozesses. Benötigt das gebaute bootJar ({@code bench.bootJar}),
+ * das von {@code ./gradlew benchmark} automatisch gesetzt wird.
+ */
+@Tag("benchmark")
+class StartupBenchmark {
+
+    private static final XweatherSimulator SIMULATOR = new XweatherSimulator();
+    private static final HttpClient CLIENT = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    private static Path workDir;
+    private static Path appJar;
+
+    @BeforeAll
+    static void extractJar() throws Exception {
+        SIMULATOR.start();
+        workDir = Files.createTempDirectory("startup-benchmark");
+        String bootJar = System.getProperty("bench.bootJar");
+        assertTrue(bootJar != null && new File(bootJar).exists(), "bench.bootJar fehlt: " + bootJar);
+
+        run(List.of(java(), "-Djarmode=tools", "-jar", bootJar, "extract", "--destination", workDir.resolve("app").toString()), 60);
+        appJar = workDir.resolve("app").resolve(new File(bootJar).getName());
+    }
+
+    @AfterAll
+    static void stopSimulator() {
+        SIMULATOR.close();
+    }
+
+    @Test
+    void startupModes() throws Exception {
+        int runs = Integer.parseInt(System.getProperty("bench.startupRuns", "3"));
+        Path aotCache = workDir.resolve("app.aot");
+
+        List<String> training = new ArrayList<>(List.of("-XX:AOTCacheOutput=" + aotCache, "-Dspring.aot.enabled=true",
+                "-Dspring.context.exit=onRefresh", "-Dspring.jpa.hibernate.ddl-auto=none",
+                "-Dspring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false"));
+        run(command(training, freePort()), 120);
+
+        report("default", runs, List.of());
+        report("lazy", runs, List.of("-Dspring.profiles.active=fast-startup"));
+        report("aot+lazy", runs, List.of("-Dspring.aot.enabled=true", "-Dspring.profiles.active=fast-startup"));
+        report("aot+lazy+aot-cache", runs, List.of("-XX:AOTCache=" + aotCache, "-Dspring.aot.enabled=true",
+                "-Dspring.profiles.active=fast-startup"));
+    }
+
+    private void report(String mode, int runs, List<String> jvmArgs) throws Exception {
+        List<Long> times = new ArrayList<>();
+        List<Long> rss = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            int port = freePort();
+            Process process = new ProcessBuilder(command(jvmArgs, port))
+                    .redirectErrorStream(true)
+                    .redirectOutput(workDir.resolve(mode.replace('+', '_') + ".log").toFile())
+                    .start();
+            try {
+                long start = System.nanoTime();
+                awaitFirstSuccess(port, process);
+                times.add((System.nanoTime() - start) / 1_000_000);
+                rss.add(rssKb(process.pid()));
+            } finally {
+                process.destroy();
+                process.waitFor(10, TimeUnit.SECONDS);
+            }
+        }
+        times.sort(Long::compare);
+        rss.sort(Long::compare);
+        System.out.printf("[startup] mode=%-20s first-request median=%dms min=%dms rss median=%dMB%n",
+                mode, times.get(times.size() / 2), times.get(0), rss.get(rss.size() / 2) / 1024);
+    }
+
+    private List<String> command(List<String> jvmArgs, int port) {
+        List<String> command = new ArrayList<>();
+        command.add(java());
+        command.addAll(jvmArgs);
+        command.addAll(Arrays.asList(
+                "-cp", appJar + File.pathSeparator + h2Jar(),
+                "-Dserver.port=" + port,
+                "-Dspring.datasource.url=jdbc:h2:mem:startup",
+                "-Dspring.datasource.driver-class-name=org.h2.Driver",
+                "-Dspring.datasource.username=sa",
+                "-Dspring.datasource.password=",
+                "-Dspring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "-DXWEATHER_CLIENT_ID=bench",
+                "-DXWEATHER_CLIENT_SECRET=bench",
+                "-DXWEATHER_BASE_URL=" + SIMULATOR.baseUrl(),
+                "com.example.demo.WeatherApp"));
+        return command;
+    }
+
+    private static void awaitFirstSuccess(int port, Process process) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/weather/details?lat=52.52&lon=13.405"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(120);
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Anwendung beendet mit Code " + process.exitValue());
+            }
+            try {
+                if (CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Server noch nicht bereit
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("Keine erfolgreiche Antwort innerhalb von 120s");
+    }
+
+    private static long rssKb(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException e) {
+            // Kein procfs (z. B. macOS)
+        }
+        return 0;
+    }
+
+    private static void run(List<String> command, int timeoutSeconds) throws Exception {
+        Process process = new ProcessBuilder(command).inheritIO().start();
+        if (!process.waitFor(timeoutSeconds, TimeUnit.SECONDS) || process.exitValue() != 0) {
+            process.destroyForcibly();
+            throw new IllegalStateException("Fehlgeschlagen: " + String.join(" ", command));
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String java() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    private static String h2Jar() {
+        try {
+            return Path.of(Class.forName("org.h2.Driver").getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.demo.bench;
+
+import com.example.demo.service.ObservationMetric;
+import com.example.demo.service.WeatherDetailService;
+import com.example.demo.service.WeatherTileCache;
+import com.example.demo.sim.XweatherSimulator;
+import com.example.demo.sim.XweatherSimulator.LatencyModel;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Kartenkacheln gegen den Simulator: Ein Kartenausschnitt über Deutschland wird geladen, nach Osten
+ * verschoben, mit einer zweiten Messgröße überlagert und herausgezoomt. Pro Schritt werden Dauer pro Kachel
+ * sowie /batch-Aufrufe und abgefragte Stützpunkte pro Kachel ausgegeben, dazu zum Vergleich die Zahl der
+ * Einzelaufrufe, die ohne Bündelung und gemeinsame Stützpunkte nötig wären.
+ */
+@Tag("benchmark")
+class WeatherTileBenchmark {
+
+    private static final int ZOOM = Integer.getInteger("bench.zoom", 7);
+    private static final int COLUMNS = Integer.getInteger("bench.columns", 4);
+    private static final int ROWS = Integer.getInteger("bench.rows", 3);
+    private static final int SAMPLES = Integer.getInteger("bench.samples", 4);
+
+    @Test
+    void tileGeneration() {
+        try (XweatherSimulator simulator = new XweatherSimulator().start()) {
+            simulator.latency(LatencyModel.logNormal(Double.parseDouble(System.getProperty("bench.latencyMedianMs", "60")), 0.5));
+            WeatherTileCache tiles = new WeatherTileCache(new MockEnvironment()
+                    .withProperty("weather.tiles.samples", String.valueOf(SAMPLES)));
+            WeatherDetailService service = new WeatherDetailService();
+            ReflectionTestUtils.setField(service, "restTemplate", new RestTemplate());
+            ReflectionTestUtils.setField(service, "clientId", "bench");
+            ReflectionTestUtils.setField(service, "clientSecret", "bench");
+            ReflectionTestUtils.setField(service, "baseUrl", simulator.baseUrl());
+            ReflectionTestUtils.setField(service, "tiles", tiles);
+
+            // Ausschnitt um die Kachel mit Berlin
+            int x0 = (int) Math.floor((13.4 + 180) / 360 * (1 << ZOOM)) - COLUMNS / 2;
+            double latRad = Math.toRadians(52.5);
+            int y0 = (int) Math.floor((1 - Math.log(Math.tan(latRad) + 1 / Math.cos(latRad)) / Math.PI) / 2 * (1 << ZOOM)) - ROWS / 2;
+
+            run("Ausschnitt kalt", simulator, tiles, () -> view(service, ObservationMetric.TEMP, ZOOM, x0, y0));
+            run("Ausschnitt warm", simulator, tiles, () -> view(service, ObservationMetric.TEMP, ZOOM, x0, y0));
+            run("eine Spalte Ost", simulator, tiles, () -> view(service, ObservationMetric.TEMP, ZOOM, x0 + 1, y0));
+            run("Wind darüber", simulator, tiles, () -> view(service, ObservationMetric.WIND_SPEED, ZOOM, x0 + 1, y0));
+            run("herausgezoomt", simulator, tiles, () -> view(service, ObservationMetric.TEMP, ZOOM - 1, x0 / 2, y0 / 2));
+        }
+    }
+
+    private static int view(WeatherDetailService service, ObservationMetric metric, int z, int x0, int y0) {
+        int count = 0;
+        for (int y = y0; y < y0 + ROWS; y++) {
+            for (int x = x0; x < x0 + COLUMNS; x++) {
+                service.fetchTile(metric, z, x, y, "m");
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void run(String name, XweatherSimulator simulator, WeatherTileCache tiles, IntSupplier view) {
+        simulator.resetCounts();
+        long samplesBefore = tiles.getSampleLoadCount();
+        long start = System.nanoTime();
+        int count = view.getAsInt();
+        double millisPerTile = (System.nanoTime() - start) / 1e6 / count;
+        long naive = (long) count * (SAMPLES + 1) * (SAMPLES + 1);
+        System.out.printf("[tiles] %-16s %2d Kacheln %7.1f ms/Kachel, /batch=%.2f, Stützpunkte=%.1f pro Kachel (ohne Bündelung %d Aufrufe)%n",
+                name, count, millisPerTile, simulator.requestCount("batch") / (double) count,
+                (tiles.getSampleLoadCount() - samplesBefore) / (double) count, naive);
+    }
+}
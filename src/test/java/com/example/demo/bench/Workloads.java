@@ -0,0 +1,89 @@
+package com.example.demo.bench;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Realistische Anfrageverteilungen für Benchmarks.
+ * Wenige Städte erhalten den Großteil der Anfragen (Zipf-verteilt); Koordinaten streuen
+ * leicht um das Stadtzentrum, wie bei Suchergebnissen, Favoriten und Kartenklicks.
+ */
+public final class Workloads {
+
+    public static final double[][] CITIES = {
+            {52.520, 13.405}, {48.137, 11.575}, {53.551, 9.993}, {50.938, 6.960}, {50.110, 8.682},
+            {48.775, 9.182}, {51.227, 6.773}, {51.514, 7.468}, {51.455, 7.011}, {51.340, 12.375},
+            {53.079, 8.801}, {51.050, 13.738}, {52.375, 9.732}, {49.452, 11.077}, {48.857, 2.352},
+            {51.507, -0.128}, {48.208, 16.373}, {47.377, 8.541}, {52.370, 4.895}, {50.850, 4.352},
+            {55.676, 12.568}, {59.329, 18.069}, {59.914, 10.752}, {60.170, 24.938}, {52.230, 21.012},
+            {50.075, 14.438}, {47.498, 19.040}, {41.902, 12.496}, {40.417, -3.704}, {38.722, -9.139},
+            {45.464, 9.190}, {43.296, 5.370}, {45.764, 4.836}, {41.385, 2.173}, {53.349, -6.260},
+            {40.713, -74.006}, {34.052, -118.244}, {41.878, -87.630}, {35.676, 139.650}, {-33.869, 151.209}
+    };
+
+    private static final String[] PREFIXES = {"ber", "mün", "ham", "köl", "fra", "stu", "düs", "dor", "ess", "lei",
+            "bre", "dre", "han", "nür", "par", "lon", "wie", "zür", "ams", "brü"};
+
+    private final Random random;
+    private final double[] cumulative;
+
+    public Workloads(long seed) {
+        this(seed, 1.1);
+    }
+
+    public Workloads(long seed, double zipfExponent) {
+        this.random = new Random(seed);
+        this.cumulative = new double[CITIES.length];
+        double sum = 0;
+        for (int i = 0; i < CITIES.length; i++) {
+            sum += 1 / Math.pow(i + 1, zipfExponent);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    /**
+     * Liefert eine Stadtkoordinate mit bis zu {@code jitterKm} Abweichung.
+     */
+    public synchronized double[] coordinate(double jitterKm) {
+        double[] city = CITIES[zipfIndex()];
+        double jitterDeg = jitterKm / 111.0;
+        double lat = city[0] + random.nextGaussian() * jitterDeg / 2;
+        double lon = city[1] + random.nextGaussian() * jitterDeg / 2 / Math.cos(Math.toRadians(city[0]));
+        return new double[]{round4(lat), round4(lon)};
+    }
+
+    /**
+     * Eine zufällige Koordinate irgendwo in Europa, z. B. beim Schwenken der Karte.
+     */
+    public synchronized double[] randomCoordinate() {
+        return new double[]{round4(36 + random.nextDouble() * 24), round4(-10 + random.nextDouble() * 40)};
+    }
+
+    public synchronized String searchPrefix() {
+        return PREFIXES[zipfIndex() % PREFIXES.length];
+    }
+
+    public String detailsPath(double jitterKm) {
+        double[] c = coordinate(jitterKm);
+        return String.format(Locale.ROOT, "/api/weather/details?lat=%s&lon=%s&units=m", c[0], c[1]);
+    }
+
+    public String searchPath() {
+        return "/api/weather/places/search?query=" + java.net.URLEncoder.encode(searchPrefix(), java.nio.charset.StandardCharsets.UTF_8);
+    }
+
+    private int zipfIndex() {
+        double u = random.nextDouble();
+        for (int i = 0; i < cumulative.length; i++) {
+            if (u <= cumulative[i]) return i;
+        }
+        return cumulative.length - 1;
+    }
+
+    private static double round4(double value) {
+        return Math.round(value * 10_000) / 10_000.0;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für den {@link BoundedPasswordEncoder}.
+ * Prüft, dass Hashing im eigenen Pool läuft und bei Auslastung sofort abgewiesen wird.
+ */
+class BoundedPasswordEncoderTest {
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.shutdown();
+    }
+
+    /**
+     * @test Hashen und Prüfen
+     */
+    @Test
+    void encode_shouldProduceVerifiableBcryptHash() {
+        // Arrange
+        encoder = new BoundedPasswordEncoder(4, 1, 1, 2000);
+
+        // Act
+        String hash = encoder.encode("geheim123");
+
+        // Assert
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(encoder.matches("geheim123", hash));
+        assertFalse(encoder.matches("falsch", hash));
+    }
+
+    /**
+     * @test Abweisung bei voller Queue
+     * @description Ist der einzige Hash-Thread belegt und die Queue voll, wird ein weiterer Aufruf
+     * sofort mit {@link PasswordHashingRejectedException} abgewiesen.
+     */
+    @Test
+    void matches_shouldRejectWhenPoolIsSaturated() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(release), 10, 1, 1, 5000);
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("a", "x"));
+        waitUntilActive();
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("b", "x"));
+        Thread.sleep(100);
+
+        // Act
+        long start = System.nanoTime();
+        assertThrows(PasswordHashingRejectedException.class, () -> encoder.matches("c", "x"));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertTrue(elapsedMillis < 100, "Abweisung dauerte " + elapsedMillis + " ms");
+        release.countDown();
+        assertTrue(running.get(1, TimeUnit.SECONDS));
+        assertTrue(queued.get(1, TimeUnit.SECONDS));
+    }
+
+    /**
+     * @test Maximale Wartezeit
+     * @description Dauert das Hashing länger als erlaubt, wird der Aufruf abgebrochen.
+     */
+    @Test
+    void matches_shouldRejectAfterMaxWait() {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(release), 10, 1, 1, 100);
+
+        // Act & Assert
+        assertThrows(PasswordHashingRejectedException.class, () -> encoder.matches("a", "x"));
+        release.countDown();
+    }
+
+    private void waitUntilActive() throws InterruptedException {
+        for (int i = 0; i < 100 && encoder.getActiveCount() == 0; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static PasswordEncoder blockingEncoder(CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+    }
+}
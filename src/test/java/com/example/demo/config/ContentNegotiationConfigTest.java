@@ -0,0 +1,133 @@
+package com.example.demo.config;
+
+import com.example.demo.controller.WeatherController;
+import com.example.demo.controller.WeatherDetailController;
+import com.example.demo.service.WeatherDetailService;
+import com.example.demo.service.WeatherService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testklasse für die Antwortformate aus {@link ContentNegotiationConfig}.
+ * Die Converter stehen wie in Spring Boot vor dem JSON-Converter; JSON muss trotzdem Standard bleiben.
+ * /details läuft hier ohne {@link com.example.demo.service.ResponseByteCache}, also über die Message-Converter.
+ */
+class ContentNegotiationConfigTest {
+
+    private static final Map<String, Object> DETAILS = Map.of(
+            "conditions", Map.of("temp", 12.5, "description", "Leichter Regen"),
+            "distanceKm", Map.of("conditions", 0.0));
+    private static final List<Map<String, Object>> PLACES = List.of(
+            Map.of("name", "Berlin", "country", "Germany", "lat", 52.52, "lon", 13.405));
+
+    private MappingJackson2CborHttpMessageConverter cbor;
+    private MappingJackson2SmileHttpMessageConverter smile;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        ContentNegotiationConfig config = new ContentNegotiationConfig();
+        cbor = config.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json());
+        smile = config.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json());
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+
+        WeatherDetailService detailService = mock(WeatherDetailService.class);
+        when(detailService.fetchAllWeatherData(anyDouble(), anyDouble(), anyString())).thenReturn(DETAILS);
+        WeatherDetailController detailController = new WeatherDetailController();
+        ReflectionTestUtils.setField(detailController, "weatherDetailService", detailService);
+
+        WeatherService weatherService = mock(WeatherService.class);
+        when(weatherService.searchPlaces(anyString())).thenReturn(PLACES);
+        WeatherController weatherController = new WeatherController();
+        ReflectionTestUtils.setField(weatherController, "weatherService", weatherService);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(detailController, weatherController)
+                .setMessageConverters(new ByteArrayHttpMessageConverter(), cbor, smile, new MappingJackson2HttpMessageConverter(json))
+                .build();
+    }
+
+    /**
+     * @test JSON als Standard
+     * @description Ohne Accept-Header und bei einem beliebigen Typ liefern beide Endpunkte JSON.
+     */
+    @Test
+    void endpoints_shouldDefaultToJson() throws Exception {
+        for (String path : List.of("/api/weather/details?lat=52.52&lon=13.405", "/api/weather/places/search?query=ber")) {
+            // Act
+            MockHttpServletResponse withoutAccept = perform(path, null);
+            MockHttpServletResponse anyType = perform(path, "*/*");
+
+            // Assert
+            assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(withoutAccept.getContentType())), path);
+            assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(anyType.getContentType())), path);
+            assertTrue(anyType.getContentAsString().contains("\"Berlin\"") || anyType.getContentAsString().contains("\"temp\":12.5"), path);
+        }
+    }
+
+    /**
+     * @test CBOR
+     * @description Mit {@code Accept: application/cbor} kommt CBOR mit demselben Inhalt.
+     */
+    @Test
+    void endpoints_shouldServeCbor() throws Exception {
+        // Act
+        MockHttpServletResponse details = perform("/api/weather/details?lat=52.52&lon=13.405", MediaType.APPLICATION_CBOR_VALUE);
+        MockHttpServletResponse places = perform("/api/weather/places/search?query=ber", MediaType.APPLICATION_CBOR_VALUE);
+
+        // Assert
+        assertEquals(MediaType.APPLICATION_CBOR_VALUE, details.getContentType());
+        assertEquals(DETAILS, cbor.getObjectMapper().readValue(details.getContentAsByteArray(), Map.class));
+        assertEquals(MediaType.APPLICATION_CBOR_VALUE, places.getContentType());
+        assertEquals(PLACES, cbor.getObjectMapper().readValue(places.getContentAsByteArray(), List.class));
+    }
+
+    /**
+     * @test Smile
+     * @description Mit {@code Accept: application/x-jackson-smile} kommt Smile mit demselben Inhalt.
+     */
+    @Test
+    void endpoints_shouldServeSmile() throws Exception {
+        // Act
+        MockHttpServletResponse details = perform("/api/weather/details?lat=52.52&lon=13.405", ContentNegotiationConfig.APPLICATION_SMILE_VALUE);
+        MockHttpServletResponse places = perform("/api/weather/places/search?query=ber", ContentNegotiationConfig.APPLICATION_SMILE_VALUE);
+
+        // Assert
+        assertEquals(ContentNegotiationConfig.APPLICATION_SMILE_VALUE, details.getContentType());
+        assertEquals(DETAILS, smile.getObjectMapper().readValue(details.getContentAsByteArray(), Map.class));
+        assertEquals(ContentNegotiationConfig.APPLICATION_SMILE_VALUE, places.getContentType());
+        assertEquals(PLACES, smile.getObjectMapper().readValue(places.getContentAsByteArray(), List.class));
+    }
+
+    private MockHttpServletResponse perform(String path, String accept) throws Exception {
+        var request = get(path);
+        if (accept != null) {
+            request.header(HttpHeaders.ACCEPT, accept);
+        }
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für das {@link GradientConcurrencyLimit}.
+ * Die Antwortzeiten werden direkt vorgegeben, damit das Verhalten deterministisch ist.
+ */
+class GradientConcurrencyLimitTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    /**
+     * @test Abweisung über dem Limit
+     * @description Anonyme Anfragen werden schon beim anteiligen Limit abgewiesen, angemeldete erst beim vollen.
+     */
+    @Test
+    void tryAcquire_shouldReserveHeadroomForAuthenticatedRequests() {
+        // Arrange
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(10, 2, 100, 10, 1.5, 0.2, 0.5);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limit.tryAcquire(false));
+        }
+
+        // Act
+        boolean anonymous = limit.tryAcquire(false);
+        int acceptedAuthenticated = 0;
+        while (limit.tryAcquire(true)) {
+            acceptedAuthenticated++;
+        }
+
+        // Assert
+        assertFalse(anonymous);
+        assertEquals(5, acceptedAuthenticated);
+        assertEquals(10, limit.getInflight());
+        assertEquals(1, limit.getRejected(false));
+        assertEquals(1, limit.getRejected(true));
+    }
+
+    /**
+     * @test Limit sinkt bei steigender Latenz
+     * @description Steigt die Antwortzeit auf ein Vielfaches des bisherigen Mittels, wird das Limit deutlich kleiner.
+     */
+    @Test
+    void release_shouldShrinkLimitWhenLatencyRises() {
+        // Arrange
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(40, 4, 100, 10, 1.5, 0.5, 1.0);
+        runRounds(limit, 5, 30, 50 * MILLIS);
+        int before = limit.getLimit();
+
+        // Act
+        runRounds(limit, 10, 30, 500 * MILLIS);
+
+        // Assert
+        assertTrue(limit.getLimit() < before / 2, "Limit " + before + " -> " + limit.getLimit());
+        assertTrue(limit.getLimit() >= 4);
+    }
+
+    /**
+     * @test Limit wächst nur bei Bedarf
+     * @description Bei gleichbleibender Latenz steigt das Limit, solange es ausgeschöpft wird, sonst nicht.
+     */
+    @Test
+    void release_shouldGrowOnlyWhenLimitIsUsed() {
+        // Arrange
+        GradientConcurrencyLimit idle = new GradientConcurrencyLimit(20, 4, 100, 10, 1.5, 0.5, 1.0);
+        GradientConcurrencyLimit busy = new GradientConcurrencyLimit(20, 4, 100, 10, 1.5, 0.5, 1.0);
+
+        // Act
+        runRounds(idle, 10, 2, 50 * MILLIS);
+        runRounds(busy, 10, 20, 50 * MILLIS);
+
+        // Assert
+        assertEquals(20, idle.getLimit());
+        assertTrue(busy.getLimit() > 20);
+    }
+
+    /**
+     * Simuliert Runden mit bis zu {@code concurrency} gleichzeitigen Anfragen, die alle nach {@code rttNanos} fertig werden.
+     */
+    private static void runRounds(GradientConcurrencyLimit limit, int rounds, int concurrency, long rttNanos) {
+        for (int r = 0; r < rounds; r++) {
+            int acquired = 0;
+            while (acquired < concurrency && limit.tryAcquire(true)) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limit.release(rttNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.demo.config;
+
+import com.example.demo.service.RequestTimings;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für den {@link ServerTimingFilter} und die Phasen aus {@link RequestTimings}.
+ */
+class ServerTimingFilterTest {
+
+    /**
+     * @test Server-Timing-Header
+     * @description Phasen aus der Filterkette erscheinen aufsummiert im Header, der Körper bleibt unverändert.
+     */
+    @Test
+    void doFilter_shouldWriteServerTimingHeaderWithPhases() throws Exception {
+        // Arrange
+        ServerTimingFilter filter = new ServerTimingFilter(true, 1000, 100);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/weather/details");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request, response, (req, res) -> {
+            RequestTimings timings = RequestTimings.current();
+            timings.add(RequestTimings.upstream("current"), 12_300_000);
+            timings.add(RequestTimings.PARSE, 400_000);
+            timings.add(RequestTimings.PARSE, 200_000);
+            RequestTimings.beginSerialize();
+            res.getWriter().write("{\"ok\":true}");
+        });
+
+        // Assert
+        String header = response.getHeader(ServerTimingFilter.SERVER_TIMING);
+        assertNotNull(header);
+        assertTrue(header.startsWith("upstream-current;dur=12.3, parse;dur=0.6;desc=\"2x\", serialize;dur="), header);
+        assertTrue(header.contains("total;dur="), header);
+        assertEquals("{\"ok\":true}", response.getContentAsString());
+        assertNull(RequestTimings.current());
+    }
+
+    /**
+     * @test Ohne Diagnosemodus nicht puffern
+     */
+    @Test
+    void doFilter_shouldNotBufferWhenNotInDiagnosticMode() throws Exception {
+        // Arrange
+        ServerTimingFilter filter = new ServerTimingFilter(false, 1000, 100);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/favoriteLocations"), response,
+                (req, res) -> assertSame(response, res));
+
+        // Assert
+        assertNull(response.getHeader(ServerTimingFilter.SERVER_TIMING));
+    }
+
+    /**
+     * @test Server-Timing-Header ohne Puffer
+     * @description Vor dem Schreiben des Körpers steht der Header mit allen bisherigen Phasen, ohne serialize;
+     * der Filter reicht dabei die ursprüngliche Antwort durch.
+     */
+    @Test
+    void beforeBodyWrite_shouldSetServerTimingHeaderWithoutBuffering() throws Exception {
+        // Arrange
+        ServerTimingFilter filter = new ServerTimingFilter(false, 1000, 100);
+        RequestTimingConfig.SerializeTimingAdvice advice = new RequestTimingConfig.SerializeTimingAdvice(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/weather/details"), response, (req, res) -> {
+            assertSame(response, res);
+            RequestTimings.current().add(RequestTimings.upstream("current"), 12_300_000);
+            ServletServerHttpResponse serverResponse = new ServletServerHttpResponse((HttpServletResponse) res);
+            advice.beforeBodyWrite(Map.of("ok", true), null, MediaType.APPLICATION_JSON, null,
+                    new ServletServerHttpRequest((HttpServletRequest) req), serverResponse);
+            serverResponse.getBody().write("{\"ok\":true}".getBytes(StandardCharsets.UTF_8));
+            serverResponse.flush();
+        });
+
+        // Assert
+        String header = response.getHeader(ServerTimingFilter.SERVER_TIMING);
+        assertNotNull(header);
+        assertTrue(header.startsWith("upstream-current;dur=12.3, total;dur="), header);
+        assertFalse(header.contains(RequestTimings.SERIALIZE), header);
+        assertEquals("{\"ok\":true}", response.getContentAsString());
+    }
+
+    /**
+     * @test Ohne gebundene Messung wirkungslos
+     * @description Außerhalb einer Anfrage (z. B. in Service-Tests) wird nichts gemessen.
+     */
+    @Test
+    void record_shouldBeNoOpWithoutBoundTimings() {
+        // Act
+        long start = RequestTimings.start();
+        RequestTimings.record(RequestTimings.DB, start);
+
+        // Assert
+        assertEquals(0, start);
+        assertNull(RequestTimings.current());
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.ResponseByteCache;
+import com.example.demo.service.WeatherDetailService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testklasse für den {@link WeatherDetailController}.
+ * Prüft die Formatauswahl und gzip-Kompression von /details über den {@link ResponseByteCache}
+ * mit denselben Message-Convertern wie in der Anwendung.
+ */
+class WeatherDetailControllerTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final ObjectMapper CBOR = new ObjectMapper(new CBORFactory());
+    private static final ObjectMapper SMILE = new ObjectMapper(new SmileFactory());
+
+    private static final Map<String, Object> DATA = Map.of(
+            "conditions", Map.of("temp", 12.5, "description", "Leichter Regen, später auflockernd. ".repeat(12)),
+            "distanceKm", Map.of("conditions", 0.0));
+
+    private WeatherDetailController controller;
+    private ResponseByteCache outputCache;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        WeatherDetailService service = mock(WeatherDetailService.class);
+        when(service.fetchAllWeatherData(anyDouble(), anyDouble(), anyString())).thenReturn(DATA);
+        MappingJackson2CborHttpMessageConverter cbor = new MappingJackson2CborHttpMessageConverter(CBOR);
+        MappingJackson2SmileHttpMessageConverter smile = new MappingJackson2SmileHttpMessageConverter(SMILE);
+
+        controller = new WeatherDetailController();
+        outputCache = new ResponseByteCache(new MockEnvironment(), Optional.empty());
+        ReflectionTestUtils.setField(controller, "weatherDetailService", service);
+        ReflectionTestUtils.setField(controller, "objectMapper", JSON);
+        ReflectionTestUtils.setField(controller, "cborConverter", cbor);
+        ReflectionTestUtils.setField(controller, "smileConverter", smile);
+        ReflectionTestUtils.setField(controller, "outputCache", outputCache);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setMessageConverters(new ByteArrayHttpMessageConverter(), new MappingJackson2HttpMessageConverter(JSON), cbor, smile)
+                .build();
+    }
+
+    /**
+     * @test JSON als Standard
+     * @description Ohne Accept-Header und bei beliebigem Typ kommt JSON; die zweite Antwort stammt aus dem Cache.
+     */
+    @Test
+    void details_shouldServeJsonByDefaultFromCache() throws Exception {
+        // Act
+        MockHttpServletResponse withoutAccept = details(null, null);
+        MockHttpServletResponse anyType = details("*/*", null);
+
+        // Assert
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, withoutAccept.getContentType());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, anyType.getContentType());
+        assertEquals(DATA, JSON.readValue(anyType.getContentAsByteArray(), Map.class));
+        assertTrue(anyType.getHeaders(HttpHeaders.VARY).toString().contains(HttpHeaders.ACCEPT_ENCODING));
+        assertEquals(1, outputCache.getHitCount());
+    }
+
+    /**
+     * @test Auswahl nach Qualität und Spezifität
+     * @description Der höchste q-Wert gewinnt, bei gleichem q-Wert der spezifischere Typ; q=0 schließt ein Format aus.
+     */
+    @Test
+    void details_shouldNegotiateByQualityAndSpecificity() throws Exception {
+        // Act
+        MockHttpServletResponse cbor = details("application/json;q=0.5, application/cbor", null);
+        MockHttpServletResponse smile = details("application/x-jackson-smile;q=0.9, */*;q=0.1", null);
+        MockHttpServletResponse specific = details("*/*, application/cbor", null);
+        MockHttpServletResponse excluded = details("application/json;q=0, */*", null);
+
+        // Assert
+        assertEquals(MediaType.APPLICATION_CBOR_VALUE, cbor.getContentType());
+        assertEquals(DATA, CBOR.readValue(cbor.getContentAsByteArray(), Map.class));
+        assertEquals("application/x-jackson-smile", smile.getContentType());
+        assertEquals(DATA, SMILE.readValue(smile.getContentAsByteArray(), Map.class));
+        assertEquals(MediaType.APPLICATION_CBOR_VALUE, specific.getContentType());
+        assertEquals(MediaType.APPLICATION_CBOR_VALUE, excluded.getContentType());
+    }
+
+    /**
+     * @test gzip nur auf Wunsch
+     * @description Mit {@code Accept-Encoding: gzip} kommt die komprimierte Variante samt Content-Encoding,
+     * bei {@code gzip;q=0} oder anderen Verfahren die unkomprimierten Bytes.
+     */
+    @Test
+    void details_shouldCompressOnlyWhenGzipAccepted() throws Exception {
+        // Act
+        MockHttpServletResponse gzip = details(null, "deflate, gzip");
+        MockHttpServletResponse refused = details(null, "gzip;q=0, deflate");
+        MockHttpServletResponse brotli = details(null, "br");
+
+        // Assert
+        assertEquals("gzip", gzip.getHeader(HttpHeaders.CONTENT_ENCODING));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.getContentAsByteArray()))) {
+            assertEquals(DATA, JSON.readValue(in.readAllBytes(), Map.class));
+        }
+        assertNull(refused.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(DATA, JSON.readValue(refused.getContentAsByteArray(), Map.class));
+        assertNull(brotli.getHeader(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    /**
+     * @test Nicht unterstütztes Format
+     * @description Passt kein Format zum Accept-Header, antwortet der Endpunkt wie ohne Cache mit 406.
+     */
+    @Test
+    void details_shouldReturnNotAcceptableForUnsupportedType() throws Exception {
+        mockMvc.perform(get("/api/weather/details").param("lat", "52.52").param("lon", "13.405")
+                        .header(HttpHeaders.ACCEPT, "text/html"))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    private MockHttpServletResponse details(String accept, String acceptEncoding) throws Exception {
+        var request = get("/api/weather/details").param("lat", "52.52").param("lon", "13.405");
+        if (accept != null) {
+            request.header(HttpHeaders.ACCEPT, accept);
+        }
+        if (acceptEncoding != null) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.VARY))
+                .andReturn().getResponse();
+    }
+}
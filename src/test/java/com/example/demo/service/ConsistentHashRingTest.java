@@ -0,0 +1,90 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für den {@link ConsistentHashRing}.
+ * Verteilt werden Geohash-Zellen über Mitteleuropa, wie bei der Hintergrundaktualisierung.
+ */
+class ConsistentHashRingTest {
+
+    /**
+     * @test Gleichmäßige Verteilung
+     * @description Bei drei Instanzen bekommt jede zwischen 20 % und 47 % der Zellen.
+     */
+    @Test
+    void owner_shouldSpreadCellsEvenly() {
+        // Arrange
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c"), 64);
+
+        // Act
+        Map<String, Integer> counts = new HashMap<>();
+        List<String> cells = cells();
+        for (String cell : cells) {
+            counts.merge(ring.owner(cell), 1, Integer::sum);
+        }
+
+        // Assert
+        assertEquals(3, counts.size());
+        for (int count : counts.values()) {
+            assertTrue(count > cells.size() * 0.20 && count < cells.size() * 0.47, counts.toString());
+        }
+    }
+
+    /**
+     * @test Wenig Umverteilung
+     * @description Kommt eine vierte Instanz hinzu, wechseln nur Zellen zu ihr, und zwar etwa ein Viertel.
+     */
+    @Test
+    void owner_shouldOnlyMoveCellsToJoiningNode() {
+        // Arrange
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), 64);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "b", "c", "d"), 64);
+
+        // Act
+        int moved = 0;
+        List<String> cells = cells();
+        for (String cell : cells) {
+            String owner = after.owner(cell);
+            if (!owner.equals(before.owner(cell))) {
+                assertEquals("d", owner);
+                moved++;
+            }
+        }
+
+        // Assert
+        assertTrue(moved > cells.size() * 0.12 && moved < cells.size() * 0.40, "verschoben: " + moved);
+    }
+
+    /**
+     * @test Unabhängig von der Reihenfolge
+     * @description Alle Instanzen berechnen aus denselben Mitgliedern denselben Ring.
+     */
+    @Test
+    void owner_shouldNotDependOnNodeOrder() {
+        // Arrange
+        ConsistentHashRing first = new ConsistentHashRing(List.of("c", "a", "b"), 64);
+        ConsistentHashRing second = new ConsistentHashRing(List.of("a", "b", "c"), 64);
+
+        // Assert
+        assertEquals(List.of("a", "b", "c"), first.nodes());
+        for (String cell : cells()) {
+            assertEquals(second.owner(cell), first.owner(cell));
+        }
+        assertNull(new ConsistentHashRing(List.of(), 64).owner("u33db"));
+    }
+
+    private static List<String> cells() {
+        return IntStream.range(0, 4000)
+                .mapToObj(i -> GeoMath.geohash(45 + (i / 80) * 0.2, 5 + (i % 80) * 0.2, 5))
+                .distinct()
+                .toList();
+    }
+}
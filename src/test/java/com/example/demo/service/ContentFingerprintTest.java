@@ -0,0 +1,53 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für den {@link ContentFingerprint}.
+ */
+class ContentFingerprintTest {
+
+    /**
+     * @test Kollisionen von hashCode
+     * @description Werte mit gleichem 32-Bit-hashCode bekommen verschiedene Fingerabdrücke.
+     */
+    @Test
+    void of_shouldSeparateValuesWithEqualHashCode() {
+        // Arrange
+        Map<String, Object> aa = Map.of("description", "Aa");
+        Map<String, Object> bb = Map.of("description", "BB");
+        Map<String, Object> swapped = Map.of("a", 1, "b", 2);
+        Map<String, Object> original = Map.of("a", 2, "b", 1);
+        assertEquals(aa.hashCode(), bb.hashCode());
+
+        // Act & Assert
+        assertNotEquals(ContentFingerprint.of(aa), ContentFingerprint.of(bb));
+        assertNotEquals(ContentFingerprint.of(List.of(1, 2)), ContentFingerprint.of(List.of(2, 1)));
+        assertNotEquals(ContentFingerprint.of(swapped), ContentFingerprint.of(original));
+    }
+
+    /**
+     * @test Gleicher Inhalt
+     * @description Reihenfolge der Map-Einträge und Zahlentyp ändern den Fingerabdruck nicht.
+     */
+    @Test
+    void of_shouldMatchEqualContent() {
+        // Arrange
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("temp", 5);
+        first.put("alerts", List.of());
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("alerts", List.of());
+        second.put("temp", 5.0);
+
+        // Act & Assert
+        assertEquals(ContentFingerprint.of(first), ContentFingerprint.of(second));
+        assertNotEquals(ContentFingerprint.of(null), ContentFingerprint.of(Map.of()));
+    }
+}
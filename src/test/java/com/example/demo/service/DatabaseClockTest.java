@@ -0,0 +1,76 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Testklasse für die {@link DatabaseClock} gegen eine eingebettete H2-Datenbank.
+ */
+class DatabaseClockTest {
+
+    private EmbeddedDatabase database;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    /**
+     * @test Zeit aus der Datenbank
+     * @description Die Uhr liefert die Datenbankzeit, läuft monoton weiter und fragt innerhalb des Abgleichsintervalls
+     * nur einmal ab.
+     */
+    @Test
+    void millis_shouldFollowDatabaseTimeWithoutQueryingEachCall() {
+        // Arrange
+        JdbcTemplate jdbcTemplate = spy(new JdbcTemplate(database));
+        DatabaseClock clock = new DatabaseClock(jdbcTemplate, 60_000);
+
+        // Act
+        long first = clock.millis();
+        long second = clock.millis();
+
+        // Assert
+        assertTrue(Math.abs(first - System.currentTimeMillis()) < 5_000, String.valueOf(first));
+        assertTrue(second >= first);
+        verify(jdbcTemplate, times(1)).queryForObject(anyString(), eq(Timestamp.class));
+    }
+
+    /**
+     * @test Erneuter Abgleich
+     * @description Ist das Abgleichsintervall abgelaufen, wird die Datenbankzeit erneut abgefragt.
+     */
+    @Test
+    void millis_shouldResyncAfterInterval() throws Exception {
+        // Arrange
+        JdbcTemplate jdbcTemplate = spy(new JdbcTemplate(database));
+        DatabaseClock clock = new DatabaseClock(jdbcTemplate, 1);
+
+        // Act
+        clock.millis();
+        Thread.sleep(5);
+        clock.millis();
+
+        // Assert
+        verify(jdbcTemplate, times(2)).queryForObject(anyString(), eq(Timestamp.class));
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.demo.service;
+
+import com.example.demo.FavoriteLocationView;
+import com.example.demo.MutableClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für den {@link FavoritesCache}.
+ * Prüft Treffer, Invalidierung pro Benutzer und die Berechnung des ETags.
+ */
+class FavoritesCacheTest {
+
+    private static final FavoriteLocationView BERLIN = new FavoriteLocationView(1L, "Berlin", "Germany", 52.52, 13.405);
+    private static final FavoriteLocationView HAMBURG = new FavoriteLocationView(2L, "Hamburg", "Germany", 53.55, 9.99);
+
+    private MutableClock clock;
+    private FavoritesCache cache;
+    private AtomicInteger loads;
+    private List<FavoriteLocationView> stored;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        cache = new FavoritesCache(new MockEnvironment().withProperty("favorites.cache.ttl-seconds", "60"), null, clock);
+        loads = new AtomicInteger();
+        stored = new ArrayList<>(List.of(BERLIN));
+    }
+
+    /**
+     * @test Treffer ohne Datenbank
+     */
+    @Test
+    void get_shouldLoadOnlyOnceUntilInvalidated() {
+        // Act
+        FavoritesCache.Entry first = cache.get("alice", this::load);
+        FavoritesCache.Entry second = cache.get("alice", this::load);
+
+        // Assert
+        assertEquals(1, loads.get());
+        assertSame(first, second);
+        assertEquals(List.of(BERLIN), second.favorites());
+    }
+
+    /**
+     * @test Invalidierung pro Benutzer
+     * @description Nach einer Änderung wird nur die Liste des betroffenen Benutzers neu geladen, mit neuem ETag.
+     */
+    @Test
+    void invalidate_shouldReloadOnlyAffectedUser() {
+        // Arrange
+        FavoritesCache.Entry before = cache.get("alice", this::load);
+        cache.get("bob", this::load);
+
+        // Act
+        stored.add(HAMBURG);
+        cache.invalidate("alice");
+        FavoritesCache.Entry after = cache.get("alice", this::load);
+        cache.get("bob", this::load);
+
+        // Assert
+        assertEquals(3, loads.get());
+        assertEquals(2, after.favorites().size());
+        assertNotEquals(before.etag(), after.etag());
+    }
+
+    /**
+     * @test Überschneidung mit Invalidierung
+     * @description Wird während des Ladens invalidiert, wird das möglicherweise veraltete Ergebnis nicht gespeichert.
+     */
+    @Test
+    void get_shouldNotCacheLoadRacingWithInvalidation() {
+        // Act
+        cache.get("alice", () -> {
+            cache.invalidate("alice");
+            return load();
+        });
+        cache.get("alice", this::load);
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * @test Ablauf nach TTL
+     */
+    @Test
+    void get_shouldReloadAfterTtl() {
+        // Arrange
+        cache.get("alice", this::load);
+
+        // Act
+        clock.advanceSeconds(61);
+        cache.get("alice", this::load);
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * @test Stabiler ETag
+     * @description Gleicher Inhalt ergibt denselben ETag, unabhängig von Instanz und Listenobjekt.
+     */
+    @Test
+    void etagOf_shouldDependOnlyOnContent() {
+        // Act
+        String etag = FavoritesCache.etagOf(List.of(BERLIN, HAMBURG));
+
+        // Assert
+        assertEquals(etag, FavoritesCache.etagOf(new ArrayList<>(List.of(
+                new FavoriteLocationView(1L, "Berlin", "Germany", 52.52, 13.405), HAMBURG))));
+        assertNotEquals(etag, FavoritesCache.etagOf(List.of(HAMBURG, BERLIN)));
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+    }
+
+    private List<FavoriteLocationView> load() {
+        loads.incrementAndGet();
+        return List.copyOf(stored);
+    }
+}
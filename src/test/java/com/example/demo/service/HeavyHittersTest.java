@@ -0,0 +1,110 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link HeavyHitters} und den zugrunde liegenden {@link FrequencySketch}.
+ */
+class HeavyHittersTest {
+
+    /**
+     * @test Häufigste Schlüssel
+     * @description Zwischen vielen einmaligen Schlüsseln bleiben die wiederholt angefragten in der Liste,
+     * absteigend nach Häufigkeit; die Schätzung liegt nie unter der tatsächlichen Zahl.
+     */
+    @Test
+    void top_shouldKeepFrequentKeysAmongOneOffs() {
+        // Arrange
+        HeavyHitters heavyHitters = new HeavyHitters(10_000, 5);
+        Random random = new Random(7);
+
+        // Act
+        for (int i = 0; i < 3000; i++) {
+            heavyHitters.record(HeavyHitters.detailsKey(36 + random.nextDouble() * 24, -10 + random.nextDouble() * 40, "m"));
+            if (i % 10 == 0) heavyHitters.record(HeavyHitters.detailsKey(52.52, 13.405, "m"));
+            if (i % 20 == 0) heavyHitters.record(HeavyHitters.searchKey(" Ber"));
+        }
+
+        // Assert
+        List<HeavyHitters.HotKey> top = heavyHitters.top(2);
+        assertEquals(HeavyHitters.detailsKey(52.52, 13.405, "m"), top.get(0).key());
+        assertEquals(HeavyHitters.searchKey("ber"), top.get(1).key());
+        assertTrue(top.get(0).estimate() >= 300 && top.get(0).estimate() < 320, top.toString());
+        assertTrue(heavyHitters.frequency(HeavyHitters.searchKey("BER")) >= 150);
+    }
+
+    /**
+     * @test Verdrängen des seltensten
+     * @description Bei voller Liste verdrängt ein neuer Schlüssel nur den aktuell seltensten und erst, wenn er häufiger ist.
+     */
+    @Test
+    void record_shouldReplaceLeastFrequentWhenTopIsFull() {
+        // Arrange
+        HeavyHitters heavyHitters = new HeavyHitters(1000, 2);
+        for (int i = 0; i < 5; i++) heavyHitters.record("a");
+        for (int i = 0; i < 3; i++) heavyHitters.record("b");
+
+        // Act
+        for (int i = 0; i < 3; i++) heavyHitters.record("c");
+        List<HeavyHitters.HotKey> beforeOvertaking = heavyHitters.top(2);
+        heavyHitters.record("c");
+        for (int i = 0; i < 3; i++) heavyHitters.record("b");
+
+        // Assert
+        assertEquals(List.of(new HeavyHitters.HotKey("a", 5), new HeavyHitters.HotKey("b", 3)), beforeOvertaking);
+        assertEquals(List.of(new HeavyHitters.HotKey("b", 6), new HeavyHitters.HotKey("a", 5)), heavyHitters.top(2));
+    }
+
+    /**
+     * @test Verfall
+     * @description Nach {@code 10 × capacity} Erhöhungen werden die Zähler halbiert, früher häufige Schlüssel
+     * verlieren gegenüber aktuell häufigen.
+     */
+    @Test
+    void record_shouldDecayOldFrequencies() {
+        // Arrange
+        HeavyHitters heavyHitters = new HeavyHitters(16, 10);
+        for (int i = 0; i < 100; i++) {
+            heavyHitters.record("alt");
+        }
+
+        // Act
+        for (int i = 0; i < 200; i++) {
+            heavyHitters.record(i % 2 == 0 ? "neu" : "rauschen-" + (i % 8));
+        }
+
+        // Assert
+        assertTrue(heavyHitters.frequency("alt") < 50, "alt=" + heavyHitters.frequency("alt"));
+        assertEquals("neu", heavyHitters.top(1).get(0).key());
+        assertTrue(heavyHitters.admit("neu", "alt"));
+        assertFalse(heavyHitters.admit("unbekannt", "neu"));
+    }
+
+    /**
+     * @test Häufige Koordinaten
+     * @description Die häufigsten /details-Zellen werden als Zellmittelpunkte geliefert, nur für die Einheit.
+     */
+    @Test
+    void hotCoordinates_shouldReturnCellCentresForUnits() {
+        // Arrange
+        HeavyHitters heavyHitters = new HeavyHitters(1000, 10);
+        heavyHitters.record(HeavyHitters.detailsKey(52.523, 13.401, "m"));
+        heavyHitters.record(HeavyHitters.detailsKey(48.137, 11.575, "m"));
+        heavyHitters.record(HeavyHitters.detailsKey(48.137, 11.575, "m"));
+        heavyHitters.record(HeavyHitters.detailsKey(40.713, -74.006, "e"));
+        heavyHitters.record(HeavyHitters.searchKey("ber"));
+
+        // Act
+        List<double[]> coordinates = heavyHitters.hotCoordinates("m", 10);
+
+        // Assert
+        assertEquals(2, coordinates.size());
+        assertArrayEquals(new double[]{48.135, 11.575}, coordinates.get(0), 1e-9);
+        assertArrayEquals(new double[]{52.525, 13.405}, coordinates.get(1), 1e-9);
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.demo.service;
+
+import com.example.demo.MutableClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für den {@link NearbyWeatherCache}.
+ * Prüft die Suche nach dem nächstgelegenen Ort innerhalb der abschnittsspezifischen Radien.
+ */
+class NearbyWeatherCacheTest {
+
+    private MutableClock clock;
+    private NearbyWeatherCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("weather.cache.current.radius-km", "3")
+                .withProperty("weather.cache.current.ttl-seconds", "300")
+                .withProperty("weather.cache.alerts.radius-km", "1")
+                .withProperty("weather.cache.max-entries", "3");
+        cache = new NearbyWeatherCache(environment, clock);
+    }
+
+    /**
+     * @test Treffer innerhalb des Radius
+     * @description Eine leicht abweichende Koordinate wird vom zwischengespeicherten Ort bedient,
+     * die Entfernung zum verwendeten Ort wird mitgeliefert.
+     */
+    @Test
+    void lookup_shouldReturnNearestEntryWithinRadius() {
+        // Arrange
+        cache.put(WeatherSection.CONDITIONS, 52.52, 13.405, "m", Map.of("temp", 20.5));
+        cache.put(WeatherSection.CONDITIONS, 52.53, 13.405, "m", Map.of("temp", 21.0));
+
+        // Act
+        NearbyWeatherCache.Hit hit = cache.lookup(WeatherSection.CONDITIONS, 52.528, 13.41, "m");
+
+        // Assert
+        assertNotNull(hit);
+        assertEquals(Map.of("temp", 21.0), hit.value());
+        assertEquals(52.53, hit.lat());
+        assertTrue(hit.distanceKm() > 0 && hit.distanceKm() < 1);
+    }
+
+    /**
+     * @test Abschnittsspezifische Radien
+     * @description Dieselbe Entfernung (ca. 2 km) trifft bei Conditions (3 km), aber nicht bei Alerts (1 km).
+     */
+    @Test
+    void lookup_shouldApplyRadiusPerSection() {
+        // Arrange
+        cache.put(WeatherSection.CONDITIONS, 52.52, 13.405, "m", Map.of());
+        cache.put(WeatherSection.ALERTS, 52.52, 13.405, "m", java.util.List.of());
+
+        // Act & Assert
+        assertNotNull(cache.lookup(WeatherSection.CONDITIONS, 52.538, 13.405, "m"));
+        assertNull(cache.lookup(WeatherSection.ALERTS, 52.538, 13.405, "m"));
+    }
+
+    /**
+     * @test Übernommene Ablaufzeit
+     * @description Ein aus dem gemeinsamen Cache übernommener Eintrag läuft mit dem gemeinsamen Eintrag ab,
+     * höchstens aber nach der eigenen TTL.
+     */
+    @Test
+    void put_shouldKeepExpiryOfSharedEntry() {
+        // Arrange
+        long now = clock.millis();
+        cache.put(WeatherSection.CONDITIONS, 52.52, 13.405, "m", Map.of("temp", 20.5), now + 60_000);
+        cache.put(WeatherSection.CONDITIONS, 48.137, 11.575, "m", Map.of("temp", 18.0), now + 3_600_000);
+
+        // Act
+        NearbyWeatherCache.Hit hit = cache.lookup(WeatherSection.CONDITIONS, 52.52, 13.405, "m");
+        clock.advanceSeconds(61);
+        NearbyWeatherCache.Hit expired = cache.lookup(WeatherSection.CONDITIONS, 52.52, 13.405, "m");
+        clock.advanceSeconds(240);
+        NearbyWeatherCache.Hit capped = cache.lookup(WeatherSection.CONDITIONS, 48.137, 11.575, "m");
+
+        // Assert
+        assertEquals(now + 60_000, hit.expiresAt());
+        assertNull(expired);
+        assertNull(capped);
+    }
+
+    /**
+     * @test Einheiten und Ablaufzeit
+     */
+    @Test
+    void lookup_shouldRespectUnitsAndTtl() {
+        // Arrange
+        cache.put(WeatherSection.CONDITIONS, 52.52, 13.405, "m", Map.of());
+
+        // Act & Assert
+        assertNull(cache.lookup(WeatherSection.CONDITIONS, 52.52, 13.405, "e"));
+        clock.advanceSeconds(301);
+        assertNull(cache.lookup(WeatherSection.CONDITIONS, 52.52, 13.405, "m"));
+    }
+
+    /**
+     * @test Größenbegrenzung
+     * @description Bei voller Kapazität wird der älteste Eintrag verdrängt.
+     */
+    @Test
+    void put_shouldEvictOldestEntryWhenFull() {
+        // Arrange
+        cache.put(WeatherSection.CONDITIONS, 10.0, 10.0, "m", Map.of());
+        cache.put(WeatherSection.CONDITIONS, 20.0, 20.0, "m", Map.of());
+        cache.put(WeatherSection.CONDITIONS, 30.0, 30.0, "m", Map.of());
+
+        // Act
+        cache.put(WeatherSection.CONDITIONS, 40.0, 40.0, "m", Map.of());
+
+        // Assert
+        assertEquals(3, cache.size(WeatherSection.CONDITIONS));
+        assertNull(cache.lookup(WeatherSection.CONDITIONS, 10.0, 10.0, "m"));
+        assertNotNull(cache.lookup(WeatherSection.CONDITIONS, 40.0, 40.0, "m"));
+    }
+
+    /**
+     * @test Zulassung nach Häufigkeit
+     * @description Mit {@link HeavyHitters} verdrängt ein einmal angefragter Ort keinen häufig angefragten,
+     * ein häufiger angefragter schon.
+     */
+    @Test
+    void put_shouldOnlyAdmitMoreFrequentEntriesWhenFull() {
+        // Arrange
+        HeavyHitters heavyHitters = new HeavyHitters(1000, 10);
+        MockEnvironment environment = new MockEnvironment().withProperty("weather.cache.max-entries", "2");
+        NearbyWeatherCache admitting = new NearbyWeatherCache(environment, heavyHitters, clock);
+        for (double[] c : new double[][]{{10.0, 10.0}, {10.0, 10.0}, {20.0, 20.0}, {20.0, 20.0}, {30.0, 30.0},
+                {40.0, 40.0}, {40.0, 40.0}, {40.0, 40.0}}) {
+            heavyHitters.record(HeavyHitters.detailsKey(c[0], c[1], "m"));
+        }
+        admitting.put(WeatherSection.CONDITIONS, 10.0, 10.0, "m", Map.of());
+        admitting.put(WeatherSection.CONDITIONS, 20.0, 20.0, "m", Map.of());
+
+        // Act
+        boolean rare = admitting.put(WeatherSection.CONDITIONS, 30.0, 30.0, "m", Map.of());
+        boolean frequent = admitting.put(WeatherSection.CONDITIONS, 40.0, 40.0, "m", Map.of());
+
+        // Assert
+        assertFalse(rare);
+        assertTrue(frequent);
+        assertNull(admitting.lookup(WeatherSection.CONDITIONS, 30.0, 30.0, "m"));
+        assertNull(admitting.lookup(WeatherSection.CONDITIONS, 10.0, 10.0, "m"));
+        assertNotNull(admitting.lookup(WeatherSection.CONDITIONS, 20.0, 20.0, "m"));
+        assertNotNull(admitting.lookup(WeatherSection.CONDITIONS, 40.0, 40.0, "m"));
+    }
+}
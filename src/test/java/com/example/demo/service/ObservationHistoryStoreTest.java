@@ -0,0 +1,225 @@
+package com.example.demo.service;
+
+import com.example.demo.MutableClock;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für den {@link ObservationHistoryStore} gegen eine eingebettete H2-Datenbank.
+ * Prüft das Anhängen der Rohwerte, das inkrementelle Fortschreiben der Rollups und die Aufbewahrung pro Tag.
+ */
+class ObservationHistoryStoreTest {
+
+    private static final long HOUR_START = 1_735_700_400L; // 2025-01-01T03:00:00Z
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private EmbeddedDatabase database;
+    private ObservationHistoryStore store;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        store = new ObservationHistoryStore(new JdbcTemplate(database), new DataSourceTransactionManager(database),
+                new MockEnvironment(), Clock.fixed(Instant.ofEpochSecond(HOUR_START + 3600), ZoneOffset.UTC));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    /**
+     * @test Stündliche Rollups
+     * @description Zwei Beobachtungen derselben Stunde ergeben einen Bucket mit Minimum, Maximum, Mittelwert und Anzahl.
+     */
+    @Test
+    void query_shouldReturnHourlyRollup() throws Exception {
+        // Arrange
+        store.record(WeatherSection.CONDITIONS, 52.52, 13.405, conditions(HOUR_START + 60, 10.0));
+        store.record(WeatherSection.CONDITIONS, 52.52, 13.405, conditions(HOUR_START + 1800, 14.0));
+
+        // Act
+        int written = store.flush();
+        ObservationHistory history = store.query(52.52, 13.405, HOUR_START, HOUR_START + 3600,
+                ObservationHistory.Resolution.HOUR, List.of(ObservationMetric.TEMP), "m");
+
+        // Assert
+        assertEquals(10, written);
+        ObservationHistory.Series temp = history.metrics().get("temp");
+        assertArrayEquals(new long[]{HOUR_START}, temp.timestamps());
+        assertArrayEquals(new double[]{10.0}, temp.min());
+        assertArrayEquals(new double[]{14.0}, temp.max());
+        assertArrayEquals(new double[]{12.0}, temp.avg());
+        assertArrayEquals(new int[]{2}, temp.count());
+    }
+
+    /**
+     * @test Fortschreiben über mehrere Schreibvorgänge
+     * @description Ein bestehender Bucket wird aktualisiert statt neu angelegt; Rohwerte bleiben einzeln erhalten.
+     */
+    @Test
+    void flush_shouldUpdateExistingBuckets() throws Exception {
+        // Arrange
+        store.record(WeatherSection.CONDITIONS, 52.52, 13.405, conditions(HOUR_START + 60, 10.0));
+        store.flush();
+        store.record(WeatherSection.CONDITIONS, 52.52, 13.405, conditions(HOUR_START + 120, 4.0));
+
+        // Act
+        store.flush();
+        ObservationHistory daily = store.query(52.52, 13.405, HOUR_START, HOUR_START + 3600,
+                ObservationHistory.Resolution.DAY, List.of(ObservationMetric.TEMP), "m");
+        ObservationHistory raw = store.query(52.52, 13.405, HOUR_START, HOUR_START + 3600,
+                ObservationHistory.Resolution.RAW, List.of(ObservationMetric.TEMP), "m");
+
+        // Assert
+        assertArrayEquals(new int[]{2}, daily.metrics().get("temp").count());
+        assertArrayEquals(new double[]{4.0}, daily.metrics().get("temp").min());
+        assertArrayEquals(new double[]{10.0, 4.0}, raw.metrics().get("temp").values());
+    }
+
+    /**
+     * @test Keine Doppelzählung
+     * @description Dieselbe Beobachtung aus zwei Anfragen in derselben Zelle wird nur einmal gespeichert.
+     */
+    @Test
+    void record_shouldIgnoreRepeatedObservation() throws Exception {
+        // Arrange
+        store.record(WeatherSection.CONDITIONS, 52.52, 13.405, conditions(HOUR_START + 60, 10.0));
+        store.record(WeatherSection.CONDITIONS, 52.521, 13.406, conditions(HOUR_START + 60, 10.0));
+
+        // Act
+        store.flush();
+        ObservationHistory history = store.query(52.52, 13.405, HOUR_START, HOUR_START + 3600,
+                ObservationHistory.Resolution.HOUR, List.of(ObservationMetric.TEMP), "m");
+
+        // Assert
+        assertArrayEquals(new int[]{1}, history.metrics().get("temp").count());
+    }
+
+    /**
+     * @test AirQuality und Einheiten
+     * @description Schadstoffwerte werden übernommen, Temperaturen bei units=e in Fahrenheit geliefert.
+     */
+    @Test
+    void query_shouldIncludeAirQualityAndConvertUnits() throws Exception {
+        // Arrange
+        store.record(WeatherSection.CONDITIONS, 52.52, 13.405, conditions(HOUR_START + 60, 20.0));
+        store.record(WeatherSection.AIR_QUALITY, 52.52, 13.405, MAPPER.readTree(
+                "{\"success\":true,\"response\":[{\"periods\":[{\"timestamp\":" + (HOUR_START + 60)
+                        + ",\"aqi\":42,\"pollutants\":{\"pm2p5\":{\"valueMG\":8.5}}}]}]}"));
+
+        // Act
+        store.flush();
+        ObservationHistory history = store.query(52.52, 13.405, HOUR_START, HOUR_START + 3600,
+                ObservationHistory.Resolution.HOUR, List.of(ObservationMetric.TEMP, ObservationMetric.AQI, ObservationMetric.PM25), "e");
+
+        // Assert
+        assertArrayEquals(new double[]{68.0}, history.metrics().get("temp").avg());
+        assertArrayEquals(new double[]{42.0}, history.metrics().get("aqi").max());
+        assertArrayEquals(new double[]{8.5}, history.metrics().get("pm25").max());
+    }
+
+    /**
+     * @test Wiederholung nach Schreibfehler
+     * @description Schlägt das Schreiben fehl, geht der Block nicht verloren, sondern wird beim nächsten Flush geschrieben.
+     */
+    @Test
+    void flush_shouldRetryBatchAfterWriteFailure() throws Exception {
+        // Arrange
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        store.query(52.52, 13.405, HOUR_START, HOUR_START + 3600, ObservationHistory.Resolution.HOUR, List.of(ObservationMetric.TEMP), "m");
+        jdbcTemplate.execute("DROP TABLE weather_rollup");
+        store.record(WeatherSection.CONDITIONS, 52.52, 13.405, conditions(HOUR_START + 60, 10.0));
+        assertThrows(DataAccessException.class, store::flush);
+        jdbcTemplate.execute(ObservationHistoryStore.SCHEMA[1]);
+
+        // Act
+        int written = store.flush();
+        ObservationHistory history = store.query(52.52, 13.405, HOUR_START, HOUR_START + 3600,
+                ObservationHistory.Resolution.HOUR, List.of(ObservationMetric.TEMP), "m");
+
+        // Assert
+        assertEquals(5, written);
+        assertArrayEquals(new int[]{1}, history.metrics().get("temp").count());
+        assertEquals(0, store.getDroppedCount());
+    }
+
+    /**
+     * @test Verwerfen nach wiederholten Fehlern
+     * @description Nach {@link ObservationHistoryStore#MAX_WRITE_ATTEMPTS} Fehlversuchen wird der Block verworfen und gezählt.
+     */
+    @Test
+    void flush_shouldDropBatchAfterRepeatedFailures() throws Exception {
+        // Arrange
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        store.query(52.52, 13.405, HOUR_START, HOUR_START + 3600, ObservationHistory.Resolution.HOUR, List.of(ObservationMetric.TEMP), "m");
+        jdbcTemplate.execute("DROP TABLE weather_rollup");
+        store.record(WeatherSection.CONDITIONS, 52.52, 13.405, conditions(HOUR_START + 60, 10.0));
+
+        // Act
+        for (int i = 0; i < ObservationHistoryStore.MAX_WRITE_ATTEMPTS; i++) {
+            assertThrows(DataAccessException.class, store::flush);
+        }
+        jdbcTemplate.execute(ObservationHistoryStore.SCHEMA[1]);
+        int written = store.flush();
+
+        // Assert
+        assertEquals(0, written);
+        assertEquals(5, store.getDroppedCount());
+    }
+
+    /**
+     * @test Aufbewahrung pro Tag
+     * @description Ein Rohwert-Tag außerhalb der Frist wird als ganze Tabelle entfernt, die Tages-Rollups bleiben.
+     */
+    @Test
+    void prune_shouldDropExpiredRawDays() throws Exception {
+        // Arrange
+        MutableClock clock = new MutableClock();
+        ObservationHistoryStore pruning = new ObservationHistoryStore(new JdbcTemplate(database), new DataSourceTransactionManager(database),
+                new MockEnvironment().withProperty("weather.history.raw-retention-days", "1"), clock);
+        pruning.record(WeatherSection.CONDITIONS, 52.52, 13.405, conditions(HOUR_START + 60, 10.0));
+        pruning.flush();
+        long day = HOUR_START / 86400;
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM weather_observation_" + day, Integer.class));
+
+        // Act
+        clock.advanceSeconds(3 * 86400);
+        pruning.prune();
+        ObservationHistory raw = pruning.query(52.52, 13.405, HOUR_START, HOUR_START + 3600,
+                ObservationHistory.Resolution.RAW, List.of(ObservationMetric.TEMP), "m");
+        ObservationHistory daily = pruning.query(52.52, 13.405, HOUR_START, HOUR_START + 3600,
+                ObservationHistory.Resolution.DAY, List.of(ObservationMetric.TEMP), "m");
+
+        // Assert
+        assertEquals(0, raw.metrics().get("temp").values().length);
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM weather_observation_day", Integer.class));
+        assertThrows(DataAccessException.class,
+                () -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM weather_observation_" + day, Integer.class));
+        assertArrayEquals(new int[]{1}, daily.metrics().get("temp").count());
+    }
+
+    private static JsonNode conditions(long timestamp, double tempC) throws Exception {
+        return MAPPER.readTree("{\"success\":true,\"response\":[{\"periods\":[{\"timestamp\":" + timestamp
+                + ",\"tempC\":" + tempC + ",\"feelslikeC\":" + (tempC - 1) + ",\"humidity\":60,"
+                + "\"windSpeedKPH\":12,\"pressureMB\":1013}]}]}");
+    }
+}
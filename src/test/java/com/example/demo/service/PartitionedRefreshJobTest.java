@@ -0,0 +1,242 @@
+package com.example.demo.service;
+
+import com.example.demo.FavoriteLocationRepository;
+import com.example.demo.MutableClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testklasse für den {@link PartitionedRefreshJob} mit {@link ClusterMembership}.
+ * Simuliert zwei Instanzen auf einer gemeinsamen H2-Datenbank; die Aktualisierungen beider Instanzen
+ * landen in einer gemeinsamen Liste.
+ */
+class PartitionedRefreshJobTest {
+
+    private record Favorite(double lat, double lon) implements FavoriteLocationRepository.Coordinate {
+        @Override
+        public double getLatitude() {
+            return lat;
+        }
+
+        @Override
+        public double getLongitude() {
+            return lon;
+        }
+    }
+
+    private record Node(ClusterMembership membership, PartitionedRefreshJob job) {
+    }
+
+    private EmbeddedDatabase database;
+    private MutableClock clock;
+    private List<String> refreshed;
+    private List<FavoriteLocationRepository.Coordinate> favorites;
+    private Node nodeA;
+    private Node nodeB;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        clock = new MutableClock();
+        refreshed = new CopyOnWriteArrayList<>();
+        favorites = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            favorites.add(new Favorite(47 + (i / 10) * 0.5, 6 + (i % 10) * 0.8));
+        }
+        // Zweiter Favorit wenige Meter neben dem ersten: wird nicht gesondert aktualisiert
+        favorites.add(new Favorite(47.0001, 6.0001));
+        nodeA = node("a", null);
+        nodeB = node("b", null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    /**
+     * @test Genau einmal pro Intervall
+     * @description Zwei Instanzen mit gleichem Ring teilen sich die Koordinaten; jede wird genau einmal aktualisiert,
+     * ein weiterer Durchlauf im selben Intervall tut nichts, im nächsten Intervall wird wieder alles aktualisiert.
+     */
+    @Test
+    void tick_shouldRefreshEachCoordinateOncePerInterval() {
+        // Arrange
+        nodeA.membership().heartbeat();
+        nodeB.membership().heartbeat();
+        nodeA.membership().heartbeat();
+
+        // Act
+        int byA = nodeA.job().tick();
+        int byB = nodeB.job().tick();
+        int repeated = nodeA.job().tick() + nodeB.job().tick();
+        clock.advanceSeconds(300);
+        int nextInterval = nodeA.job().tick() + nodeB.job().tick();
+
+        // Assert
+        assertTrue(byA > 0 && byB > 0, byA + "/" + byB);
+        assertEquals(60, byA + byB);
+        assertEquals(0, repeated);
+        assertEquals(60, nextInterval);
+        assertEquals(60, new HashSet<>(refreshed).size());
+    }
+
+    /**
+     * @test Unterschiedliche Sicht auf den Cluster
+     * @description Kennt A die Instanz B noch nicht, hält A sich für zuständig für alles; trotzdem wird
+     * jede Koordinate nur einmal aktualisiert.
+     */
+    @Test
+    void tick_shouldNotRefreshTwiceWhileViewsDiffer() {
+        // Arrange
+        nodeA.membership().heartbeat();
+        nodeB.membership().heartbeat();
+
+        // Act
+        int byB = nodeB.job().tick();
+        int byA = nodeA.job().tick();
+
+        // Assert
+        assertEquals(List.of("a"), nodeA.membership().getRing().nodes());
+        assertEquals(List.of("a", "b"), nodeB.membership().getRing().nodes());
+        assertEquals(60, byA + byB);
+        assertEquals(60, new HashSet<>(refreshed).size());
+    }
+
+    /**
+     * @test Ausfall einer Instanz
+     * @description Meldet sich B ab, bevor es seine Zellen aktualisiert hat, übernimmt A sie noch im selben Intervall.
+     */
+    @Test
+    void tick_shouldTakeOverCellsOfLeavingNode() {
+        // Arrange
+        nodeA.membership().heartbeat();
+        nodeB.membership().heartbeat();
+        nodeA.membership().heartbeat();
+        int before = nodeA.job().tick();
+
+        // Act
+        nodeB.membership().stop();
+        nodeA.membership().heartbeat();
+        int takenOver = nodeA.job().tick();
+
+        // Assert
+        assertTrue(before < 60 && takenOver > 0);
+        assertEquals(60, before + takenOver);
+        assertEquals(List.of("a"), nodeA.membership().getRing().nodes());
+        assertTrue(nodeA.membership().isLeader());
+    }
+
+    /**
+     * @test Zeitüberschreitung des Heartbeats
+     * @description Eine Instanz ohne Heartbeat innerhalb des Timeouts fällt aus dem Ring.
+     */
+    @Test
+    void heartbeat_shouldDropSilentNodes() {
+        // Arrange
+        nodeB.membership().heartbeat();
+        nodeA.membership().heartbeat();
+
+        // Act
+        clock.advanceSeconds(7);
+        ConsistentHashRing ring = nodeA.membership().heartbeat();
+
+        // Assert
+        assertEquals(List.of("a"), ring.nodes());
+    }
+
+    /**
+     * @test Häufig angefragte Orte
+     * @description Orte aus den {@link HeavyHitters} werden zusätzlich aktualisiert, der häufigste zuerst.
+     */
+    @Test
+    void tick_shouldRefreshHotCoordinatesFirst() {
+        // Arrange
+        HeavyHitters heavyHitters = new HeavyHitters(1000, 10);
+        for (int i = 0; i < 3; i++) {
+            heavyHitters.record(HeavyHitters.detailsKey(50.003, 10.003, "m"));
+        }
+        heavyHitters.record(HeavyHitters.detailsKey(50.003, 10.003, "e"));
+        Node node = node("c", heavyHitters);
+        node.membership().heartbeat();
+
+        // Act
+        int count = node.job().tick();
+
+        // Assert
+        assertEquals(61, count);
+        assertEquals("50.005,10.005", refreshed.get(0));
+    }
+
+    /**
+     * @test Häufige Orte einer anderen Instanz
+     * @description Ist ein Ort nur bei B häufig, liegt aber in einer Zelle von A, aktualisiert A ihn über die
+     * veröffentlichten Orte; er wird genau einmal aktualisiert.
+     */
+    @Test
+    void tick_shouldRefreshHotCoordinatesPublishedByOtherNode() {
+        // Arrange
+        nodeA.membership().heartbeat();
+        nodeA.membership().heartbeat();
+        HeavyHitters heavyHitters = new HeavyHitters(1000, 10);
+        Node hotB = node("b", heavyHitters);
+        hotB.membership().heartbeat();
+        nodeA.membership().heartbeat();
+        double[] center = null;
+        for (int k = 0; center == null; k++) {
+            HeavyHitters probe = new HeavyHitters(1000, 10);
+            probe.record(HeavyHitters.detailsKey(50.003 + k * 0.1, 10.003, "m"));
+            double[] candidate = probe.hotCoordinates("m", 1).get(0);
+            if (nodeA.membership().owns(GeoMath.geohash(candidate[0], candidate[1], 5))) {
+                center = candidate;
+            }
+        }
+        for (int i = 0; i < 3; i++) {
+            heavyHitters.record(HeavyHitters.detailsKey(center[0], center[1], "m"));
+        }
+        String hot = center[0] + "," + center[1];
+
+        // Act
+        int byB = hotB.job().tick();
+        int byA = nodeA.job().tick();
+
+        // Assert
+        assertEquals(61, byA + byB);
+        assertEquals(1, refreshed.stream().filter(hot::equals).count(), refreshed.toString());
+    }
+
+    private Node node(String id, HeavyHitters heavyHitters) {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("weather.refresh.interval-seconds", "300")
+                .withProperty("weather.cluster.timeout-ms", "6000");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        ClusterMembership membership = new ClusterMembership(jdbcTemplate, environment, clock, id);
+
+        FavoriteLocationRepository repository = mock(FavoriteLocationRepository.class);
+        when(repository.findDistinctCoordinates()).thenAnswer(invocation -> List.copyOf(favorites));
+        WeatherDetailService weatherDetailService = mock(WeatherDetailService.class);
+        when(weatherDetailService.refresh(anyDouble(), anyDouble(), anyString())).thenAnswer(invocation -> {
+            refreshed.add(invocation.getArgument(0) + "," + invocation.getArgument(1));
+            return 5;
+        });
+        return new Node(membership, new PartitionedRefreshJob(membership, jdbcTemplate, repository, weatherDetailService,
+                heavyHitters, environment, clock));
+    }
+}
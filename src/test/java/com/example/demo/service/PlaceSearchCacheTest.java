@@ -0,0 +1,80 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für den {@link PlaceSearchCache} mit Zulassung über {@link HeavyHitters}.
+ */
+class PlaceSearchCacheTest {
+
+    private static final List<Map<String, Object>> RESULTS = List.of(Map.of("name", "Berlin"));
+
+    private HeavyHitters heavyHitters;
+    private PlaceSearchCache cache;
+
+    @BeforeEach
+    void setUp() {
+        heavyHitters = new HeavyHitters(1000, 10);
+        MockEnvironment environment = new MockEnvironment().withProperty("weather.search-cache.max-entries", "2");
+        cache = new PlaceSearchCache(environment, heavyHitters, Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC));
+    }
+
+    /**
+     * @test Zulassung nach Häufigkeit
+     * @description Bei vollem Cache verdrängt ein einmaliger Suchbegriff nichts; ein häufigerer verdrängt den
+     * am längsten nicht genutzten Eintrag.
+     */
+    @Test
+    void put_shouldEvictLeastRecentlyUsedOnlyForMoreFrequentQuery() {
+        // Arrange
+        search("ber", 3);
+        search("mün", 2);
+        search("xyz", 1);
+        search("ham", 4);
+        cache.put("ber", RESULTS);
+        cache.put("mün", RESULTS);
+        cache.get("Ber ");
+
+        // Act
+        boolean rare = cache.put("xyz", RESULTS);
+        boolean frequent = cache.put("ham", RESULTS);
+
+        // Assert
+        assertFalse(rare);
+        assertTrue(frequent);
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("ber"));
+        assertNull(cache.get("mün"));
+        assertEquals(RESULTS, cache.get("ham"));
+    }
+
+    /**
+     * @test Leere Ergebnisse
+     * @description Leere Ergebnisse (auch nach Fehlern bei Xweather) werden nicht zwischengespeichert.
+     */
+    @Test
+    void put_shouldNotCacheEmptyResults() {
+        // Act
+        boolean stored = cache.put("ber", List.of());
+
+        // Assert
+        assertFalse(stored);
+        assertNull(cache.get("ber"));
+    }
+
+    private void search(String query, int times) {
+        for (int i = 0; i < times; i++) {
+            heavyHitters.record(HeavyHitters.searchKey(query));
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.demo.service;
+
+import com.example.demo.MutableClock;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für den {@link RegionAlertCache}.
+ * Prüft Punkt-in-Polygon, die Wiederverwendung einer Kachel und das Verhalten bei abgeschnittenen oder
+ * unvollständigen Antworten.
+ */
+class RegionAlertCacheTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Quadrat 50..51 / 13..14 mit einem Loch 50.4..50.6 / 13.4..13.6.
+     */
+    private static final String STORM = """
+            {"details": {"type": "WI.Y", "body": "Sturm", "priority": 60},
+             "geoPoly": {"type": "Polygon", "coordinates": [
+               [[13.0, 50.0], [14.0, 50.0], [14.0, 51.0], [13.0, 51.0], [13.0, 50.0]],
+               [[13.4, 50.4], [13.6, 50.4], [13.6, 50.6], [13.4, 50.6], [13.4, 50.4]]]}}""";
+
+    /**
+     * Dreieck als MultiPolygon im Süden der Kachel.
+     */
+    private static final String HEAT = """
+            {"details": {"type": "HT.Y", "body": "Hitze", "priority": 40},
+             "geoPoly": {"type": "MultiPolygon", "coordinates": [
+               [[[12.0, 48.0], [13.0, 48.0], [12.0, 49.0], [12.0, 48.0]]]]}}""";
+
+    /**
+     * Warnung für einen Landkreis, ohne Polygon.
+     */
+    private static final String FLOOD = """
+            {"details": {"type": "FL.W", "body": "Hochwasser", "priority": 80},
+             "geoPoly": null}""";
+
+    private MutableClock clock;
+    private RegionAlertCache cache;
+    private AtomicInteger upstreamCalls;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        upstreamCalls = new AtomicInteger();
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("weather.alerts.region.tile-deg", "4")
+                .withProperty("weather.alerts.region.ttl-seconds", "300")
+                .withProperty("weather.alerts.region.limit", "3");
+        cache = new RegionAlertCache(environment, clock);
+    }
+
+    /**
+     * @test Punkt im Polygon
+     * @description Nur Warnungen, deren Polygon die Koordinate enthält, werden im Format von parseAlerts geliefert.
+     */
+    @Test
+    void lookup_shouldReturnAlertsWhosePolygonContainsPoint() {
+        // Arrange
+        Function<RegionAlertCache.Region, JsonNode> loader = loader(STORM, HEAT);
+
+        // Act
+        List<Map<String, Object>> inStorm = cache.lookup(50.2, 13.2, loader);
+        List<Map<String, Object>> inHole = cache.lookup(50.5, 13.5, loader);
+        List<Map<String, Object>> inHeat = cache.lookup(48.2, 12.2, loader);
+        List<Map<String, Object>> outside = cache.lookup(48.9, 12.9, loader);
+
+        // Assert
+        assertEquals(List.of(Map.of("type", "WI.Y", "message", "Sturm", "severity", "60")), inStorm);
+        assertTrue(inHole.isEmpty());
+        assertEquals("HT.Y", inHeat.get(0).get("type"));
+        assertTrue(outside.isEmpty());
+    }
+
+    /**
+     * @test Ein Aufruf pro Kachel
+     * @description Viele Koordinaten derselben Kachel kosten einen Upstream-Aufruf bis zum Ablauf der TTL.
+     */
+    @Test
+    void lookup_shouldLoadEachTileOncePerTtl() {
+        // Arrange
+        Function<RegionAlertCache.Region, JsonNode> loader = loader(STORM);
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            cache.lookup(48.0 + (i % 40) * 0.05, 12.0 + (i / 40) * 0.04, loader);
+        }
+        clock.advanceSeconds(301);
+        cache.lookup(50.2, 13.2, loader);
+
+        // Assert
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    /**
+     * @test Abgeschnittene Antwort
+     * @description Erreicht eine Kachel das Limit, fehlen eventuell Warnungen; dann wird null geliefert,
+     * damit die Koordinate einzeln abgefragt wird.
+     */
+    @Test
+    void lookup_shouldReturnNullWhenTileIsTruncated() {
+        // Act
+        List<Map<String, Object>> alerts = cache.lookup(50.2, 13.2, loader(STORM, HEAT, STORM));
+
+        // Assert
+        assertNull(alerts);
+    }
+
+    /**
+     * @test Warnung ohne Polygon
+     * @description Eine Warnung ohne Polygon (z. B. nach Landkreis) kann nicht lokal zugeordnet werden;
+     * statt "keine Warnungen" wird null geliefert, damit die Koordinate einzeln abgefragt wird.
+     */
+    @Test
+    void lookup_shouldReturnNullWhenAlertHasNoPolygon() {
+        // Act
+        List<Map<String, Object>> outsideStorm = cache.lookup(48.9, 12.9, loader(STORM, FLOOD));
+        List<Map<String, Object>> inStorm = cache.lookup(50.2, 13.2, loader(STORM, FLOOD));
+
+        // Assert
+        assertNull(outsideStorm);
+        assertNull(inStorm);
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    /**
+     * @test Fehlgeschlagener Abruf
+     * @description Ein Fehler wird nicht zwischengespeichert, der nächste Aufruf versucht es erneut.
+     */
+    @Test
+    void lookup_shouldRetryAfterFailedLoad() {
+        // Arrange
+        Function<RegionAlertCache.Region, JsonNode> failing = region -> {
+            upstreamCalls.incrementAndGet();
+            throw new IllegalStateException("Timeout");
+        };
+
+        // Act
+        List<Map<String, Object>> first = cache.lookup(50.2, 13.2, failing);
+        List<Map<String, Object>> second = cache.lookup(50.2, 13.2, loader(STORM));
+
+        // Assert
+        assertNull(first);
+        assertEquals(1, second.size());
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    private Function<RegionAlertCache.Region, JsonNode> loader(String... alerts) {
+        return region -> {
+            upstreamCalls.incrementAndGet();
+            assertEquals(48.0, region.south());
+            assertEquals(52.0, region.north());
+            try {
+                return MAPPER.readTree("{\"success\": true, \"response\": [" + String.join(",", alerts) + "]}");
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+}
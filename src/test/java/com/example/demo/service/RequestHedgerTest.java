@@ -0,0 +1,154 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für den {@link RequestHedger}.
+ * Prüft, dass ein hängender Aufruf durch einen zweiten überholt wird und das Budget eingehalten wird.
+ */
+class RequestHedgerTest {
+
+    private RequestHedger hedger;
+
+    @AfterEach
+    void tearDown() {
+        hedger.shutdown();
+    }
+
+    /**
+     * @test Hedge überholt Nachzügler
+     * @description Nach dem Aufwärmen mit schnellen Aufrufen wird ein hängender Aufruf dupliziert
+     * und die schnellere Antwort geliefert.
+     */
+    @Test
+    void call_shouldReturnFasterHedgedResponse() throws Exception {
+        // Arrange
+        hedger = new RequestHedger(environment("10"));
+        warmUp();
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act
+        long start = System.nanoTime();
+        String result = hedger.call("current", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                Thread.sleep(2000);
+                return "slow";
+            }
+            return "fast";
+        });
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertEquals("fast", result);
+        assertEquals(2, attempts.get());
+        assertEquals(1, hedger.getHedgesSent());
+        assertTrue(elapsedMillis < 1000, "Antwort kam erst nach " + elapsedMillis + " ms");
+    }
+
+    /**
+     * @test Budget erschöpft
+     * @description Ohne Budget wird kein zweiter Aufruf gestartet, es wird auf den ersten gewartet.
+     */
+    @Test
+    void call_shouldNotHedgeWithoutBudget() throws Exception {
+        // Arrange
+        hedger = new RequestHedger(environment("0"));
+        warmUp();
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act
+        String result = hedger.call("current", () -> {
+            attempts.incrementAndGet();
+            Thread.sleep(200);
+            return "slow";
+        });
+
+        // Assert
+        assertEquals("slow", result);
+        assertEquals(1, attempts.get());
+        assertEquals(0, hedger.getHedgesSent());
+    }
+
+    /**
+     * @test Reaktive Variante
+     * @description Der hängende erste Aufruf wird durch den Hedge überholt.
+     */
+    @Test
+    void hedge_shouldReturnFasterHedgedResponse() throws Exception {
+        // Arrange
+        hedger = new RequestHedger(environment("10"));
+        warmUp();
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act
+        String result = hedger.hedge("current", () -> attempts.incrementAndGet() == 1
+                        ? Mono.just("slow").delayElement(Duration.ofSeconds(2))
+                        : Mono.just("fast"))
+                .block(Duration.ofSeconds(1));
+
+        // Assert
+        assertEquals("fast", result);
+        assertEquals(1, hedger.getHedgesWon());
+    }
+
+    /**
+     * @test Schneller Fehler ohne Hedge
+     * @description Schlägt der erste Aufruf vor Ablauf der Wartezeit fehl, wird kein Hedge gestartet und der Fehler
+     * unverändert weitergegeben.
+     */
+    @Test
+    void hedge_shouldNotHedgeAfterFastFailure() throws Exception {
+        // Arrange
+        hedger = new RequestHedger(environment("10"));
+        warmUp();
+        AtomicInteger attempts = new AtomicInteger();
+        IllegalStateException failure = new IllegalStateException("503");
+
+        // Act
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> hedger.hedge("current", () -> {
+                    attempts.incrementAndGet();
+                    return Mono.<String>error(failure);
+                })
+                .block(Duration.ofSeconds(1)));
+        Thread.sleep(hedger.hedgeDelayMillis("current") * 3);
+
+        // Assert
+        assertSame(failure, thrown);
+        assertEquals(1, attempts.get());
+        assertEquals(0, hedger.getHedgesSent());
+    }
+
+    /**
+     * @test Kein Hedging ohne Messwerte
+     */
+    @Test
+    void hedgeDelay_shouldBeUnknownBeforeMinSamples() {
+        // Arrange
+        hedger = new RequestHedger(environment("10"));
+
+        // Act & Assert
+        assertEquals(-1, hedger.hedgeDelayMillis("current"));
+    }
+
+    private void warmUp() throws Exception {
+        for (int i = 0; i < 40; i++) {
+            hedger.call("current", () -> "warm");
+        }
+        assertTrue(hedger.hedgeDelayMillis("current") >= 20);
+    }
+
+    private static MockEnvironment environment(String budgetPercent) {
+        return new MockEnvironment()
+                .withProperty("xweather.hedging.budget-percent", budgetPercent)
+                .withProperty("xweather.hedging.min-samples", "32")
+                .withProperty("xweather.hedging.min-delay-ms", "20");
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für den {@link ResponseByteCache}.
+ */
+class ResponseByteCacheTest {
+
+    private HeavyHitters heavyHitters;
+    private ResponseByteCache cache;
+    private AtomicInteger serialized;
+    private Function<Map<String, Object>, byte[]> serializer;
+
+    @BeforeEach
+    void setUp() {
+        heavyHitters = new HeavyHitters(1000, 10);
+        MockEnvironment environment = new MockEnvironment().withProperty("weather.output-cache.max-bytes", "4096");
+        cache = new ResponseByteCache(environment, heavyHitters);
+        serialized = new AtomicInteger();
+        serializer = data -> {
+            serialized.incrementAndGet();
+            return data.toString().repeat(30).getBytes(StandardCharsets.UTF_8);
+        };
+    }
+
+    /**
+     * @test Treffer ohne Serialisierung
+     * @description Bei unveränderten Daten liefert ein zweiter Abruf dieselben Bytes, ohne erneut zu serialisieren.
+     */
+    @Test
+    void get_shouldReuseBytesForUnchangedData() {
+        // Arrange
+        request(52.52, 13.405, 3);
+        Map<String, Object> data = data("sonnig");
+
+        // Act
+        ResponseByteCache.Body first = cache.get(52.52, 13.405, "m", "json", data, false, serializer);
+        ResponseByteCache.Body second = cache.get(52.52, 13.405, "m", "json", new HashMap<>(data), false, serializer);
+
+        // Assert
+        assertSame(first.bytes(), second.bytes());
+        assertEquals(1, serialized.get());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    /**
+     * @test Invalidierung bei neuen Daten
+     * @description Ändert sich ein Abschnitt (z. B. nach einem Refresh), wird neu serialisiert und der Eintrag ersetzt.
+     */
+    @Test
+    void get_shouldReserializeWhenDataChanges() {
+        // Arrange
+        request(52.52, 13.405, 3);
+        cache.get(52.52, 13.405, "m", "json", data("sonnig"), false, serializer);
+
+        // Act
+        ResponseByteCache.Body body = cache.get(52.52, 13.405, "m", "json", data("Regen"), false, serializer);
+
+        // Assert
+        assertEquals(2, serialized.get());
+        assertTrue(new String(body.bytes(), StandardCharsets.UTF_8).contains("Regen"));
+        assertEquals(1, cache.size());
+    }
+
+    /**
+     * @test Invalidierung ohne Version
+     * @description Ohne {@code version} (Delta-Abfragen abgeschaltet) wird eine geänderte Antwort am Inhalt erkannt.
+     */
+    @Test
+    void get_shouldReserializeWhenContentChangesWithoutVersion() {
+        // Arrange
+        request(52.52, 13.405, 3);
+        Map<String, Object> data = data("sonnig");
+        data.remove("version");
+        cache.get(52.52, 13.405, "m", "json", data, false, serializer);
+        Map<String, Object> changed = new HashMap<>(data);
+        changed.put("conditions", Map.of("description", "sonnig", "temp", 14.0));
+
+        // Act
+        cache.get(52.52, 13.405, "m", "json", new HashMap<>(data), false, serializer);
+        cache.get(52.52, 13.405, "m", "json", changed, false, serializer);
+
+        // Assert
+        assertEquals(2, serialized.get());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    /**
+     * @test Änderung mit gleichem hashCode ohne Version
+     * @description {@code "Aa"} und {@code "BB"} ergeben denselben {@code hashCode()} der Antwort; der alte Eintrag wird trotzdem nicht geliefert.
+     */
+    @Test
+    void get_shouldReserializeWhenChangedContentHasEqualHashCode() {
+        // Arrange
+        request(52.52, 13.405, 3);
+        Map<String, Object> data = data("Aa");
+        data.remove("version");
+        Map<String, Object> changed = data("BB");
+        changed.remove("version");
+        assertEquals(data.hashCode(), changed.hashCode());
+        cache.get(52.52, 13.405, "m", "json", data, false, serializer);
+
+        // Act
+        ResponseByteCache.Body body = cache.get(52.52, 13.405, "m", "json", changed, false, serializer);
+
+        // Assert
+        assertEquals(2, serialized.get());
+        assertTrue(new String(body.bytes(), StandardCharsets.UTF_8).contains("BB"));
+    }
+
+    /**
+     * @test gzip-Variante
+     * @description Die komprimierte Variante wird einmal erzeugt, wiederverwendet und entpackt zu denselben Bytes.
+     */
+    @Test
+    void get_shouldCacheGzipVariant() throws IOException {
+        // Arrange
+        request(52.52, 13.405, 3);
+        Map<String, Object> data = data("sonnig");
+        ResponseByteCache.Body identity = cache.get(52.52, 13.405, "m", "json", data, false, serializer);
+
+        // Act
+        ResponseByteCache.Body gzip = cache.get(52.52, 13.405, "m", "json", data, true, serializer);
+        ResponseByteCache.Body again = cache.get(52.52, 13.405, "m", "json", data, true, serializer);
+
+        // Assert
+        assertTrue(gzip.gzip());
+        assertSame(gzip.bytes(), again.bytes());
+        assertTrue(gzip.bytes().length < identity.bytes().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.bytes()))) {
+            assertArrayEquals(identity.bytes(), in.readAllBytes());
+        }
+        assertEquals(1, serialized.get());
+    }
+
+    /**
+     * @test Seltene Orte und Byte-Grenze
+     * @description Einmal angefragte Orte werden nicht gespeichert; übersteigt die Summe der Bytes die Grenze,
+     * wird der am längsten nicht genutzte Eintrag verdrängt.
+     */
+    @Test
+    void get_shouldSkipRareKeysAndStayWithinByteBudget() {
+        // Arrange
+        request(10, 10, 1);
+        request(20, 20, 3);
+        request(30, 30, 3);
+        request(40, 40, 3);
+
+        // Act
+        cache.get(10, 10, "m", "json", data("a"), false, serializer);
+        cache.get(20, 20, "m", "json", data("b"), false, serializer);
+        cache.get(30, 30, "m", "json", data("c"), false, serializer);
+        cache.get(20, 20, "m", "json", data("b"), false, serializer);
+        cache.get(40, 40, "m", "json", data("d"), false, serializer);
+
+        // Assert
+        assertTrue(cache.getBytes() <= 4096);
+        assertEquals(2, cache.size());
+        int before = serialized.get();
+        cache.get(20, 20, "m", "json", data("b"), false, serializer);
+        assertEquals(before, serialized.get());
+        cache.get(30, 30, "m", "json", data("c"), false, serializer);
+        assertEquals(before + 1, serialized.get());
+    }
+
+    private void request(double lat, double lon, int times) {
+        for (int i = 0; i < times; i++) {
+            heavyHitters.record(HeavyHitters.detailsKey(lat, lon, "m"));
+        }
+    }
+
+    private static Map<String, Object> data(String description) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("conditions", Map.of("description", description, "temp", 12.5));
+        data.put("version", "a." + description.length());
+        return data;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für den {@link SharedWeatherCache}.
+ * Simuliert zwei Instanzen mit eigenem lokalem Cache auf einer gemeinsamen H2-Datenbank.
+ */
+class SharedWeatherCacheTest {
+
+    private EmbeddedDatabase database;
+    private Node nodeA;
+    private Node nodeB;
+
+    private record Node(NearbyWeatherCache local, CacheInvalidationBus bus, SharedWeatherCache shared) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        nodeA = node("a");
+        nodeB = node("b");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    /**
+     * @test Eintrag für andere Instanz sichtbar
+     * @description Ein von Instanz A geladener Abschnitt wird von Instanz B für eine nahe Koordinate geliefert,
+     * mit dem Ablaufzeitpunkt des gemeinsamen Eintrags.
+     */
+    @Test
+    void resolve_shouldReturnEntryWrittenByOtherNode() {
+        // Arrange
+        assertTrue(nodeA.shared().resolve(List.of(WeatherSection.CONDITIONS), 52.52, 13.405, "m").isEmpty());
+        nodeA.shared().put(WeatherSection.CONDITIONS, 52.52, 13.405, "m", Map.of("temp", 20.5));
+
+        // Act
+        Map<WeatherSection, NearbyWeatherCache.Hit> hits =
+                nodeB.shared().resolve(List.of(WeatherSection.CONDITIONS), 52.5205, 13.4055, "m");
+
+        // Assert
+        NearbyWeatherCache.Hit hit = hits.get(WeatherSection.CONDITIONS);
+        assertNotNull(hit);
+        assertEquals(Map.of("temp", 20.5), hit.value());
+        assertEquals(52.52, hit.lat());
+        long remaining = hit.expiresAt() - System.currentTimeMillis();
+        assertTrue(remaining > 0 && remaining <= NearbyWeatherCache.defaultTtlSeconds(WeatherSection.CONDITIONS) * 1000, String.valueOf(remaining));
+    }
+
+    /**
+     * @test Nur ein Nachlader im Cluster
+     * @description Fragen beide Instanzen gleichzeitig an, lädt nur eine nach; die andere wartet auf deren Eintrag.
+     */
+    @Test
+    void resolve_shouldLetOnlyOneNodeFetch() throws Exception {
+        // Arrange
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // Act
+        List<Future<Object>> results = List.of(
+                executor.submit(() -> fetchThrough(nodeA, upstreamCalls, start)),
+                executor.submit(() -> fetchThrough(nodeB, upstreamCalls, start)));
+        start.countDown();
+
+        // Assert
+        for (Future<Object> result : results) {
+            assertEquals(Map.of("temp", 18.0), result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, upstreamCalls.get());
+        executor.shutdown();
+    }
+
+    /**
+     * @test Invalidierung über Instanzgrenzen
+     * @description Eine Invalidierung auf Instanz A entfernt den lokalen Eintrag auf Instanz B.
+     */
+    @Test
+    void invalidate_shouldDropLocalEntriesOnOtherNode() {
+        // Arrange
+        nodeA.bus().poll();
+        nodeB.bus().poll();
+        nodeB.local().put(WeatherSection.ALERTS, 52.52, 13.405, "m", List.of());
+        assertNotNull(nodeB.local().lookup(WeatherSection.ALERTS, 52.52, 13.405, "m"));
+
+        // Act
+        nodeA.shared().invalidate(WeatherSection.ALERTS, 52.52, 13.405, "m");
+        int delivered = nodeB.bus().poll();
+
+        // Assert
+        assertEquals(1, delivered);
+        assertNull(nodeB.local().lookup(WeatherSection.ALERTS, 52.52, 13.405, "m"));
+    }
+
+    /**
+     * @test Aktualisierung verteilt Invalidierung
+     * @description Ersetzt Instanz A einen gültigen Eintrag (Hintergrundaktualisierung), verwirft Instanz B ihren
+     * lokalen Eintrag; der lokale Eintrag von A selbst bleibt erhalten.
+     */
+    @Test
+    void put_shouldDropLocalEntriesOnOtherNodeWhenReplacingLiveEntry() {
+        // Arrange
+        nodeA.bus().poll();
+        nodeB.bus().poll();
+        nodeA.shared().put(WeatherSection.CONDITIONS, 52.52, 13.405, "m", Map.of("temp", 20.5));
+        nodeB.local().put(WeatherSection.CONDITIONS, 52.52, 13.405, "m", Map.of("temp", 20.5));
+        nodeA.local().put(WeatherSection.CONDITIONS, 52.52, 13.405, "m", Map.of("temp", 22.0));
+        assertEquals(0, nodeB.bus().poll());
+
+        // Act
+        nodeA.shared().put(WeatherSection.CONDITIONS, 52.52, 13.405, "m", Map.of("temp", 22.0));
+        int delivered = nodeB.bus().poll();
+        nodeA.bus().poll();
+
+        // Assert
+        assertEquals(1, delivered);
+        assertNull(nodeB.local().lookup(WeatherSection.CONDITIONS, 52.52, 13.405, "m"));
+        assertNotNull(nodeA.local().lookup(WeatherSection.CONDITIONS, 52.52, 13.405, "m"));
+        NearbyWeatherCache.Hit hit = nodeB.shared().resolve(List.of(WeatherSection.CONDITIONS), 52.52, 13.405, "m")
+                .get(WeatherSection.CONDITIONS);
+        assertEquals(Map.of("temp", 22.0), hit.value());
+    }
+
+    private static Object fetchThrough(Node node, AtomicInteger upstreamCalls, CountDownLatch start) throws InterruptedException {
+        start.await();
+        Map<WeatherSection, NearbyWeatherCache.Hit> hits = node.shared().resolve(List.of(WeatherSection.CONDITIONS), 48.137, 11.575, "m");
+        if (hits.containsKey(WeatherSection.CONDITIONS)) {
+            return hits.get(WeatherSection.CONDITIONS).value();
+        }
+        upstreamCalls.incrementAndGet();
+        Thread.sleep(200);
+        Object value = Map.of("temp", 18.0);
+        node.shared().put(WeatherSection.CONDITIONS, 48.137, 11.575, "m", value);
+        return value;
+    }
+
+    private Node node(String id) {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("weather.shared-cache.wait-ms", "3000")
+                .withProperty("weather.shared-cache.poll-ms", "20");
+        NearbyWeatherCache local = new NearbyWeatherCache(environment);
+        CacheInvalidationBus bus = new CacheInvalidationBus(new JdbcTemplate(database), environment);
+        SharedWeatherCache shared = new SharedWeatherCache(new JdbcSharedCacheStore(new JdbcTemplate(database)),
+                environment, bus, local, Clock.systemUTC(), id);
+        return new Node(local, bus, shared);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.demo.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für den nicht-blockierenden Betriebsmodus von {@link WeatherDetailService} und {@link WeatherService}.
+ * Statt Mocks wird ein lokaler HTTP-Stub gestartet, der feste Xweather-Antworten liefert.
+ */
+class WeatherDetailServiceReactiveTest {
+
+    private HttpServer stub;
+    private final Map<String, String> responses = new ConcurrentHashMap<>();
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    private WeatherDetailService weatherDetailService;
+    private WeatherService weatherService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.setExecutor(Executors.newFixedThreadPool(4));
+        stub.createContext("/", exchange -> {
+            requestCount.incrementAndGet();
+            String path = exchange.getRequestURI().getPath();
+            String query = exchange.getRequestURI().getQuery();
+            String body = responses.entrySet().stream()
+                    .filter(entry -> (path + "?" + query).contains(entry.getKey()))
+                    .map(Map.Entry::getValue)
+                    .findFirst()
+                    .orElse("{\"success\":true,\"response\":[]}");
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(body.startsWith("ERROR") ? 500 : 200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        stub.start();
+
+        String baseUrl = "http://127.0.0.1:" + stub.getAddress().getPort();
+        XweatherReactiveClient client = new XweatherReactiveClient(WebClient.builder().build(), 5000, 5);
+
+        weatherDetailService = new WeatherDetailService();
+        ReflectionTestUtils.setField(weatherDetailService, "reactiveClient", client);
+        ReflectionTestUtils.setField(weatherDetailService, "clientId", "test-client-id");
+        ReflectionTestUtils.setField(weatherDetailService, "clientSecret", "test-client-secret");
+        ReflectionTestUtils.setField(weatherDetailService, "baseUrl", baseUrl);
+
+        weatherService = new WeatherService();
+        ReflectionTestUtils.setField(weatherService, "reactiveClient", client);
+        ReflectionTestUtils.setField(weatherService, "clientId", "test-client-id");
+        ReflectionTestUtils.setField(weatherService, "clientSecret", "test-client-secret");
+        ReflectionTestUtils.setField(weatherService, "baseUrl", baseUrl);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.stop(0);
+    }
+
+    /**
+     * @test Paralleler Abruf aller Abschnitte
+     * @description Prüft, ob alle fünf Abschnitte abgerufen und wie im blockierenden Modus geparst werden.
+     */
+    @Test
+    void fetchAllWeatherData_shouldFetchAndParseAllSections() {
+        // Arrange
+        responses.put("/conditions/", "{\"success\":true,\"response\":[{\"periods\":[{\"tempC\":20.5,\"humidity\":60,\"weather\":\"Sunny\"}]}]}");
+        responses.put("filter=day", "{\"success\":true,\"response\":[{\"periods\":[{\"timestamp\":1620000000,\"maxTempC\":25.0,\"minTempC\":15.0}]}]}");
+        responses.put("/airquality/", "{\"success\":true,\"response\":[{\"periods\":[{\"aqi\":50,\"category\":\"Good\"}]}]}");
+
+        // Act
+        Map<String, Object> result = weatherDetailService.fetchAllWeatherData(52.52, 13.405, "m");
+
+        // Assert
+        assertEquals(5, requestCount.get());
+        Map<String, Object> current = (Map<String, Object>) result.get("current");
+        assertEquals(20.5, current.get("temp"));
+        assertEquals(60, current.get("humidity"));
+        List<Map<String, Object>> forecast = (List<Map<String, Object>>) result.get("forecast");
+        assertEquals(1, forecast.size());
+        assertEquals(25.0, forecast.get(0).get("tempMax"));
+        assertEquals(50, ((Map<String, Object>) result.get("airQuality")).get("aqi"));
+        assertTrue(((List) result.get("hourly")).isEmpty());
+        assertTrue(((List) result.get("alerts")).isEmpty());
+    }
+
+    /**
+     * @test Fehlerbehandlung einzelner Abschnitte
+     * @description Ein fehlschlagender Abschnitt darf die übrigen Abschnitte nicht beeinflussen.
+     */
+    @Test
+    void fetchAllWeatherData_shouldIsolateFailingSections() {
+        // Arrange
+        responses.put("/conditions/", "ERROR");
+        responses.put("/airquality/", "{\"success\":true,\"response\":[{\"periods\":[{\"aqi\":50,\"category\":\"Good\"}]}]}");
+
+        // Act
+        Map<String, Object> result = weatherDetailService.fetchAllWeatherData(52.52, 13.405, "m");
+
+        // Assert
+        assertTrue(((Map) result.get("current")).isEmpty());
+        assertEquals("Good", ((Map<String, Object>) result.get("airQuality")).get("category"));
+    }
+
+    /**
+     * @test Ortssuche über den nicht-blockierenden Client
+     */
+    @Test
+    void searchPlaces_shouldParseResults() {
+        // Arrange
+        responses.put("/places/search", "{\"success\":true,\"response\":[{\"place\":{\"name\":\"Berlin\",\"countryFull\":\"Germany\"},\"loc\":{\"lat\":52.52,\"long\":13.405}}]}");
+
+        // Act
+        List<Map<String, Object>> results = weatherService.searchPlaces("Berlin");
+
+        // Assert
+        assertEquals(1, results.size());
+        assertEquals("Berlin", results.get(0).get("name"));
+        assertEquals(13.405, results.get(0).get("lon"));
+    }
+}
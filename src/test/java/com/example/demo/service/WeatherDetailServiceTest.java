@@ -155,4 +155,34 @@ class WeatherDetailServiceTest {
         assertTrue(((Map) result.get("airQuality")).isEmpty());
         assertTrue(((List) result.get("alerts")).isEmpty());
     }
-}
\ No newline at end of file
+
+    /**
+     * @test Stündliche Vorhersage in Spaltenform
+     * @description Prüft, ob die Perioden spaltenweise übernommen, fehlende Werte als NaN markiert
+     * und Symbole über ein Wörterbuch referenziert werden.
+     */
+    @Test
+    void fetchHourlySeries_shouldParseColumns() {
+        // Arrange
+        String jsonResponse = "{\"success\":true,\"response\":[{\"periods\":["
+                + "{\"timestamp\":1620000000,\"avgTempC\":12.5,\"pop\":20,\"icon\":\"sunny.png\"},"
+                + "{\"timestamp\":1620003600,\"avgTempC\":13.0,\"icon\":\"sunny.png\"},"
+                + "{\"timestamp\":1620007200,\"avgTempC\":11.0,\"icon\":\"rain.png\"}]}]}";
+        when(restTemplate.getForObject(anyString(), eq(String.class))).thenAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            return url.contains("filter=1hr") && url.contains("limit=120") ? jsonResponse : "{}";
+        });
+
+        // Act
+        ForecastSeries series = weatherDetailService.fetchHourlySeries(52.52, 13.405, "m", 120);
+
+        // Assert
+        assertEquals(3, series.getLength());
+        assertArrayEquals(new long[]{1620000000L, 1620003600L, 1620007200L}, series.getTimestamps());
+        assertEquals(12.5f, series.getTemp()[0]);
+        assertEquals(20f, series.getPop()[0]);
+        assertTrue(Float.isNaN(series.getPop()[1]));
+        assertArrayEquals(new String[]{"sunny.png", "rain.png"}, series.getIcons());
+        assertArrayEquals(new short[]{0, 0, 1}, series.getIconIndex());
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für den {@link WeatherSnapshotStore}.
+ * Prüft, welche Abschnitte bei {@code since} geliefert werden und wann auf die vollständige Antwort zurückgefallen wird.
+ */
+class WeatherSnapshotStoreTest {
+
+    private WeatherSnapshotStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new WeatherSnapshotStore(new MockEnvironment().withProperty("weather.delta.max-entries", "1"));
+    }
+
+    /**
+     * @test Erste Abfrage
+     * @description Ohne since kommt die vollständige Antwort mit Version.
+     */
+    @Test
+    void apply_shouldReturnFullResponseWithoutSince() {
+        // Act
+        Map<String, Object> response = store.apply(52.525, 13.405, "m", details(12.0, 40), null);
+
+        // Assert
+        assertEquals(false, response.get(WeatherSnapshotStore.DELTA));
+        assertNotNull(response.get(WeatherSnapshotStore.VERSION));
+        assertTrue(response.keySet().containsAll(List.of("current", "forecast", "hourly", "airQuality", "alerts", "distanceKm")));
+    }
+
+    /**
+     * @test Nur geänderte Abschnitte
+     * @description Ändern sich nur die Conditions, enthält die Antwort auf since nur diesen Abschnitt und seine Entfernung.
+     */
+    @Test
+    void apply_shouldReturnOnlyChangedSections() {
+        // Arrange
+        String version = version(store.apply(52.525, 13.405, "m", details(12.0, 40), null));
+
+        // Act
+        Map<String, Object> response = store.apply(52.525, 13.405, "m", details(12.5, 40), version);
+
+        // Assert
+        assertEquals(true, response.get(WeatherSnapshotStore.DELTA));
+        assertEquals(Set.of("current", "distanceKm", "delta", "since", "version"), response.keySet());
+        assertEquals(Map.of("temp", 12.5), response.get("current"));
+        assertEquals(Set.of("current"), ((Map<?, ?>) response.get("distanceKm")).keySet());
+        assertNotEquals(version, version(response));
+    }
+
+    /**
+     * @test Änderung mit gleichem hashCode
+     * @description {@code "Aa"} und {@code "BB"} haben denselben 32-Bit-hashCode; die Änderung kommt trotzdem beim Client an.
+     */
+    @Test
+    void apply_shouldDetectChangeWithEqualHashCode() {
+        // Arrange
+        Map<String, Object> before = new HashMap<>(details(12.0, 40));
+        before.put("current", Map.of("temp", 12.0, "weather", "Aa"));
+        Map<String, Object> after = new HashMap<>(before);
+        after.put("current", Map.of("temp", 12.0, "weather", "BB"));
+        assertEquals(before.get("current").hashCode(), after.get("current").hashCode());
+        String version = version(store.apply(52.525, 13.405, "m", before, null));
+
+        // Act
+        Map<String, Object> response = store.apply(52.525, 13.405, "m", after, version);
+
+        // Assert
+        assertEquals(Map.of("temp", 12.0, "weather", "BB"), response.get("current"));
+        assertNotEquals(version, version(response));
+    }
+
+    /**
+     * @test Keine Änderung
+     * @description Bei gleichem Inhalt bleibt die Version gleich und die Antwort enthält keinen Abschnitt.
+     */
+    @Test
+    void apply_shouldKeepVersionWhenNothingChanged() {
+        // Arrange
+        String version = version(store.apply(52.525, 13.405, "m", details(12.0, 40), null));
+
+        // Act
+        Map<String, Object> response = store.apply(52.527, 13.407, "m", details(12.0, 40), version);
+
+        // Assert
+        assertEquals(version, version(response));
+        assertFalse(response.containsKey("current"));
+        assertTrue(((Map<?, ?>) response.get("distanceKm")).isEmpty());
+    }
+
+    /**
+     * @test Mehrere Versionen zurück
+     * @description Wer eine ältere Version schickt, bekommt alle seitdem geänderten Abschnitte.
+     */
+    @Test
+    void apply_shouldCombineChangesSinceOlderVersion() {
+        // Arrange
+        String first = version(store.apply(52.525, 13.405, "m", details(12.0, 40), null));
+        String second = version(store.apply(52.525, 13.405, "m", details(12.5, 40), first));
+        store.apply(52.525, 13.405, "m", details(12.5, 55), second);
+
+        // Act
+        Map<String, Object> fromFirst = store.apply(52.525, 13.405, "m", details(12.5, 55), first);
+        Map<String, Object> fromSecond = store.apply(52.525, 13.405, "m", details(12.5, 55), second);
+
+        // Assert
+        assertTrue(fromFirst.containsKey("current") && fromFirst.containsKey("airQuality"));
+        assertFalse(fromSecond.containsKey("current"));
+        assertTrue(fromSecond.containsKey("airQuality"));
+    }
+
+    /**
+     * @test Rückfall auf vollständige Antwort
+     * @description Fremde, ungültige und nach Verdrängung des Orts zu alte Versionen ergeben die vollständige Antwort.
+     */
+    @Test
+    void apply_shouldFallBackToFullResponseForUnknownVersions() {
+        // Arrange
+        String version = version(store.apply(52.525, 13.405, "m", details(12.0, 40), null));
+        store.apply(48.14, 11.58, "m", details(15.0, 30), null);
+
+        // Act
+        Map<String, Object> evicted = store.apply(52.525, 13.405, "m", details(12.0, 40), version);
+        Map<String, Object> foreign = store.apply(52.525, 13.405, "m", details(12.0, 40), "other.1");
+        Map<String, Object> invalid = store.apply(52.525, 13.405, "m", details(12.0, 40), "kaputt");
+
+        // Assert
+        assertEquals(false, evicted.get(WeatherSnapshotStore.DELTA));
+        assertEquals(false, foreign.get(WeatherSnapshotStore.DELTA));
+        assertEquals(false, invalid.get(WeatherSnapshotStore.DELTA));
+        assertTrue(evicted.containsKey("forecast"));
+    }
+
+    private static String version(Map<String, Object> response) {
+        return (String) response.get(WeatherSnapshotStore.VERSION);
+    }
+
+    private static Map<String, Object> details(double temp, int aqi) {
+        Map<String, Object> details = new HashMap<>();
+        details.put("current", Map.of("temp", temp));
+        details.put("forecast", List.of(Map.of("tempMax", 18.0)));
+        details.put("hourly", List.of(Map.of("temp", 13.0)));
+        details.put("airQuality", Map.of("aqi", aqi));
+        details.put("alerts", List.of());
+        details.put("distanceKm", Map.of("current", 0.0, "forecast", 1.2, "hourly", 0.4, "airQuality", 0.0, "alerts", 0.0));
+        return details;
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.demo.service;
+
+import com.example.demo.MutableClock;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für den {@link WeatherTileCache}.
+ * Die Temperatur der Stützpunkte entspricht ihrem Längengrad, damit die Interpolation nachgerechnet werden kann.
+ */
+class WeatherTileCacheTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private MutableClock clock;
+    private WeatherTileCache cache;
+    private AtomicInteger batchCalls;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        batchCalls = new AtomicInteger();
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("weather.tiles.samples", "4")
+                .withProperty("weather.tiles.grid", "8")
+                .withProperty("weather.tiles.batch-size", "10")
+                .withProperty("weather.tiles.ttl-seconds", "600")
+                .withProperty("weather.tiles.sample-ttl-seconds", "600");
+        cache = new WeatherTileCache(environment, clock);
+    }
+
+    /**
+     * @test Interpolation
+     * @description Ein in Ost-West-Richtung linearer Verlauf wird an den Zellmitten exakt wiedergegeben.
+     */
+    @Test
+    void tile_shouldInterpolateBetweenSamples() {
+        // Act
+        WeatherTileCache.Tile tile = cache.tile(ObservationMetric.TEMP, 2, 2, 1, "m", loader(request -> true));
+
+        // Assert
+        assertEquals(8, tile.size());
+        assertEquals(64, tile.values().length);
+        assertEquals(5.6f, tile.values()[0]);
+        assertEquals(84.4f, tile.values()[7]);
+        assertEquals(tile.values()[3], tile.values()[7 * 8 + 3]);
+        assertEquals("temp", tile.layer());
+    }
+
+    /**
+     * @test Gebündelte Abfrage und Kachel-Cache
+     * @description 25 Stützpunkte ergeben bei Blockgröße 10 drei Batch-Aufrufe; die zweite Anfrage kommt aus dem Cache.
+     */
+    @Test
+    void tile_shouldBatchSamplesAndCacheTile() {
+        // Arrange
+        Function<List<String>, JsonNode> loader = loader(request -> true);
+
+        // Act
+        WeatherTileCache.Tile first = cache.tile(ObservationMetric.TEMP, 3, 4, 2, "m", loader);
+        WeatherTileCache.Tile second = cache.tile(ObservationMetric.TEMP, 3, 4, 2, "m", loader);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(3, batchCalls.get());
+        assertEquals(25, cache.getSampleLoadCount());
+    }
+
+    /**
+     * @test Gemeinsame Stützpunkte
+     * @description Die östliche Nachbarkachel lädt ihre Randpunkte nicht erneut, ebenso wenig eine andere
+     * Messgröße desselben Abschnitts oder die übergeordnete Kachel an gemeinsamen Punkten.
+     */
+    @Test
+    void tile_shouldShareSamplesWithNeighboursAndLayers() {
+        // Arrange
+        Function<List<String>, JsonNode> loader = loader(request -> true);
+        cache.tile(ObservationMetric.TEMP, 3, 4, 2, "m", loader);
+
+        // Act
+        cache.tile(ObservationMetric.TEMP, 3, 5, 2, "m", loader);
+        long afterNeighbour = cache.getSampleLoadCount();
+        cache.tile(ObservationMetric.WIND_SPEED, 3, 4, 2, "m", loader);
+        long afterOtherLayer = cache.getSampleLoadCount();
+        cache.tile(ObservationMetric.TEMP, 2, 2, 1, "m", loader);
+
+        // Assert
+        assertEquals(25 + 20, afterNeighbour);
+        assertEquals(afterNeighbour, afterOtherLayer);
+        assertEquals(afterOtherLayer + 10, cache.getSampleLoadCount());
+    }
+
+    /**
+     * @test Fehlende Stützpunkte
+     * @description Fehlgeschlagene Punkte bleiben leer, die Kachel wird nicht gespeichert und
+     * beim nächsten Aufruf werden nur die fehlenden Punkte nachgeladen. Nur die vollständige Kachel darf
+     * von Browsern und CDNs zwischengespeichert werden.
+     */
+    @Test
+    void tile_shouldNotCacheTileWithMissingSamples() {
+        // Act
+        WeatherTileCache.Tile partial = cache.tile(ObservationMetric.TEMP, 2, 2, 1, "m",
+                loader(request -> !request.endsWith(",90.0000")));
+        long afterFirst = cache.getSampleLoadCount();
+        WeatherTileCache.Tile complete = cache.tile(ObservationMetric.TEMP, 2, 2, 1, "m", loader(request -> true));
+
+        // Assert
+        assertNotNull(partial.values()[0]);
+        assertEquals(67.5f, partial.values()[7]);
+        assertEquals(84.4f, complete.values()[7]);
+        assertEquals(5, cache.getSampleLoadCount() - afterFirst);
+        assertEquals(0, cache.maxAgeSeconds(partial));
+        assertEquals(600, cache.maxAgeSeconds(complete));
+        clock.advanceSeconds(200);
+        assertEquals(400, cache.maxAgeSeconds(complete));
+    }
+
+    /**
+     * @test Ablauf nach TTL
+     */
+    @Test
+    void tile_shouldReloadAfterTtl() {
+        // Arrange
+        Function<List<String>, JsonNode> loader = loader(request -> true);
+        cache.tile(ObservationMetric.AQI, 4, 8, 5, "m", loader);
+
+        // Act
+        clock.advanceSeconds(601);
+        cache.tile(ObservationMetric.AQI, 4, 8, 5, "m", loader);
+
+        // Assert
+        assertEquals(50, cache.getSampleLoadCount());
+    }
+
+    /**
+     * @test Ungültige Kachel
+     */
+    @Test
+    void tile_shouldRejectInvalidCoordinates() {
+        // Arrange
+        Function<List<String>, JsonNode> loader = loader(request -> true);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> cache.tile(ObservationMetric.TEMP, 2, 4, 0, "m", loader));
+        assertThrows(IllegalArgumentException.class, () -> cache.tile(ObservationMetric.TEMP, 13, 0, 0, "m", loader));
+        assertEquals(0, batchCalls.get());
+    }
+
+    /**
+     * @test Stützpunkt-Schlüssel über Zoomstufen
+     */
+    @Test
+    void sampleKey_shouldMatchSamePointOnCoarserZoom() {
+        // Assert
+        assertEquals(WeatherTileCache.sampleKey(2, 3, 5), WeatherTileCache.sampleKey(3, 6, 10));
+        assertEquals(WeatherTileCache.sampleKey(0, 1, 1), WeatherTileCache.sampleKey(4, 16, 16));
+        assertNotEquals(WeatherTileCache.sampleKey(3, 6, 10), WeatherTileCache.sampleKey(3, 6, 11));
+    }
+
+    /**
+     * Antwortet wie {@code /batch} mit tempC = Längengrad, windSpeedKPH = 10 und aqi = 42;
+     * Teilanfragen, für die {@code succeeds} falsch ist, schlagen fehl.
+     */
+    private Function<List<String>, JsonNode> loader(Predicate<String> succeeds) {
+        return requests -> {
+            batchCalls.incrementAndGet();
+            ArrayNode responses = MAPPER.createArrayNode();
+            for (String request : requests) {
+                ObjectNode response = responses.addObject();
+                response.put("id", request);
+                response.put("success", succeeds.test(request));
+                ObjectNode period = response.putArray("response").addObject().putArray("periods").addObject();
+                double lon = Double.parseDouble(request.substring(request.indexOf(',') + 1));
+                period.put("tempC", lon);
+                period.put("windSpeedKPH", 10);
+                period.put("aqi", 42);
+            }
+            ObjectNode root = MAPPER.createObjectNode();
+            root.put("success", true);
+            root.putObject("response").set("responses", responses);
+            return root;
+        };
+    }
+}
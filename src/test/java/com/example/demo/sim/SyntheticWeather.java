@@ -0,0 +1,228 @@
+package com.example.demo.sim;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Erzeugt deterministische, räumlich glatte Wetterdaten im Xweather-Format.
+ * Benachbarte Koordinaten liefern ähnliche Werte, sodass Caches und Interpolation
+ * realistisch getestet werden können. Neben den vom Backend gelesenen Feldern enthält
+ * jede Periode weitere Felder, damit die Antwortgröße der echten API nahekommt.
+ */
+final class SyntheticWeather {
+
+    private static final String[] WEATHER = {"Sunny", "Mostly Sunny", "Partly Cloudy", "Cloudy", "Light Rain", "Rain", "Snow"};
+    private static final String[] ICONS = {"sunny.png", "fair.png", "pcloudy.png", "cloudy.png", "showers.png", "rain.png", "snow.png"};
+    private static final String[] WIND_DIRS = {"N", "NE", "E", "SE", "S", "SW", "W", "NW"};
+
+    private SyntheticWeather() {
+    }
+
+    static double temperatureC(double lat, double lon, long timestamp) {
+        double hourOfDay = (timestamp / 3600.0 + lon / 15.0) % 24;
+        return round(28 * Math.cos(Math.toRadians(lat)) - 8
+                + 3 * Math.sin(Math.toRadians(lon * 4))
+                + 4 * Math.sin((hourOfDay - 9) / 24 * 2 * Math.PI));
+    }
+
+    static double windKph(double lat, double lon) {
+        return round(12 + 10 * Math.abs(Math.sin(Math.toRadians(lat * 3 + lon * 2))));
+    }
+
+    static int aqi(double lat, double lon) {
+        return (int) Math.round(40 + 35 * Math.abs(Math.sin(Math.toRadians(lat * 5)) * Math.cos(Math.toRadians(lon * 5))));
+    }
+
+    static Map<String, Object> conditions(double[] loc, Map<String, String> params) {
+        long now = System.currentTimeMillis() / 1000;
+        double tempC = temperatureC(loc[0], loc[1], now);
+        double windKph = windKph(loc[0], loc[1]);
+        int code = weatherCode(loc[0], loc[1], now / 86400);
+
+        Map<String, Object> period = new LinkedHashMap<>();
+        period.put("timestamp", now);
+        period.put("dateTimeISO", isoTime(now));
+        period.put("tempC", tempC);
+        period.put("tempF", toF(tempC));
+        period.put("feelslikeC", round(tempC - windKph / 20));
+        period.put("feelslikeF", toF(tempC - windKph / 20));
+        period.put("dewpointC", round(tempC - 6));
+        period.put("dewpointF", toF(tempC - 6));
+        period.put("humidity", 45 + (int) Math.abs(loc[1] * 7) % 50);
+        period.put("pressureMB", 1013 + (int) (loc[0] % 10));
+        period.put("pressureIN", 29.92);
+        period.put("spressureMB", 1008);
+        period.put("altimeterMB", 1014);
+        period.put("windSpeedKTS", round(windKph / 1.852));
+        period.put("windSpeedKPH", windKph);
+        period.put("windSpeedMPH", round(windKph / 1.609));
+        period.put("windDirDEG", (int) Math.abs(loc[0] * loc[1]) % 360);
+        period.put("windDir", WIND_DIRS[(int) Math.abs(loc[0] * loc[1]) % 360 / 45]);
+        period.put("windGustKPH", round(windKph * 1.6));
+        period.put("windGustMPH", round(windKph * 1.6 / 1.609));
+        period.put("precipMM", code >= 4 ? 1.2 : 0);
+        period.put("precipIN", code >= 4 ? 0.05 : 0);
+        period.put("visibilityKM", code >= 4 ? 8.0 : 24.1);
+        period.put("visibilityMI", code >= 4 ? 5.0 : 15.0);
+        period.put("sky", code * 15);
+        period.put("cloudsCoded", "FW");
+        period.put("weather", WEATHER[code]);
+        period.put("weatherCoded", ":" + code);
+        period.put("weatherPrimary", WEATHER[code]);
+        period.put("weatherPrimaryCoded", "::" + code);
+        period.put("icon", ICONS[code]);
+        period.put("solradWM2", 350);
+        period.put("uvi", Math.max(0, (int) (tempC / 4)));
+        period.put("isDay", true);
+        return period;
+    }
+
+    static List<Map<String, Object>> forecasts(double[] loc, Map<String, String> params) {
+        boolean hourly = "1hr".equals(params.get("filter"));
+        int limit = Integer.parseInt(params.getOrDefault("limit", hourly ? "24" : "7"));
+        long step = hourly ? 3600 : 86400;
+        long start = System.currentTimeMillis() / 1000 / step * step;
+
+        List<Map<String, Object>> periods = new ArrayList<>();
+        for (int i = 0; i < limit; i++) {
+            long timestamp = start + i * step;
+            double avgC = temperatureC(loc[0], loc[1], timestamp);
+            int code = weatherCode(loc[0], loc[1], timestamp / 86400);
+
+            Map<String, Object> period = new LinkedHashMap<>();
+            period.put("timestamp", timestamp);
+            period.put("validTime", isoTime(timestamp));
+            period.put("dateTimeISO", isoTime(timestamp));
+            period.put("maxTempC", round(avgC + 5));
+            period.put("maxTempF", toF(avgC + 5));
+            period.put("minTempC", round(avgC - 5));
+            period.put("minTempF", toF(avgC - 5));
+            period.put("avgTempC", avgC);
+            period.put("avgTempF", toF(avgC));
+            period.put("tempC", hourly ? avgC : null);
+            period.put("tempF", hourly ? toF(avgC) : null);
+            period.put("pop", code >= 4 ? 70 : 10);
+            period.put("precipMM", code >= 4 ? 3.1 : 0);
+            period.put("precipIN", code >= 4 ? 0.12 : 0);
+            period.put("humidity", 55);
+            period.put("windSpeedKPH", windKph(loc[0], loc[1]));
+            period.put("windSpeedMPH", round(windKph(loc[0], loc[1]) / 1.609));
+            period.put("windDir", WIND_DIRS[i % WIND_DIRS.length]);
+            period.put("sky", code * 15);
+            period.put("weather", WEATHER[code]);
+            period.put("weatherPrimary", WEATHER[code]);
+            period.put("weatherPrimaryCoded", "::" + code);
+            period.put("icon", ICONS[code]);
+            period.put("isDay", true);
+            periods.add(period);
+        }
+        return periods;
+    }
+
+    static Map<String, Object> airQuality(double[] loc) {
+        int aqi = aqi(loc[0], loc[1]);
+        Map<String, Object> pollutants = new LinkedHashMap<>();
+        pollutants.put("o3", pollutant("o3", "ozone", aqi * 0.9));
+        pollutants.put("pm2p5", pollutant("pm2.5", "particle matter (<2.5µm)", aqi * 0.3));
+        pollutants.put("pm10", pollutant("pm10", "particle matter (<10µm)", aqi * 0.5));
+        pollutants.put("co", pollutant("co", "carbon monoxide", aqi * 4.0));
+        pollutants.put("no2", pollutant("no2", "nitrogen dioxide", aqi * 0.4));
+        pollutants.put("so2", pollutant("so2", "sulfur dioxide", aqi * 0.1));
+
+        Map<String, Object> period = new LinkedHashMap<>();
+        period.put("timestamp", System.currentTimeMillis() / 1000);
+        period.put("aqi", aqi);
+        period.put("category", aqi <= 50 ? "good" : "moderate");
+        period.put("color", aqi <= 50 ? "00E400" : "FFFF00");
+        period.put("method", "airnow");
+        period.put("dominant", "o3");
+        period.put("pollutants", pollutants);
+        return period;
+    }
+
+    static List<Map<String, Object>> alerts(double[] loc, Map<String, String> params) {
+        List<Map<String, Object>> alerts = new ArrayList<>();
+        long latIndex = (long) Math.floor(loc[0] / 5);
+        long lonIndex = (long) Math.floor(loc[1] / 5);
+        if (hasAlert(latIndex, lonIndex)) {
+            alerts.add(alert(latIndex, lonIndex, loc));
+        }
+        return alerts;
+    }
+
+    /**
+     * Alle Warnungen, deren 5°-Region die Bounding-Box {@code p=south,west,north,east} schneidet.
+     */
+    static List<Map<String, Object>> alertsWithin(Map<String, String> params) {
+        String[] box = params.getOrDefault("p", "0,0,0,0").split(",");
+        double south = Double.parseDouble(box[0]), west = Double.parseDouble(box[1]);
+        double north = Double.parseDouble(box[2]), east = Double.parseDouble(box[3]);
+        int limit = Integer.parseInt(params.getOrDefault("limit", "250"));
+        List<Map<String, Object>> alerts = new ArrayList<>();
+        for (long latIndex = (long) Math.floor(south / 5); latIndex * 5 < north && alerts.size() < limit; latIndex++) {
+            for (long lonIndex = (long) Math.floor(west / 5); lonIndex * 5 < east && alerts.size() < limit; lonIndex++) {
+                if (hasAlert(latIndex, lonIndex)) {
+                    alerts.add(alert(latIndex, lonIndex, new double[]{latIndex * 5 + 2.5, lonIndex * 5 + 2.5}));
+                }
+            }
+        }
+        return alerts;
+    }
+
+    private static boolean hasAlert(long latIndex, long lonIndex) {
+        return Math.floorMod(latIndex * 31 + lonIndex, 7) == 0;
+    }
+
+    private static Map<String, Object> alert(long latIndex, long lonIndex, double[] loc) {
+        long region = latIndex * 31 + lonIndex;
+
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("type", "WI.Y");
+        details.put("name", "WIND ADVISORY");
+        details.put("loc", "REGION" + region);
+        details.put("body", "Simulated wind advisory for region " + region + ".");
+        details.put("priority", 60);
+        details.put("emergency", false);
+
+        Map<String, Object> alert = new LinkedHashMap<>();
+        alert.put("id", "sim-" + region);
+        alert.put("loc", Map.of("lat", loc[0], "long", loc[1]));
+        alert.put("details", details);
+        alert.put("timestamps", Map.of("issued", System.currentTimeMillis() / 1000, "expires", System.currentTimeMillis() / 1000 + 21600));
+        double south = latIndex * 5.0, west = lonIndex * 5.0;
+        alert.put("geoPoly", Map.of("type", "Polygon", "coordinates", List.of(List.of(
+                List.of(west, south), List.of(west + 5, south), List.of(west + 5, south + 5),
+                List.of(west, south + 5), List.of(west, south)))));
+        return alert;
+    }
+
+    private static Map<String, Object> pollutant(String type, String name, double valuePPB) {
+        Map<String, Object> pollutant = new LinkedHashMap<>();
+        pollutant.put("type", type);
+        pollutant.put("name", name);
+        pollutant.put("valuePPB", round(valuePPB));
+        pollutant.put("valueUGM3", round(valuePPB * 1.9));
+        pollutant.put("valueMG", round(valuePPB * 0.0019));
+        pollutant.put("aqi", (int) valuePPB);
+        pollutant.put("category", "good");
+        return pollutant;
+    }
+
+    private static int weatherCode(double lat, double lon, long day) {
+        return (int) Math.floorMod((long) (Math.floor(lat / 2) * 13 + Math.floor(lon / 2) * 7 + day), (long) WEATHER.length);
+    }
+
+    private static String isoTime(long timestamp) {
+        return java.time.Instant.ofEpochSecond(timestamp).toString();
+    }
+
+    private static double toF(double celsius) {
+        return round(celsius * 9 / 5 + 32);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
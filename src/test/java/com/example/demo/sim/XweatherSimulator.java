@@ -0,0 +1,389 @@
+package com.example.demo.sim;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Eingebetteter Xweather-Simulator für Tests und Lasttests ohne Netzwerkzugriff.
+ * Liefert synthetische oder aufgezeichnete Antworten für conditions, forecasts, airquality,
+ * alerts (auch alerts/within mit Polygonen), places/search und batch. Latenz, HTTP-Fehlerrate und der Anteil an
+ * {@code success:false}-Antworten sind konfigurierbar. {@code fields=} beschränkt die Antwort wie bei Xweather
+ * auf die angegebenen Pfade; bei {@code /batch} gilt es für alle Teilanfragen ohne eigenes {@code fields}.
+ */
+public class XweatherSimulator implements AutoCloseable {
+
+    /**
+     * Verteilung der simulierten Antwortzeit in Millisekunden.
+     */
+    public interface LatencyModel {
+        long sampleMillis(Random random);
+
+        static LatencyModel none() {
+            return random -> 0;
+        }
+
+        static LatencyModel fixed(long millis) {
+            return random -> millis;
+        }
+
+        static LatencyModel uniform(long minMillis, long maxMillis) {
+            return random -> minMillis + (long) (random.nextDouble() * (maxMillis - minMillis));
+        }
+
+        static LatencyModel logNormal(double medianMillis, double sigma) {
+            return random -> Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+        }
+
+        /**
+         * Heavy-Tail-Verteilung: die meisten Aufrufe liegen nahe {@code scaleMillis},
+         * einzelne Ausreißer bis {@code capMillis}.
+         */
+        static LatencyModel pareto(double scaleMillis, double shape, long capMillis) {
+            return random -> Math.min(capMillis, Math.round(scaleMillis / Math.pow(1 - random.nextDouble(), 1 / shape)));
+        }
+    }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final List<String> ENDPOINTS = List.of("conditions", "forecasts", "airquality", "alerts", "places", "batch");
+
+    private static final List<Object[]> CITIES = List.of(
+            new Object[]{"Berlin", "Germany", "Berlin", 52.52, 13.405},
+            new Object[]{"Bern", "Switzerland", "Bern", 46.948, 7.447},
+            new Object[]{"Bergen", "Norway", "Vestland", 60.391, 5.322},
+            new Object[]{"Hamburg", "Germany", "Hamburg", 53.551, 9.993},
+            new Object[]{"Hannover", "Germany", "Niedersachsen", 52.375, 9.732},
+            new Object[]{"München", "Germany", "Bayern", 48.137, 11.575},
+            new Object[]{"Paris", "France", "Île-de-France", 48.857, 2.352},
+            new Object[]{"London", "United Kingdom", "England", 51.507, -0.128},
+            new Object[]{"Wien", "Austria", "Wien", 48.208, 16.373},
+            new Object[]{"New York", "United States", "New York", 40.713, -74.006}
+    );
+
+    private final Map<String, String> recorded = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> requestCounts = new ConcurrentHashMap<>();
+    private final AtomicLong bytesSent = new AtomicLong();
+
+    private volatile LatencyModel latency = LatencyModel.none();
+    private volatile double errorRate;
+    private volatile double failureRate;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public XweatherSimulator latency(LatencyModel latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Anteil der Anfragen, die mit HTTP 500 beantwortet werden.
+     */
+    public XweatherSimulator errorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /**
+     * Anteil der Anfragen, die mit HTTP 200 und {@code success:false} beantwortet werden.
+     */
+    public XweatherSimulator failureRate(double failureRate) {
+        this.failureRate = failureRate;
+        return this;
+    }
+
+    /**
+     * Hinterlegt eine aufgezeichnete Antwort, die statt der synthetischen Daten geliefert wird.
+     *
+     * @param endpoint z. B. "conditions", "forecasts" oder "places"
+     */
+    public XweatherSimulator record(String endpoint, String json) {
+        recorded.put(endpoint, json);
+        return this;
+    }
+
+    /**
+     * Lädt aufgezeichnete Antworten aus dem Classpath ({@code <directory>/<endpoint>.json}).
+     */
+    public XweatherSimulator loadRecordings(String directory) {
+        for (String endpoint : ENDPOINTS) {
+            try (InputStream in = getClass().getClassLoader().getResourceAsStream(directory + "/" + endpoint + ".json")) {
+                if (in != null) {
+                    recorded.put(endpoint, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return this;
+    }
+
+    public XweatherSimulator start() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        return this;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long requestCount(String endpoint) {
+        AtomicLong count = requestCounts.get(endpoint);
+        return count != null ? count.get() : 0;
+    }
+
+    public long totalRequests() {
+        return requestCounts.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    public long bytesSent() {
+        return bytesSent.get();
+    }
+
+    public void resetCounts() {
+        requestCounts.clear();
+        bytesSent.set(0);
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        Random random = ThreadLocalRandom.current();
+        String path = exchange.getRequestURI().getPath();
+        Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+        String endpoint = endpointOf(path);
+        requestCounts.computeIfAbsent(endpoint, key -> new AtomicLong()).incrementAndGet();
+
+        long delay = latency.sampleMillis(random);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        int status = 200;
+        String body;
+        if (random.nextDouble() < errorRate) {
+            status = 500;
+            body = "{\"error\":\"simulated upstream error\"}";
+        } else if ("batch".equals(endpoint)) {
+            body = batch(params, random);
+        } else {
+            body = respond(path, params, random);
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        bytesSent.addAndGet(bytes.length);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private String respond(String path, Map<String, String> params, Random random) {
+        String endpoint = endpointOf(path);
+        if (random.nextDouble() < failureRate) {
+            return "{\"success\":false,\"error\":{\"code\":\"warn_no_data\",\"description\":\"simulated failure\"},\"response\":[]}";
+        }
+        if (recorded.containsKey(endpoint)) {
+            return recorded.get(endpoint);
+        }
+        return write(Map.of("success", true, "response", project(payload(endpoint, path, params), params.get("fields"))));
+    }
+
+    /**
+     * Beantwortet {@code /batch?requests=/conditions/52.5,13.4,/airquality/52.5,13.4%3Ffields=aqi}.
+     */
+    private String batch(Map<String, String> params, Random random) {
+        List<Map<String, Object>> responses = new ArrayList<>();
+        for (String request : splitBatchRequests(params.getOrDefault("requests", ""))) {
+            int queryStart = request.indexOf('?');
+            String path = queryStart >= 0 ? request.substring(0, queryStart) : request;
+            Map<String, String> subParams = parseQuery(queryStart >= 0 ? request.substring(queryStart + 1) : null);
+            String fields = subParams.getOrDefault("fields", params.get("fields"));
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("id", request);
+            if (random.nextDouble() < failureRate) {
+                response.put("success", false);
+                response.put("error", Map.of("code", "warn_no_data", "description", "simulated failure"));
+                response.put("response", List.of());
+            } else {
+                response.put("success", true);
+                response.put("error", null);
+                response.put("response", project(payload(endpointOf(path), path, subParams), fields));
+            }
+            responses.add(response);
+        }
+        return write(Map.of("success", true, "response", Map.of("responses", responses)));
+    }
+
+    private Object payload(String endpoint, String path, Map<String, String> params) {
+        return switch (endpoint) {
+            case "conditions" -> List.of(Map.of("periods", List.of(SyntheticWeather.conditions(location(path), params))));
+            case "forecasts" -> List.of(Map.of("periods", SyntheticWeather.forecasts(location(path), params)));
+            case "airquality" -> List.of(Map.of("periods", List.of(SyntheticWeather.airQuality(location(path)))));
+            case "alerts" -> path.endsWith("/within")
+                    ? SyntheticWeather.alertsWithin(params)
+                    : SyntheticWeather.alerts(location(path), params);
+            case "places" -> places(params);
+            default -> List.of();
+        };
+    }
+
+    /**
+     * Behält von jedem Eintrag der Antwort nur die Pfade aus {@code fields} (kommagetrennt, z. B. {@code periods.tempC});
+     * Arrays auf dem Weg werden elementweise gefiltert.
+     */
+    private static Object project(Object payload, String fields) {
+        if (fields == null || fields.isBlank()) {
+            return payload;
+        }
+        List<List<String>> paths = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            paths.add(List.of(field.trim().split("\\.")));
+        }
+        return project(MAPPER.valueToTree(payload), paths);
+    }
+
+    private static JsonNode project(JsonNode node, List<List<String>> paths) {
+        if (node.isArray()) {
+            ArrayNode projected = MAPPER.createArrayNode();
+            node.forEach(element -> projected.add(project(element, paths)));
+            return projected;
+        }
+        if (!node.isObject()) {
+            return node;
+        }
+        // null = ganzer Teilbaum
+        Map<String, List<List<String>>> byKey = new LinkedHashMap<>();
+        for (List<String> path : paths) {
+            String key = path.get(0);
+            if (byKey.containsKey(key) && byKey.get(key) == null) continue;
+            if (path.size() == 1) {
+                byKey.put(key, null);
+            } else {
+                byKey.computeIfAbsent(key, k -> new ArrayList<>()).add(path.subList(1, path.size()));
+            }
+        }
+        ObjectNode projected = MAPPER.createObjectNode();
+        byKey.forEach((key, rest) -> {
+            JsonNode child = node.get(key);
+            if (child != null) {
+                projected.set(key, rest == null ? child : project(child, rest));
+            }
+        });
+        return projected;
+    }
+
+    private List<Map<String, Object>> places(Map<String, String> params) {
+        String query = params.getOrDefault("query", "").replace("name:^", "").toLowerCase(Locale.ROOT);
+        int limit = Integer.parseInt(params.getOrDefault("limit", "5"));
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (Object[] city : CITIES) {
+            if (results.size() < limit && ((String) city[0]).toLowerCase(Locale.ROOT).startsWith(query)) {
+                results.add(place((String) city[0], (String) city[1], (String) city[2], (double) city[3], (double) city[4]));
+            }
+        }
+        for (int i = 1; results.size() < limit && i <= 3; i++) {
+            String name = query.isEmpty() ? "Ort " + i : Character.toUpperCase(query.charAt(0)) + query.substring(1) + "dorf " + i;
+            int hash = Math.abs((query + i).hashCode());
+            results.add(place(name, "Germany", null, 47 + (hash % 800) / 100.0, 6 + (hash % 900) / 100.0));
+        }
+        return results;
+    }
+
+    private static Map<String, Object> place(String name, String country, String state, double lat, double lon) {
+        Map<String, Object> place = new LinkedHashMap<>();
+        place.put("name", name);
+        place.put("countryFull", country);
+        place.put("stateFull", state != null ? state : "");
+        return Map.of("place", place, "loc", Map.of("lat", lat, "long", lon));
+    }
+
+    private static double[] location(String path) {
+        String[] segments = path.split("/");
+        String[] parts = segments[segments.length - 1].split(",");
+        try {
+            return new double[]{Double.parseDouble(parts[0]), Double.parseDouble(parts[1])};
+        } catch (RuntimeException e) {
+            return new double[]{0, 0};
+        }
+    }
+
+    private static String endpointOf(String path) {
+        String[] segments = path.split("/");
+        return segments.length > 1 ? segments[1] : "";
+    }
+
+    private static List<String> splitBatchRequests(String requests) {
+        List<String> result = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i < requests.length(); i++) {
+            if (requests.charAt(i) == '/' && requests.charAt(i - 1) == ',') {
+                result.add(requests.substring(start, i - 1));
+                start = i;
+            }
+        }
+        if (!requests.isEmpty()) {
+            result.add(requests.substring(start));
+        }
+        return result;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return params;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static String write(Object value) {
+        try {
+            return MAPPER.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.demo.sim;
+
+import com.example.demo.service.ObservationMetric;
+import com.example.demo.service.WeatherDetailService;
+import com.example.demo.service.WeatherService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für den {@link XweatherSimulator}.
+ * Stellt sicher, dass die simulierten Antworten von den echten Parsern verarbeitet werden können.
+ */
+class XweatherSimulatorTest {
+
+    private XweatherSimulator simulator;
+    private final RestTemplate restTemplate = new RestTemplate();
+
+    @BeforeEach
+    void setUp() {
+        simulator = new XweatherSimulator().start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        simulator.close();
+    }
+
+    /**
+     * @test Synthetische Detaildaten
+     * @description Alle Abschnitte der /details-Antwort werden aus den simulierten Daten befüllt.
+     */
+    @Test
+    void simulatedResponses_shouldBeParsedByWeatherDetailService() {
+        // Arrange
+        WeatherDetailService service = new WeatherDetailService();
+        configure(service);
+
+        // Act
+        Map<String, Object> result = service.fetchAllWeatherData(52.52, 13.405, "m");
+
+        // Assert
+        assertNotNull(((Map<String, Object>) result.get("current")).get("temp"));
+        assertEquals(5, ((List<?>) result.get("forecast")).size());
+        assertEquals(6, ((List<?>) result.get("hourly")).size());
+        assertNotNull(((Map<String, Object>) result.get("airQuality")).get("pm25"));
+        assertEquals(1, simulator.requestCount("conditions"));
+        assertEquals(2, simulator.requestCount("forecasts"));
+    }
+
+    /**
+     * @test Feldprojektion
+     * @description Mit {@code fields=} kommen deutlich weniger Bytes an, die Parser liefern aber dieselben Felder
+     * wie bei vollständigen Antworten; die Messgrößen der Historie sind ebenfalls deklariert.
+     */
+    @Test
+    void declaredFields_shouldCoverEverythingTheParsersRead() {
+        // Arrange
+        WeatherDetailService projected = new WeatherDetailService();
+        configure(projected);
+        WeatherDetailService full = new WeatherDetailService();
+        configure(full);
+        ReflectionTestUtils.setField(full, "requestFields", false);
+
+        for (String units : List.of("m", "e")) {
+            // Act: Koordinate mit simulierter Warnung
+            simulator.resetCounts();
+            Map<String, Object> projectedResult = projected.fetchAllWeatherData(52.52, 27.5, units);
+            long projectedBytes = simulator.bytesSent();
+            simulator.resetCounts();
+            Map<String, Object> fullResult = full.fetchAllWeatherData(52.52, 27.5, units);
+            long fullBytes = simulator.bytesSent();
+
+            // Assert
+            assertTrue(projectedBytes < fullBytes * 0.7, projectedBytes + " / " + fullBytes);
+            assertEquals(shape(fullResult), shape(projectedResult));
+            assertEquals(fullResult.get("airQuality"), projectedResult.get("airQuality"));
+            assertEquals(fullResult.get("alerts"), projectedResult.get("alerts"));
+            assertFalse(((List<?>) projectedResult.get("alerts")).isEmpty());
+        }
+        for (ObservationMetric metric : ObservationMetric.values()) {
+            assertTrue(metric.getSection().getFields().contains(metric.getFieldPath()), metric.getFieldPath());
+        }
+    }
+
+    /**
+     * @test Ortssuche im Simulator
+     */
+    @Test
+    void simulatedSearch_shouldBeParsedByWeatherService() {
+        // Arrange
+        WeatherService service = new WeatherService();
+        configure(service);
+
+        // Act
+        List<Map<String, Object>> results = service.searchPlaces("Ber");
+
+        // Assert
+        assertEquals(5, results.size());
+        assertEquals("Berlin", results.get(0).get("name"));
+    }
+
+    /**
+     * @test Fehlerraten
+     * @description Bei einer Fehlerrate von 1 antwortet der Simulator immer mit HTTP 500,
+     * bei einer Failure-Rate von 1 immer mit success:false.
+     */
+    @Test
+    void errorAndFailureRates_shouldBeApplied() {
+        // Arrange
+        simulator.errorRate(1.0);
+
+        // Act & Assert
+        assertThrows(HttpServerErrorException.class,
+                () -> restTemplate.getForObject(simulator.baseUrl() + "/conditions/52.5,13.4", String.class));
+
+        simulator.errorRate(0).failureRate(1.0);
+        String response = restTemplate.getForObject(simulator.baseUrl() + "/conditions/52.5,13.4", String.class);
+        assertTrue(response.contains("\"success\":false"));
+    }
+
+    /**
+     * @test Batch-Anfragen
+     */
+    @Test
+    void batch_shouldAnswerEachSubRequest() throws Exception {
+        // Act
+        String response = restTemplate.getForObject(
+                simulator.baseUrl() + "/batch?requests={requests}", String.class,
+                "/conditions/52.5,13.4,/airquality/48.1,11.5?limit=1");
+        JsonNode responses = new ObjectMapper().readTree(response).get("response").get("responses");
+
+        // Assert
+        assertEquals(2, responses.size());
+        assertTrue(responses.get(0).get("success").asBoolean());
+        assertTrue(responses.get(1).get("response").get(0).get("periods").get(0).has("aqi"));
+        assertEquals(1, simulator.requestCount("batch"));
+    }
+
+    /**
+     * Ersetzt alle vorhandenen Werte durch {@code "x"}, damit zeitabhängige Werte den Vergleich nicht stören.
+     */
+    private static Object shape(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> shaped = new java.util.HashMap<>();
+            map.forEach((key, nested) -> shaped.put(key, shape(nested)));
+            return shaped;
+        }
+        if (value instanceof List<?> list) {
+            return list.stream().map(XweatherSimulatorTest::shape).toList();
+        }
+        return value != null ? "x" : null;
+    }
+
+    private void configure(Object service) {
+        ReflectionTestUtils.setField(service, "restTemplate", restTemplate);
+        ReflectionTestUtils.setField(service, "clientId", "sim");
+        ReflectionTestUtils.setField(service, "clientSecret", "sim");
+        ReflectionTestUtils.setField(service, "baseUrl", simulator.baseUrl());
+    }
+}